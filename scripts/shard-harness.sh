@@ -0,0 +1,214 @@
+#!/usr/bin/env bash
+# Exercises sharding end to end on three embedded H2 shards (the local-shards profile):
+# routing, scatter-gather merge order, per-shard id ranges, moving a task whose team
+# changed, and a rebalance that is killed halfway and restarted.
+#
+# usage: scripts/shard-harness.sh
+#
+# Checks, each printed as ok/FAIL (the exit status is the number of failures):
+#   1. shards a and b each hold whole teams; c (weight 0) holds nothing
+#   2. every id lies in the range of the shard that created it (id >> 44 == shard id)
+#   3. cross-shard counts and per-team counts add up; sorted lists are in order across shards
+#   4. a task given a team on another shard is moved there
+#   5. with c added to the ring, a rebalance killed mid-run and started again leaves every
+#      task exactly once, on the shard that owns its team
+#
+# Environment:
+#   SHARD_DIR  where the shard databases are created, wiped first (default: ./target/local-shards)
+#   PORT       server port                                         (default: 8084)
+#   TEAMS      teams to create                                     (default: 24)
+#   PER_TEAM   tasks per team                                      (default: 5)
+set -uo pipefail
+
+cd "$(dirname "$0")/.."
+SHARD_DIR=${SHARD_DIR:-./target/local-shards}
+PORT=${PORT:-8084}
+TEAMS=${TEAMS:-24}
+PER_TEAM=${PER_TEAM:-5}
+BASE="http://localhost:${PORT}/api/tasks"
+LOG=target/shard-harness.log
+TOTAL=$((TEAMS * PER_TEAM))
+FAILURES=0
+PID=""
+
+mvn -B -q -Plocal-shards compile dependency:build-classpath \
+  -Dmdep.includeScope=runtime -Dmdep.outputFile=target/local-shards.classpath || exit 1
+CLASSPATH="target/classes:$(cat target/local-shards.classpath)"
+H2_JAR=$(tr ':' '\n' <target/local-shards.classpath | grep '/h2-[0-9.]*\.jar$')
+
+check() {
+  local name=$1
+  shift
+  if "$@"; then
+    echo "ok    $name"
+  else
+    echo "FAIL  $name"
+    FAILURES=$((FAILURES + 1))
+  fi
+}
+
+# start <jvm args...>: starts the service and waits until it is healthy
+start() {
+  # shellcheck disable=SC2086
+  java -cp "$CLASSPATH" -Dspring.profiles.active=local-shards -Dserver.port="$PORT" \
+    -DSHARD_DIR="$SHARD_DIR" "$@" org.example.Main >>"$LOG" 2>&1 &
+  PID=$!
+  disown "$PID"
+  for _ in $(seq 1 120); do
+    [[ $(curl -s -o /dev/null -w '%{http_code}' "http://localhost:${PORT}/actuator/health") == 200 ]] && return 0
+    kill -0 "$PID" 2>/dev/null || break
+    sleep 1
+  done
+  echo "service did not start, see $LOG" >&2
+  tail -20 "$LOG" >&2
+  exit 1
+}
+
+# stop [signal]: stops the service; KILL simulates a crash
+stop() {
+  [[ -z $PID ]] && return
+  kill -"${1:-TERM}" "$PID" 2>/dev/null
+  # Shutdown waits for queued Kafka sends; there is no broker here
+  for _ in $(seq 1 20); do
+    kill -0 "$PID" 2>/dev/null || break
+    sleep 0.5
+  done
+  kill -9 "$PID" 2>/dev/null
+  wait "$PID" 2>/dev/null
+  PID=""
+}
+trap stop EXIT
+
+# sql <shard> <query>: prints the result rows, one per line, without the header
+sql() {
+  java -cp "$H2_JAR" org.h2.tools.Shell -user sa -password "" \
+    -url "jdbc:h2:file:${SHARD_DIR}/$1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;AUTO_SERVER=TRUE" \
+    -sql "$2" | sed '1d;/^(.* rows\?, .* ms)$/d'
+}
+
+# Tasks hold team codes; every shard has a copy of the team dictionary with the same ids
+TEAM_IS="team_id = (SELECT id FROM task_teams WHERE name = '%s')"
+
+# The shard holding a team's tasks, or nothing
+shard_of_team() {
+  local shard
+  for shard in a b c; do
+    [[ $(sql "$shard" "SELECT COUNT(*) FROM tasks WHERE $(printf "$TEAM_IS" "$1")") -gt 0 ]] && echo "$shard"
+  done
+}
+
+whole_teams() {
+  local seen
+  seen=$(for shard in a b c; do sql "$shard" "SELECT DISTINCT team_id FROM tasks"; done | sort | uniq -d)
+  [[ -z $seen ]]
+}
+
+empty_shard() {
+  [[ $(sql "$1" "SELECT COUNT(*) FROM tasks") -eq 0 ]]
+}
+
+ids_in_shard_range() {
+  [[ $(sql a "SELECT COUNT(*) FROM tasks WHERE id / 17592186044416 <> 1") -eq 0 &&
+     $(sql b "SELECT COUNT(*) FROM tasks WHERE id / 17592186044416 <> 2") -eq 0 ]]
+}
+
+each_task_once() {
+  local ids
+  ids=$(for shard in a b c; do sql "$shard" "SELECT id FROM tasks"; done)
+  [[ $(wc -l <<<"$ids") -eq $TOTAL && -z $(sort <<<"$ids" | uniq -d) ]]
+}
+
+counts_add_up() {
+  [[ $(curl -s "$BASE/count") -eq $TOTAL ]] || return 1
+  local team
+  for ((team = 0; team < TEAMS; team++)); do
+    [[ $(curl -s "$BASE/team/team-$team/count") -eq $PER_TEAM ]] || return 1
+  done
+}
+
+# sorted <path> <field> <asc|desc>
+sorted() {
+  curl -s "$BASE/$1" | python3 -c '
+import json, sys
+from datetime import datetime
+tasks = json.load(sys.stdin)
+values = [task[sys.argv[1]] for task in tasks]
+if sys.argv[1].endswith("_at"):
+    values = [datetime.fromisoformat(value) for value in values]
+expected = sorted(values, reverse=sys.argv[2] == "desc")
+sys.exit(0 if len(tasks) == int(sys.argv[3]) and values == expected else 1)' "$2" "$3" "$TOTAL"
+}
+
+rebalance_status() {
+  curl -s "$BASE/shards/rebalance" | python3 -c "import json, sys; print(json.load(sys.stdin).get('$1'))"
+}
+
+wait_rebalance() {
+  while [[ $(rebalance_status running) == True ]]; do
+    sleep 0.5
+  done
+}
+
+rm -rf "$SHARD_DIR"
+: >"$LOG"
+start
+
+echo "== creating $TOTAL tasks in $TEAMS teams"
+WORDS=(delta alpha echo charlie bravo foxtrot golf hotel india juliet)
+for ((team = 0; team < TEAMS; team++)); do
+  for ((n = 0; n < PER_TEAM; n++)); do
+    curl -s -o /dev/null -XPOST "$BASE/createTask" -H 'Content-Type: application/json' \
+      -d "{\"title\":\"${WORDS[$(((team * 7 + n * 3) % 10))]} $team-$n\",\"userId\":$((n + 1)),\"team\":\"team-$team\",\"status\":\"TODO\",\"priority\":\"MEDIUM\"}"
+  done
+done
+
+check "teams are not split across shards" whole_teams
+check "drained shard c holds no tasks" empty_shard c
+check "ids are in their shard's range" ids_in_shard_range
+check "cross-shard and per-team counts" counts_add_up
+check "created-date sort merges shards in order" sorted sort/created-date/desc created_at desc
+check "title sort merges shards in order" sorted sort/title title asc
+
+echo "== moving a task to a team on the other shard"
+SOURCE=$(shard_of_team team-0)
+for ((team = 1; team < TEAMS; team++)); do
+  TARGET=$(shard_of_team "team-$team")
+  [[ $TARGET != "$SOURCE" ]] && break
+done
+MOVED_ID=$(sql "$SOURCE" "SELECT MIN(id) FROM tasks WHERE $(printf "$TEAM_IS" team-0)")
+curl -s -o /dev/null -XPUT "$BASE/$MOVED_ID" -H 'Content-Type: application/json' -d "{\"team\":\"team-$team\"}"
+check "task moved from $SOURCE to $TARGET with its team" \
+  test "$(sql "$TARGET" "SELECT COUNT(*) FROM tasks WHERE id = $MOVED_ID")$(sql "$SOURCE" "SELECT COUNT(*) FROM tasks WHERE id = $MOVED_ID")" = 10
+# Restore the layout the counts below expect
+curl -s -o /dev/null -XPUT "$BASE/$MOVED_ID" -H 'Content-Type: application/json' -d '{"team":"team-0"}'
+
+echo "== adding shard c and rebalancing, killed halfway"
+stop
+start -DSHARD_C_WEIGHT=1 -Dtask-service.sharding.rebalance-batch-size=2 -Dtask-service.sharding.rebalance-pause=1s
+curl -s -o /dev/null -XPOST "$BASE/shards/rebalance?dryRun=true"
+wait_rebalance
+MISPLACED=$(curl -s "$BASE/shards/rebalance" | python3 -c "import json, sys; print(sum(json.load(sys.stdin)['misplaced'].values()))")
+echo "   $MISPLACED tasks misplaced"
+check "adding shard c leaves tasks to move" test "$MISPLACED" -gt 0
+curl -s -o /dev/null -XPOST "$BASE/shards/rebalance"
+sleep 3
+stop KILL
+echo "   killed with $(sql c "SELECT COUNT(*) FROM tasks") tasks on shard c"
+
+start -DSHARD_C_WEIGHT=1
+curl -s -o /dev/null -XPOST "$BASE/shards/rebalance"
+wait_rebalance
+echo "   restarted run moved $(rebalance_status moved)"
+check "restarted rebalance finished" test "$(rebalance_status error)" = None
+curl -s -o /dev/null -XPOST "$BASE/shards/rebalance?dryRun=true"
+wait_rebalance
+check "nothing misplaced afterwards" test "$(curl -s "$BASE/shards/rebalance" | python3 -c "import json, sys; print(json.load(sys.stdin)['misplaced'])")" = "{}"
+check "every task on exactly one shard" each_task_once
+check "teams are not split across shards" whole_teams
+check "shard c took over tasks" test "$(sql c "SELECT COUNT(*) FROM tasks")" -gt 0
+check "cross-shard and per-team counts" counts_add_up
+check "created-date sort merges shards in order" sorted sort/created-date/desc created_at desc
+
+echo
+echo "$FAILURES check(s) failed"
+exit "$FAILURES"
@@ -0,0 +1,106 @@
+#!/usr/bin/env bash
+# Compares time-to-ready of the default configuration, the faststart profile, and the
+# faststart profile with the AppCDS archive from `mvn -Pcds package`.
+#
+# usage: scripts/startup-benchmark.sh [runs]        (default 5 runs per configuration)
+#
+# Each run starts the service, polls /actuator/health until it answers 200, and stops it.
+# Reported: wall-clock ms from launch to ready, and Spring's own "Started Main in" time.
+# The database must be reachable and already migrated (faststart only validates the schema).
+#
+# Environment:
+#   EXTRA_ARGS  JVM arguments for every run, e.g. "-Dspring.datasource.url=jdbc:mysql://db:3306/taskdb"
+#   APP         how to launch the application       (default: -jar target/TaskManageService-1.0-SNAPSHOT.jar)
+#   CDS_DIR     directory holding application.jsa   (default: target/extracted)
+#   CDS_APP     how to launch it from CDS_DIR       (default: -jar TaskManageService-1.0-SNAPSHOT.jar)
+#   PORT        server port                         (default: 8084)
+#   TIMEOUT     seconds to wait for one start       (default: 120)
+set -uo pipefail
+
+RUNS=${1:-5}
+EXTRA_ARGS=${EXTRA_ARGS:-}
+APP=${APP:--jar target/TaskManageService-1.0-SNAPSHOT.jar}
+CDS_DIR=${CDS_DIR:-target/extracted}
+CDS_APP=${CDS_APP:--jar TaskManageService-1.0-SNAPSHOT.jar}
+PORT=${PORT:-8084}
+TIMEOUT=${TIMEOUT:-120}
+HEALTH_URL="http://localhost:${PORT}/actuator/health"
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+now_ms() {
+  date +%s%3N
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2]; else print int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# run_once <dir> <launch> <jvm args...>: prints "<wall ms> <started-in ms>", or nothing if the start failed
+run_once() {
+  local dir=$1 launch=$2
+  shift 2
+  if curl -s -o /dev/null "$HEALTH_URL"; then
+    echo "port $PORT is already in use" >&2
+    exit 1
+  fi
+  local start
+  start=$(now_ms)
+  # shellcheck disable=SC2086
+  (cd "$dir" && exec java "$@" -Dserver.port="$PORT" $EXTRA_ARGS $launch) >"$LOG" 2>&1 &
+  local pid=$!
+  local ready=""
+  while (( $(now_ms) - start < TIMEOUT * 1000 )); do
+    if [[ $(curl -s -o /dev/null -w '%{http_code}' "$HEALTH_URL") == 200 ]]; then
+      ready=$(now_ms)
+      break
+    fi
+    kill -0 "$pid" 2>/dev/null || break
+    sleep 0.05
+  done
+  kill "$pid" 2>/dev/null
+  wait "$pid" 2>/dev/null
+  if [[ -z $ready ]]; then
+    echo "  start failed, last log lines:" >&2
+    tail -5 "$LOG" >&2
+    return
+  fi
+  local started
+  started=$(grep -o 'Started Main in [0-9.]* seconds' "$LOG" | awk '{ printf "%d", $4 * 1000 }')
+  echo "$((ready - start)) ${started:--}"
+}
+
+# bench <name> <dir> <launch> <jvm args...>
+bench() {
+  local name=$1
+  shift
+  local walls=() started=()
+  echo "== $name"
+  for ((i = 1; i <= RUNS; i++)); do
+    local result
+    result=$(run_once "$@")
+    [[ -z $result ]] && continue
+    read -r wall start <<<"$result"
+    echo "  run $i: ready in ${wall} ms (Started Main in ${start} ms)"
+    walls+=("$wall")
+    [[ $start != - ]] && started+=("$start")
+  done
+  SUMMARY+=("$(printf '%-16s %12s %20s' "$name" \
+    "$(printf '%s\n' "${walls[@]}" | grep . | median)" \
+    "$(printf '%s\n' "${started[@]}" | grep . | median)")")
+}
+
+cd "$(dirname "$0")/.."
+SUMMARY=()
+
+bench default . "$APP"
+bench faststart . "$APP" -Dspring.profiles.active=faststart
+if [[ -f $CDS_DIR/application.jsa ]]; then
+  bench faststart+cds "$CDS_DIR" "$CDS_APP" -XX:SharedArchiveFile=application.jsa -Dspring.profiles.active=faststart
+else
+  echo "== faststart+cds skipped: no $CDS_DIR/application.jsa (build with mvn -Pcds package)"
+fi
+
+echo
+printf '%-16s %12s %20s\n' configuration "median ms" "median Started ms"
+printf '%s\n' "${SUMMARY[@]}"
@@ -0,0 +1,171 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list queries behind {@code /status/{status}}, {@code /team/{team}/status/{status}}
+ * and the created-date sort, against an in-memory H2 {@code tasks} table
+ * of {@code ROWS} tasks before ({@code archived=false}) and after ({@code archived=true})
+ * the archiver has moved the tasks completed more than 90 days ago to {@code tasks_archive}.
+ * <p>
+ * Three quarters of the generated tasks are long completed, so archiving shrinks the hot
+ * table from 200,000 to 50,000 rows; the open-task queries return the same rows either way.
+ * {@code doneIncludingArchived} is the {@code includeArchived=true} read, which pays for
+ * both tables. The rows are moved with the archiver's own copy and delete statements.
+ * <p>
+ * Run with {@code mvn -Pjmh compile exec:exec@jmh -Djmh.args=TaskArchiveBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskArchiveBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int TEAMS = 40;
+    private static final String COLUMNS =
+            "id, title, description, status, team, user_id, priority, created_at, updated_at, completed_at";
+    private static final String TABLE =
+            " (id BIGINT PRIMARY KEY, title VARCHAR(255), description VARCHAR(255), status VARCHAR(255), " +
+            "team VARCHAR(255), user_id BIGINT, priority VARCHAR(20), created_at TIMESTAMP, updated_at TIMESTAMP, " +
+            "completed_at TIMESTAMP";
+
+    @Param({"false", "true"})
+    private boolean archived;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:archive;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        LocalDateTime now = LocalDateTime.of(2025, 6, 17, 10, 0);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS tasks");
+            statement.execute("DROP TABLE IF EXISTS tasks_archive");
+            statement.execute("CREATE TABLE tasks" + TABLE + ")");
+            statement.execute("CREATE TABLE tasks_archive" + TABLE + ", archived_at TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_tasks_status ON tasks (status)");
+            statement.execute("CREATE INDEX idx_tasks_team_status ON tasks (team, status)");
+            statement.execute("CREATE INDEX idx_tasks_completed_at ON tasks (completed_at)");
+            statement.execute("CREATE INDEX idx_tasks_archive_team_status ON tasks_archive (team, status)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO tasks (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                // 75% completed long ago, 5% completed recently, 10% each to do and in progress
+                int bucket = i % 20;
+                String status = bucket < 16 ? "DONE" : bucket < 18 ? "TODO" : "IN_PROGRESS";
+                LocalDateTime completedAt = bucket < 15 ? now.minusDays(91 + i % 600)
+                        : bucket == 15 ? now.minusDays(i % 60) : null;
+                insert.setLong(1, i);
+                insert.setString(2, "Finalize Q3 Report " + i);
+                insert.setString(3, "Compile all department data and generate the final report.");
+                insert.setString(4, status);
+                insert.setString(5, "Team " + i / 20 % TEAMS);
+                insert.setLong(6, 100 + i % 500);
+                insert.setString(7, i % 3 == 0 ? "HIGH" : "MEDIUM");
+                insert.setTimestamp(8, Timestamp.valueOf(now.minusMinutes(ROWS - i)));
+                insert.setTimestamp(9, Timestamp.valueOf(now.minusMinutes(ROWS - i)));
+                insert.setTimestamp(10, completedAt != null ? Timestamp.valueOf(completedAt) : null);
+                insert.addBatch();
+                if (i % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        if (archived) {
+            archive(Timestamp.valueOf(now.minusDays(90)), Timestamp.valueOf(now));
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    // TaskArchiver's batch, without the row locks and batch pause
+    private void archive(Timestamp before, Timestamp archivedAt) throws SQLException {
+        String where = " WHERE status IN ('DONE', 'COMPLETED') AND completed_at < ?";
+        try (PreparedStatement copy = connection.prepareStatement(
+                "INSERT INTO tasks_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS + ", ? FROM tasks" + where +
+                " ON DUPLICATE KEY UPDATE id = id");
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM tasks" + where)) {
+            copy.setTimestamp(1, archivedAt);
+            copy.setTimestamp(2, before);
+            copy.executeUpdate();
+            delete.setTimestamp(1, before);
+            delete.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE tasks");
+            statement.execute("DROP TABLE tasks_archive");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int teamAndStatus() throws SQLException {
+        return read("SELECT " + COLUMNS + " FROM tasks WHERE team = ? AND status = ?", "Team 7", "IN_PROGRESS");
+    }
+
+    @Benchmark
+    public int openByStatus() throws SQLException {
+        return read("SELECT " + COLUMNS + " FROM tasks WHERE status = ?", "TODO");
+    }
+
+    @Benchmark
+    public int sortedByCreatedAt() throws SQLException {
+        return read("SELECT " + COLUMNS + " FROM tasks ORDER BY created_at DESC");
+    }
+
+    @Benchmark
+    public int doneIncludingArchived() throws SQLException {
+        return read("SELECT " + COLUMNS + " FROM tasks WHERE team = ? AND status = ?", "Team 7", "DONE")
+                + read("SELECT " + COLUMNS + " FROM tasks_archive WHERE team = ? AND status = ?", "Team 7", "DONE");
+    }
+
+    private int read(String sql, String... args) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                select.setString(i + 1, args[i]);
+            }
+            int rows = 0;
+            try (ResultSet rs = select.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        rs.getObject(column);
+                    }
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.benchmark;
+
+import org.example.Main;
+import org.example.dto.TaskRequestDto;
+import org.example.dto.TaskResponseDto;
+import org.example.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a batch of tasks by id the way callers did before (one {@code getTaskById} per task,
+ * as behind {@code /get/{id}}) and the way {@code /get/batch} does ({@code getTasksByIds}),
+ * through the service with the {@code local-shards} profile: the same mapper, write-behind and
+ * read-model lookups, and the search of the creating shard first and the others for the ids
+ * not found there.
+ * <p>
+ * {@code ROWS} tasks are created through the service in a temporary {@code SHARD_DIR}; one in
+ * twenty requested ids lies in a shard's id range but was never issued, so it is searched
+ * everywhere. The shards are embedded H2, so a statement costs no network round trip; against
+ * MySQL the looped path pays one per id, the batch path one per chunk and shard. Neither side
+ * includes the HTTP request each looped id also costs.
+ * <p>
+ * Run with {@code mvn -Pjmh compile exec:exec@jmh -Djmh.args=TaskMultiGetBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// The whole service stack takes about half a minute of calls to compile
+@Warmup(iterations = 15, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMultiGetBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int CREATE_BATCH = 500;
+
+    @Param({"10", "100", "500"})
+    private int ids;
+
+    private Path shardDir;
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private List<Long> requested;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        shardDir = Files.createTempDirectory("multiget-shards");
+        context = new SpringApplicationBuilder(Main.class)
+                .web(WebApplicationType.NONE)
+                .profiles("local-shards")
+                // Arguments rather than default properties, which the profile's settings override
+                .run("--SHARD_DIR=" + shardDir,
+                        // Background jobs would compete with the measured reads
+                        "--task-service.deadlines.enabled=false",
+                        "--task-service.archive.enabled=false",
+                        // No broker: fail each task-created event at once, or seeding and
+                        // shutdown wait out max.block.ms per event
+                        "--spring.kafka.producer.properties.max.block.ms=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.apache.kafka=OFF",
+                        "--logging.level.org.springframework.kafka=OFF",
+                        "--logging.level.org.example.messaging=OFF");
+        taskService = context.getBean(TaskService.class);
+
+        LocalDateTime now = LocalDateTime.of(2025, 6, 17, 10, 0);
+        List<Long> created = new ArrayList<>(ROWS);
+        for (int from = 0; from < ROWS; from += CREATE_BATCH) {
+            List<TaskRequestDto> batch = new ArrayList<>(CREATE_BATCH);
+            for (int i = from; i < from + CREATE_BATCH; i++) {
+                TaskRequestDto task = new TaskRequestDto();
+                task.setTitle("Finalize Q3 Report " + i);
+                task.setDescription("Compile all department data and generate the final report.");
+                task.setStatus(i % 2 == 0 ? "IN_PROGRESS" : "TODO");
+                task.setTeam("Team " + i % 40);
+                task.setUserId(100L + i % 500);
+                task.setDueDate(now.plusDays(i % 30));
+                batch.add(task);
+            }
+            taskService.createTasks(batch).forEach(task -> created.add(task.getId()));
+        }
+
+        // Random ids, one in twenty of them missing
+        Random random = new Random(42);
+        requested = new ArrayList<>(ids);
+        for (int i = 0; i < ids; i++) {
+            long id = created.get(random.nextInt(ROWS));
+            requested.add(i % 20 == 19 ? id + (1L << 40) + i : id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(shardDir);
+    }
+
+    @Benchmark
+    public int loopedGetTaskById() {
+        int found = 0;
+        for (Long id : requested) {
+            try {
+                TaskResponseDto task = taskService.getTaskById(id);
+                if (task != null) {
+                    found++;
+                }
+            } catch (RuntimeException e) {
+                // Not found: a 404 to the caller
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int getTasksByIds() {
+        return taskService.getTasksByIds(requested, false).getFound();
+    }
+}
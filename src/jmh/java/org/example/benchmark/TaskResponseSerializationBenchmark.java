@@ -0,0 +1,108 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.example.dto.Priority;
+import org.example.dto.TaskResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a task list the way the list endpoints did before (reflective bean serializer,
+ * writer resolved per call) and the way they do now (hand-written serializer, cached writer).
+ * <p>
+ * Run with {@code mvn -Pjmh compile exec:exec@jmh}; add {@code -Djmh.args="-prof gc"} for
+ * allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskResponseSerializationBenchmark {
+
+    // Restores the default bean serializer on a copy of the mapper
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class Reflective {
+    }
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private List<TaskResponseDto> tasks;
+    private ObjectMapper reflectiveMapper;
+    private ObjectWriter fastWriter;
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same settings as spring.jackson in application.yml
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        reflectiveMapper = mapper.copy().addMixIn(TaskResponseDto.class, Reflective.class);
+        fastWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(Collection.class, TaskResponseDto.class));
+
+        LocalDateTime now = LocalDateTime.of(2025, 6, 17, 10, 0, 0, 123_456_000);
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskResponseDto task = new TaskResponseDto();
+            task.setId((long) i);
+            task.setTitle("Finalize Q3 Report " + i);
+            task.setDescription(i % 3 == 0 ? null : "Compile all department data and generate the final report.");
+            task.setStatus(i % 2 == 0 ? "IN_PROGRESS" : "TODO");
+            task.setCategory("Finance");
+            task.setTeam("Accounting");
+            task.setPriority(Priority.fromCode(i % 3));
+            task.setUserId(100L + i % 50);
+            task.setDueDate(now.plusDays(i % 30).withNano(0));
+            task.setDuration(i % 4 == 0 ? null : 240);
+            task.setCreatedAt(now.minusMinutes(i));
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+        out = new ByteArrayOutputStream(size * 512);
+    }
+
+    @Benchmark
+    public int reflective() throws IOException {
+        out.reset();
+        reflectiveMapper.writerFor(reflectiveMapper.getTypeFactory()
+                .constructCollectionType(List.class, TaskResponseDto.class)).writeValue(out, tasks);
+        return out.size();
+    }
+
+    @Benchmark
+    public int handWritten() throws IOException {
+        out.reset();
+        fastWriter.writeValue(out, tasks);
+        return out.size();
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.ExceptionHandling;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An {@code Idempotency-Key} that cannot be honoured: reused for a different request (422),
+ * or still held by a request that did not finish in time (409).
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
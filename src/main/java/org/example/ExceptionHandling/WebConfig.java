@@ -1,5 +1,7 @@
 package org.example.ExceptionHandling;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.converter.TaskResponseHttpMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,4 +31,10 @@ public class WebConfig {
             }
         };
     }
-}
\ No newline at end of file
+
+    // Picked up by Spring Boot and placed ahead of the default Jackson converter
+    @Bean
+    public TaskResponseHttpMessageConverter taskResponseHttpMessageConverter(ObjectMapper objectMapper) {
+        return new TaskResponseHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans that stay eager under {@code spring.main.lazy-initialization} (the faststart
+ * profile). Hibernate's bootstrap and schema validation are the bulk of startup, but a
+ * replica reporting ready before them would push that cost, and any mapping error, onto
+ * its first requests.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class, DataSource.class);
+    }
+}
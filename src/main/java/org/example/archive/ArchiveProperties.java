@@ -0,0 +1,30 @@
+package org.example.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    // Tasks completed longer ago than this move to tasks_archive
+    private Duration minAge = Duration.ofDays(90);
+    private List<String> completedStatuses = new ArrayList<>(List.of("DONE", "COMPLETED"));
+
+    // How often a run starts; each run moves batches until none are left or max-batches-per-run
+    private Duration interval = Duration.ofHours(1);
+    private Duration initialDelay = Duration.ofMinutes(1);
+    private int batchSize = 500;
+    // Pause between batches so archiving does not compete with request traffic
+    private Duration batchPause = Duration.ofMillis(200);
+    private int maxBatchesPerRun = 200;
+
+    // Send TASK_ARCHIVED so read models drop the task
+    private boolean publishEvents = true;
+}
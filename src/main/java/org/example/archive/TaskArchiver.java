@@ -0,0 +1,262 @@
+package org.example.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.converter.TaskMapper;
+import org.example.dictionary.TaskDictionary;
+import org.example.entity.ArchivedTaskEntity;
+import org.example.messaging.TaskEventPublisher;
+import org.example.model.NotificationEvent;
+import org.example.model.TaskEventType;
+import org.example.repository.ArchivedTaskRepository;
+import org.example.sharding.ShardTemplate;
+import org.example.sync.TaskTombstones;
+import org.example.writebehind.TaskWriteBehindBuffer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves long-completed tasks from {@code tasks} to {@code tasks_archive}, keeping the hot
+ * table (and every index behind the status/team/user views) to the working set.
+ * <p>
+ * Each batch runs in one transaction: the oldest eligible rows are locked, copied with an
+ * INSERT ... SELECT that ignores rows already in the archive, and deleted. A batch
+ * interrupted anywhere is either rolled back or complete, and re-running one is a no-op,
+ * so replicas may run the archiver concurrently. Batches are separated by
+ * {@code batch-pause} and a run stops after {@code max-batches-per-run} on each shard;
+ * every shard archives into its own {@code tasks_archive}.
+ * <p>
+ * Archiving does not go through {@link org.example.service.TaskChangeListener}s: the task
+ * did not change, so rollups keep counting it. A {@code TASK_ARCHIVED} event lets read
+ * models drop it.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@EnableConfigurationProperties(ArchiveProperties.class)
+@ConditionalOnProperty(prefix = "task-service.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver implements DisposableBean {
+
+    private static final String COLUMNS =
+            "id, title, description, due_date, duration, " +
+            "created_at, updated_at, completed_at, user_id, priority_code, status_id, category_id, team_id";
+
+    private static final String SELECT_SQL =
+            "SELECT id FROM tasks WHERE status_id IN (%s) AND completed_at < ? " +
+            "ORDER BY completed_at, id LIMIT ? FOR UPDATE";
+
+    private static final String COPY_SQL =
+            "INSERT INTO tasks_archive (" + COLUMNS + ", archived_at) " +
+            "SELECT " + COLUMNS + ", ? FROM tasks WHERE id IN (%s) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String DELETE_SQL = "DELETE FROM tasks WHERE id IN (%s)";
+
+    private final ArchiveProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskMapper taskMapper;
+    private final TaskEventPublisher taskEventPublisher;
+    private final ShardTemplate shards;
+    private final ObjectProvider<TaskWriteBehindBuffer> writeBehind;
+    private final TaskTombstones tombstones;
+    private final TaskDictionary dictionary;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter archivedCounter;
+    private final Timer batchTimer;
+
+    private volatile long hotRows = -1;
+    private volatile long archivedRows = -1;
+
+    public TaskArchiver(ArchiveProperties properties,
+                        JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        ArchivedTaskRepository archivedTaskRepository,
+                        TaskMapper taskMapper,
+                        TaskEventPublisher taskEventPublisher,
+                        ShardTemplate shards,
+                        ObjectProvider<TaskWriteBehindBuffer> writeBehind,
+                        TaskTombstones tombstones,
+                        TaskDictionary dictionary,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskMapper = taskMapper;
+        this.taskEventPublisher = taskEventPublisher;
+        this.shards = shards;
+        this.writeBehind = writeBehind;
+        this.tombstones = tombstones;
+        this.dictionary = dictionary;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.archivedCounter = Counter.builder("task.archive.archived").register(meterRegistry);
+        this.batchTimer = Timer.builder("task.archive.batch").register(meterRegistry);
+        // Refreshed after each run, so hot-table growth and the effect of archiving can be charted
+        Gauge.builder("task.archive.rows", this, a -> a.hotRows).tag("table", "hot").register(meterRegistry);
+        Gauge.builder("task.archive.rows", this, a -> a.archivedRows).tag("table", "archive").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::runSafely, properties.getInitialDelay().toMillis(),
+                properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Archives eligible tasks now, unless a run is already in progress.
+     *
+     * @return the number of tasks archived
+     */
+    public int runOnce() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            // A buffered reopen must reach the row before it is judged eligible
+            writeBehind.ifAvailable(TaskWriteBehindBuffer::flush);
+            LocalDateTime cutoff = LocalDateTime.now().minus(properties.getMinAge());
+            for (String shard : shards.getRouter().shards()) {
+                total += archiveShard(shard, cutoff);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            refreshRowCounts();
+            running.set(false);
+        }
+        if (total > 0) {
+            log.info("Archived {} tasks completed before {}", total,
+                    LocalDateTime.now().minus(properties.getMinAge()).toLocalDate());
+        }
+        return total;
+    }
+
+    private int archiveShard(String shard, LocalDateTime cutoff) throws InterruptedException {
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            List<Long> ids = batchTimer.record(() -> shards.execute(shard, () -> archiveBatch(cutoff)));
+            if (ids.isEmpty()) {
+                break;
+            }
+            total += ids.size();
+            archivedCounter.increment(ids.size());
+            shards.run(shard, () -> publish(ids));
+            if (ids.size() < properties.getBatchSize()) {
+                break;
+            }
+            Thread.sleep(properties.getBatchPause().toMillis());
+        }
+        return total;
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (Exception e) {
+            log.error("Task archiving failed: {}", e.getMessage());
+        }
+    }
+
+    private List<Long> archiveBatch(LocalDateTime cutoff) {
+        List<String> statuses = properties.getCompletedStatuses();
+        if (statuses.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return transactionTemplate.execute(tx -> {
+            List<Object> selectArgs = new ArrayList<>();
+            for (String status : statuses) {
+                selectArgs.add(dictionary.code(TaskDictionary.Kind.STATUS, status));
+            }
+            selectArgs.add(Timestamp.valueOf(cutoff));
+            selectArgs.add(properties.getBatchSize());
+            List<Long> ids = jdbcTemplate.queryForList(String.format(SELECT_SQL, placeholders(statuses.size())),
+                    Long.class, selectArgs.toArray());
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            String in = placeholders(ids.size());
+            List<Object> copyArgs = new ArrayList<>(ids.size() + 1);
+            copyArgs.add(Timestamp.valueOf(LocalDateTime.now()));
+            copyArgs.addAll(ids);
+            jdbcTemplate.update(String.format(COPY_SQL, in), copyArgs.toArray());
+            // Archived tasks leave the user and team lists that delta syncs follow
+            tombstones.recordAll(ids, LocalDateTime.now());
+            jdbcTemplate.update(String.format(DELETE_SQL, in), ids.toArray());
+            return ids;
+        });
+    }
+
+    private void publish(List<Long> ids) {
+        if (!properties.isPublishEvents()) {
+            return;
+        }
+        try {
+            List<NotificationEvent> events = new ArrayList<>(ids.size());
+            for (ArchivedTaskEntity task : archivedTaskRepository.findAllById(ids)) {
+                NotificationEvent event = new NotificationEvent(
+                        TaskEventType.TASK_ARCHIVED.name(),
+                        task.getUserId(),
+                        null,
+                        "Task Archived",
+                        "Task '" + task.getTitle() + "' has been archived"
+                );
+                event.setTaskId(task.getId());
+                event.setTaskTitle(task.getTitle());
+                event.setTask(taskMapper.toDto(task));
+                events.add(event);
+            }
+            taskEventPublisher.publishAll(events);
+        } catch (Exception e) {
+            log.warn("Failed to publish archive events for {} tasks: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private void refreshRowCounts() {
+        try {
+            List<String> all = shards.getRouter().shards();
+            hotRows = shards.sum(all, () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class));
+            archivedRows = shards.sum(all, () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks_archive", Long.class));
+        } catch (Exception e) {
+            log.warn("Failed to count task rows: {}", e.getMessage());
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limiter with a bounded wait queue.
+ * <p>
+ * The limit grows by roughly one permit per "window" of fast, successful completions
+ * while it is actually being used, and is cut multiplicatively whenever a request
+ * fails or takes longer than the latency threshold. Requests that find the limit
+ * reached wait in a queue of fixed capacity for at most {@code maxQueueWait}; when
+ * the queue is full or the wait expires they are rejected immediately instead of
+ * piling up on the servlet and connection pools.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final BulkheadType type;
+    private final ConcurrencyLimitProperties.Limit config;
+    private final long latencyThresholdNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(BulkheadType type, ConcurrencyLimitProperties.Limit config) {
+        this.type = type;
+        this.config = config;
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+        this.limit = clamp(config.getInitialLimit());
+    }
+
+    /**
+     * @return true if a permit was acquired and {@link #release(long, boolean)} must be called
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                accepted.incrementAndGet();
+                return true;
+            }
+            if (queued >= config.getQueueCapacity()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = config.getMaxQueueWait().toNanos();
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        rejected.incrementAndGet();
+                        return false;
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                inFlight++;
+                accepted.incrementAndGet();
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            int before = currentLimit();
+            if (!success || latencyNanos > latencyThresholdNanos) {
+                limit = clamp(limit * config.getBackoffRatio());
+            } else if (inFlight * 2 >= before) {
+                // Only probe upwards when at least half of the limit is in use,
+                // otherwise an idle bulkhead would drift to its maximum
+                limit = clamp(limit + 1.0 / limit);
+            }
+            inFlight--;
+            int after = currentLimit();
+            if (after > before) {
+                permitReleased.signalAll();
+            } else {
+                permitReleased.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+
+    public BulkheadType getType() {
+        return type;
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, config.getRetryAfter().toSeconds());
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public LimiterSnapshot snapshot() {
+        lock.lock();
+        try {
+            return new LimiterSnapshot(currentLimit(), inFlight, queued, config.getQueueCapacity(),
+                    config.getMinLimit(), config.getMaxLimit(), accepted.get(), rejected.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record LimiterSnapshot(int limit, int inFlight, int queued, int queueCapacity,
+                                  int minLimit, int maxLimit, long accepted, long rejected) {
+    }
+}
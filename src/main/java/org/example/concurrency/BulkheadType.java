@@ -0,0 +1,11 @@
+package org.example.concurrency;
+
+/**
+ * Traffic classes that get their own concurrency limit and wait queue, so that
+ * expensive scans cannot starve cheap lookups of threads and connections.
+ */
+public enum BulkheadType {
+    POINT_READ,
+    LIST_READ,
+    WRITE
+}
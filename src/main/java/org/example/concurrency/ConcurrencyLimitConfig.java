@@ -0,0 +1,28 @@
+package org.example.concurrency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "task-service.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class InterceptorConfig implements WebMvcConfigurer {
+
+        private final ConcurrencyLimiterRegistry registry;
+
+        InterceptorConfig(ConcurrencyLimiterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry interceptors) {
+            interceptors.addInterceptor(new ConcurrencyLimitInterceptor(registry));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.ExceptionHandling.ServiceOverloadedException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits requests to {@link Bulkhead}-annotated handlers through the matching limiter
+ * and reports their latency back to it on completion.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = registry.get(bulkhead.value());
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException(
+                    "Too many concurrent " + bulkhead.value().name().toLowerCase() + " requests",
+                    limiter.getRetryAfterSeconds());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        releasePermit(request, ex == null && response.getStatus() < 500);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async handlers have released their request thread; afterCompletion is not called
+        // for this dispatch, so give the permit back now
+        releasePermit(request, true);
+    }
+
+    private void releasePermit(HttpServletRequest request, boolean success) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.limiter().release(System.nanoTime() - permit.startNanos(), success);
+        }
+    }
+
+    private record Permit(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+    }
+}
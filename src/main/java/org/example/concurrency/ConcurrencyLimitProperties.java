@@ -0,0 +1,34 @@
+package org.example.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.concurrency")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private Map<BulkheadType, Limit> bulkheads = new EnumMap<>(BulkheadType.class);
+
+    public Limit getLimit(BulkheadType type) {
+        return bulkheads.computeIfAbsent(type, t -> new Limit());
+    }
+
+    @Data
+    public static class Limit {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 100;
+        private int queueCapacity = 50;
+        private Duration maxQueueWait = Duration.ofMillis(200);
+        // A completed request slower than this counts as congestion and shrinks the limit
+        private Duration latencyThreshold = Duration.ofMillis(250);
+        private double backoffRatio = 0.9;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
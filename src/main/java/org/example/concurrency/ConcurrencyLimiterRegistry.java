@@ -0,0 +1,45 @@
+package org.example.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<BulkheadType, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(BulkheadType.class);
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        for (BulkheadType type : BulkheadType.values()) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(type, properties.getLimit(type));
+            limiters.put(type, limiter);
+
+            String tag = type.name().toLowerCase();
+            Gauge.builder("task.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            Gauge.builder("task.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            Gauge.builder("task.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("task.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter get(BulkheadType type) {
+        return limiters.get(type);
+    }
+
+    public Map<BulkheadType, AdaptiveConcurrencyLimiter> getAll() {
+        return Collections.unmodifiableMap(limiters);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.concurrency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the current adaptive limits at {@code /actuator/concurrencylimits}.
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+public class ConcurrencyLimitsEndpoint {
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitsEndpoint(ConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, AdaptiveConcurrencyLimiter.LimiterSnapshot> limits() {
+        Map<String, AdaptiveConcurrencyLimiter.LimiterSnapshot> result = new LinkedHashMap<>();
+        registry.getAll().forEach((type, limiter) -> result.put(type.name().toLowerCase(), limiter.snapshot()));
+        return result;
+    }
+}
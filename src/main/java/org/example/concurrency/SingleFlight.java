@@ -0,0 +1,162 @@
+package org.example.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical calls into one execution.
+ * <p>
+ * The first caller for a key (the leader) runs the supplier; callers arriving while it
+ * is in flight wait up to {@code maxWait} for the leader's result instead of running
+ * their own. A follower whose wait expires falls back to running the supplier itself,
+ * so a stuck leader never blocks more than {@code maxWait}. If {@code reuseWindow} is
+ * positive, a completed result also answers callers for that long after it finished.
+ */
+public class SingleFlight<K, V> {
+
+    private static final int SWEEP_THRESHOLD = 1024;
+
+    private final Map<K, Call<V>> calls = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final long reuseWindowNanos;
+
+    private final Counter leaderCalls;
+    private final Counter sharedCalls;
+    private final Counter reusedCalls;
+    private final Counter timedOutCalls;
+
+    public SingleFlight(String name, Duration maxWait, Duration reuseWindow, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.reuseWindowNanos = reuseWindow.toNanos();
+        this.leaderCalls = outcomeCounter(meterRegistry, name, "leader");
+        this.sharedCalls = outcomeCounter(meterRegistry, name, "shared");
+        this.reusedCalls = outcomeCounter(meterRegistry, name, "reused");
+        this.timedOutCalls = outcomeCounter(meterRegistry, name, "timeout");
+        Gauge.builder("task.singleflight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .description("Share of calls answered by another caller's query")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("task.singleflight.calls")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> supplier) {
+        while (true) {
+            Call<V> existing = calls.get(key);
+            if (existing == null) {
+                Call<V> call = new Call<>();
+                if (calls.putIfAbsent(key, call) == null) {
+                    return lead(key, call, supplier);
+                }
+                continue;
+            }
+
+            if (existing.future.isDone()) {
+                if (existing.isReusable(reuseWindowNanos)) {
+                    reusedCalls.increment();
+                    return join(existing);
+                }
+                calls.remove(key, existing);
+                continue;
+            }
+
+            try {
+                V value = existing.future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+                sharedCalls.increment();
+                return value;
+            } catch (TimeoutException e) {
+                timedOutCalls.increment();
+                return supplier.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a coalesced query", e);
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    /**
+     * Forgets all completed and in-flight results so that callers arriving after a write
+     * never observe data read before it.
+     */
+    public void invalidateAll() {
+        calls.clear();
+    }
+
+    private V lead(K key, Call<V> call, Supplier<V> supplier) {
+        leaderCalls.increment();
+        try {
+            V value = supplier.get();
+            call.completedAtNanos = System.nanoTime();
+            call.future.complete(value);
+            if (reuseWindowNanos <= 0) {
+                calls.remove(key, call);
+            } else if (calls.size() > SWEEP_THRESHOLD) {
+                sweepExpired();
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, call);
+            call.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void sweepExpired() {
+        calls.entrySet().removeIf(entry ->
+                entry.getValue().future.isDone() && !entry.getValue().isReusable(reuseWindowNanos));
+    }
+
+    private V join(Call<V> call) {
+        try {
+            return call.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced query", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private double coalescingRatio() {
+        double coalesced = sharedCalls.count() + reusedCalls.count();
+        double total = coalesced + leaderCalls.count() + timedOutCalls.count();
+        return total == 0 ? 0.0 : coalesced / total;
+    }
+
+    private static final class Call<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long completedAtNanos;
+
+        private boolean isReusable(long reuseWindowNanos) {
+            return reuseWindowNanos > 0 && System.nanoTime() - completedAtNanos < reuseWindowNanos;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.concurrency.Bulkhead;
+import org.example.concurrency.BulkheadType;
+import org.example.dto.ThroughputDto;
+import org.example.rollup.RollupBackfill;
+import org.example.service.AnalyticsService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tasks/analytics")
+@Tag(name = "Task Analytics API", description = "Created / completed / overdue counts served from the daily rollup table.")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final ObjectProvider<RollupBackfill> rollupBackfill;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService, ObjectProvider<RollupBackfill> rollupBackfill) {
+        this.analyticsService = analyticsService;
+        this.rollupBackfill = rollupBackfill;
+    }
+
+    @Operation(summary = "Daily throughput", description = "Counts per day between from and to (inclusive), optionally for one team and/or category.")
+    @GetMapping("/daily")
+    @Bulkhead(BulkheadType.LIST_READ)
+    public ResponseEntity<List<ThroughputDto>> getDailyThroughput(
+            @Parameter(description = "First day, inclusive.", required = true, example = "2025-09-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive.", required = true, example = "2025-09-30") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only this team.") @RequestParam(required = false) String team,
+            @Parameter(description = "Only this category.") @RequestParam(required = false) String category) {
+        return ResponseEntity.ok(analyticsService.getDailyThroughput(from, to, team, category));
+    }
+
+    @Operation(summary = "Throughput per team", description = "Counts per team over the range, optionally for one category.")
+    @GetMapping("/teams")
+    @Bulkhead(BulkheadType.LIST_READ)
+    public ResponseEntity<List<ThroughputDto>> getThroughputByTeam(
+            @Parameter(description = "First day, inclusive.", required = true, example = "2025-09-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive.", required = true, example = "2025-09-30") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only this category.") @RequestParam(required = false) String category) {
+        return ResponseEntity.ok(analyticsService.getThroughputByTeam(from, to, category));
+    }
+
+    @Operation(summary = "Throughput per category", description = "Counts per category over the range, optionally for one team.")
+    @GetMapping("/categories")
+    @Bulkhead(BulkheadType.LIST_READ)
+    public ResponseEntity<List<ThroughputDto>> getThroughputByCategory(
+            @Parameter(description = "First day, inclusive.", required = true, example = "2025-09-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive.", required = true, example = "2025-09-30") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only this team.") @RequestParam(required = false) String team) {
+        return ResponseEntity.ok(analyticsService.getThroughputByCategory(from, to, team));
+    }
+
+    @Operation(summary = "Rebuild rollups", description = "Starts recounting the rollups for [from, to] from the tasks table in throttled chunks. Returns 409 if a rebuild is already running.")
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<RollupBackfill.Status> startBackfill(
+            @Parameter(description = "First day, inclusive.", required = true, example = "2025-01-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive.", required = true, example = "2025-09-30") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RollupBackfill backfill = requireBackfill();
+        boolean started = backfill.start(from, to);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(backfill.getStatus());
+    }
+
+    @Operation(summary = "Rollup rebuild status", description = "Progress of the current or last rollup rebuild.")
+    @GetMapping("/rollups/backfill")
+    public ResponseEntity<RollupBackfill.Status> getBackfillStatus() {
+        return ResponseEntity.ok(requireBackfill().getStatus());
+    }
+
+    private RollupBackfill requireBackfill() {
+        RollupBackfill backfill = rollupBackfill.getIfAvailable();
+        if (backfill == null) {
+            throw new IllegalArgumentException("Task rollups are disabled (task-service.rollup.enabled=false)");
+        }
+        return backfill;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.concurrency.Bulkhead;
+import org.example.concurrency.BulkheadType;
+import org.example.dto.CalendarMonthDto;
+import org.example.service.CalendarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tasks")
+@Tag(name = "Calendar API", description = "Month views of task due dates: per-day counts and the most urgent tasks of each day.")
+public class CalendarController {
+
+    private final CalendarService calendarService;
+
+    @Autowired
+    public CalendarController(CalendarService calendarService) {
+        this.calendarService = calendarService;
+    }
+
+    @Operation(summary = "Get a user's calendar month",
+            description = "Counts the user's tasks due on each day of the month and lists the top most urgent of each day " +
+                    "(highest priority, then earliest due).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Days with tasks due"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - top out of range")
+    })
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/user/{userId}/calendar")
+    public ResponseEntity<CalendarMonthDto> getUserCalendar(
+            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId,
+            @Parameter(description = "The month.", required = true, example = "2025-09") @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @Parameter(description = "Tasks listed per day.") @RequestParam(defaultValue = "3") int top,
+            @Parameter(description = "Also count and list tasks in a completed status.") @RequestParam(defaultValue = "true") boolean includeCompleted) {
+        return ResponseEntity.ok(calendarService.getUserCalendar(userId, month, top, includeCompleted));
+    }
+
+    @Operation(summary = "Get a team's calendar month",
+            description = "Counts the team's tasks due on each day of the month and lists the top most urgent of each day " +
+                    "(highest priority, then earliest due).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Days with tasks due"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - top out of range")
+    })
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/team/{team}/calendar")
+    public ResponseEntity<CalendarMonthDto> getTeamCalendar(
+            @Parameter(description = "The team name.", required = true) @PathVariable String team,
+            @Parameter(description = "The month.", required = true, example = "2025-09") @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @Parameter(description = "Tasks listed per day.") @RequestParam(defaultValue = "3") int top,
+            @Parameter(description = "Also count and list tasks in a completed status.") @RequestParam(defaultValue = "true") boolean includeCompleted) {
+        return ResponseEntity.ok(calendarService.getTeamCalendar(team, month, top, includeCompleted));
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.sharding.ShardRebalancer;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tasks/shards")
+@Tag(name = "Task Shards API", description = "Configured task shards and rebalancing after the shard set changes.")
+public class ShardController {
+
+    private final ShardTemplate shardTemplate;
+    private final ShardRebalancer shardRebalancer;
+
+    @Autowired
+    public ShardController(ShardTemplate shardTemplate, ShardRebalancer shardRebalancer) {
+        this.shardTemplate = shardTemplate;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @Operation(summary = "List shards", description = "Names of the configured shards; the first one is the primary.")
+    @GetMapping
+    public ResponseEntity<List<String>> getShards() {
+        return ResponseEntity.ok(shardTemplate.getRouter().shards());
+    }
+
+    @Operation(summary = "Rebalance shards", description = "Starts moving every task to the shard the router currently assigns it to. Returns 409 if a rebalance is already running.")
+    @PostMapping("/rebalance")
+    public ResponseEntity<ShardRebalancer.Status> startRebalance(
+            @Parameter(description = "Only count the misplaced tasks.") @RequestParam(defaultValue = "false") boolean dryRun) {
+        boolean started = shardRebalancer.start(dryRun);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(shardRebalancer.getStatus());
+    }
+
+    @Operation(summary = "Rebalance status", description = "Progress of the current or last rebalance.")
+    @GetMapping("/rebalance")
+    public ResponseEntity<ShardRebalancer.Status> getRebalanceStatus() {
+        return ResponseEntity.ok(shardRebalancer.getStatus());
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.concurrency.Bulkhead;
+import org.example.concurrency.BulkheadType;
+import org.example.dto.TaskSyncDto;
+import org.example.service.TaskSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tasks")
+@Tag(name = "Sync API", description = "Changes to a task list since the client's last poll.")
+public class SyncController {
+
+    private final TaskSyncService taskSyncService;
+
+    @Autowired
+    public SyncController(TaskSyncService taskSyncService) {
+        this.taskSyncService = taskSyncService;
+    }
+
+    @Operation(summary = "Get changes to a user's tasks",
+            description = "Returns the user's tasks created or updated since the token and the IDs of tasks deleted or " +
+                    "reassigned away, with a token for the next call. Without a token, or with one too old, returns " +
+                    "every task with full set.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes and the next token"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - invalid token")
+    })
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/user/{userId}/changes")
+    public ResponseEntity<TaskSyncDto> getUserChanges(
+            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId,
+            @Parameter(description = "The token from the previous call.") @RequestParam(required = false) String since) {
+        return ResponseEntity.ok(taskSyncService.getUserChanges(userId, since));
+    }
+
+    @Operation(summary = "Get changes to a team's tasks",
+            description = "Returns the team's tasks (optionally only those in a status) created or updated since the " +
+                    "token and the IDs of tasks that left the list, with a token for the next call. Without a token, " +
+                    "or with one too old, returns every task with full set.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes and the next token"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - invalid token")
+    })
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/team/{team}/changes")
+    public ResponseEntity<TaskSyncDto> getTeamChanges(
+            @Parameter(description = "The team name.", required = true) @PathVariable String team,
+            @Parameter(description = "Only tasks in this status.") @RequestParam(required = false) String status,
+            @Parameter(description = "The token from the previous call.") @RequestParam(required = false) String since) {
+        return ResponseEntity.ok(taskSyncService.getTeamChanges(team, status, since));
+    }
+}
@@ -7,14 +7,24 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.concurrency.Bulkhead;
+import org.example.concurrency.BulkheadType;
 import org.example.dto.Priority;
+import org.example.dto.StatusTransitionRequestDto;
+import org.example.dto.StatusTransitionResultDto;
+import org.example.dto.TaskMultiGetDto;
+import org.example.dto.TaskMultiGetRequestDto;
 import org.example.dto.TaskRequestDto;
 import org.example.dto.TaskResponseDto;
+import org.example.idempotency.IdempotencyStore;
 import org.example.service.TaskService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 
 @CrossOrigin
@@ -24,25 +34,42 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final ObjectProvider<IdempotencyStore> idempotencyStore;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectProvider<IdempotencyStore> idempotencyStore) {
         this.taskService = taskService;
+        this.idempotencyStore = idempotencyStore;
     }
 
-    @Operation(summary = "Create a new task", description = "Creates a new task and returns the created task details.")
+    @Operation(summary = "Create a new task", description = "Creates a new task and returns the created task details. " +
+            "With an Idempotency-Key, retries of the same request return the original response instead of creating another task.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Task created successfully",
+            @ApiResponse(responseCode = "201", description = "Task created successfully (Idempotent-Replayed: true on a retry)",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskResponseDto.class))),
-            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid input data")
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid input data"),
+            @ApiResponse(responseCode = "409", description = "A request with this Idempotency-Key is still in progress"),
+            @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used for a different request")
     })
+    @Bulkhead(BulkheadType.WRITE)
     @PostMapping("/createTask")
-    public ResponseEntity<TaskResponseDto> createTask(@RequestBody TaskRequestDto taskDto) {
+    public ResponseEntity<TaskResponseDto> createTask(
+            @Parameter(description = "Client-chosen key (up to 200 characters) identifying this request across retries.")
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody TaskRequestDto taskDto) {
         if (taskDto.getUserId() == null) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        TaskResponseDto createdTask = taskService.createTask(taskDto);
-        return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
+        IdempotencyStore store = idempotencyKey != null ? idempotencyStore.getIfAvailable() : null;
+        if (store == null) {
+            TaskResponseDto createdTask = taskService.createTask(taskDto);
+            return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
+        }
+        IdempotencyStore.Outcome<TaskResponseDto> outcome = store.execute("createTask", idempotencyKey, taskDto,
+                TaskResponseDto.class, () -> taskService.createTask(taskDto));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                .body(outcome.response());
     }
 
     @Operation(summary = "Get a task by ID", description = "Retrieves a single task by its unique ID.")
@@ -51,14 +78,33 @@ public class TaskController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "Task not found")
     })
+    @Bulkhead(BulkheadType.POINT_READ)
     @GetMapping("/get/{id}")
     public ResponseEntity<TaskResponseDto> getTaskById(
-            @Parameter(description = "The ID of the task to retrieve.", required = true) @PathVariable Long id) {
-        TaskResponseDto task = taskService.getTaskById(id);
+            @Parameter(description = "The ID of the task to retrieve.", required = true) @PathVariable Long id,
+            @Parameter(description = "Also search archived (long-completed) tasks.") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        TaskResponseDto task = taskService.getTaskById(id, includeArchived);
         return ResponseEntity.ok(task);
     }
 
+    @Operation(summary = "Get tasks by ID",
+            description = "Retrieves many tasks in one request, in the order of the ids given. Ids without a task are " +
+                    "returned with found set to false rather than failing the request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One result per id",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskMultiGetDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - No ids, or more than max-ids")
+    })
+    @Bulkhead(BulkheadType.LIST_READ)
+    @PostMapping("/get/batch")
+    public ResponseEntity<TaskMultiGetDto> getTasksByIds(
+            @RequestBody TaskMultiGetRequestDto request,
+            @Parameter(description = "Also search archived (long-completed) tasks.") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok(taskService.getTasksByIds(request.getIds(), includeArchived));
+    }
+
     @Operation(summary = "Get all tasks", description = "Retrieves a list of all tasks.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping
     public ResponseEntity<List<TaskResponseDto>> getAllTasks() {
         List<TaskResponseDto> tasks = taskService.getAllTasks();
@@ -71,6 +117,7 @@ public class TaskController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "Task not found")
     })
+    @Bulkhead(BulkheadType.WRITE)
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponseDto> updateTask(
             @Parameter(description = "The ID of the task to update.", required = true) @PathVariable Long id,
@@ -84,6 +131,7 @@ public class TaskController {
             @ApiResponse(responseCode = "204", description = "Task deleted successfully"),
             @ApiResponse(responseCode = "404", description = "Task not found")
     })
+    @Bulkhead(BulkheadType.WRITE)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(
             @Parameter(description = "The ID of the task to delete.", required = true) @PathVariable Long id) {
@@ -91,31 +139,84 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Get a user's next tasks",
+            description = "Retrieves the user's open tasks in the order to work on them: highest priority first, then earliest due date. " +
+                    "Served from memory once the user's tasks are loaded.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Up to limit open tasks"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - limit out of range")
+    })
+    @Bulkhead(BulkheadType.POINT_READ)
+    @GetMapping("/user/{userId}/next")
+    public ResponseEntity<List<TaskResponseDto>> getNextTasks(
+            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId,
+            @Parameter(description = "How many tasks to return.") @RequestParam(defaultValue = "5") int limit) {
+        List<TaskResponseDto> tasks = taskService.getNextTasks(userId, limit);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @Operation(summary = "Get a user's tasks by due date", description = "Retrieves the user's tasks due between from and to (inclusive), earliest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks due in the range"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid or too long date range")
+    })
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/user/{userId}/due")
+    public ResponseEntity<List<TaskResponseDto>> getTasksByUserIdDueBetween(
+            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId,
+            @Parameter(description = "First due day, inclusive.", required = true, example = "2025-09-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last due day, inclusive.", required = true, example = "2025-09-30") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<TaskResponseDto> tasks = taskService.getTasksByUserIdDueBetween(userId, from, to);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @Operation(summary = "Get a team's tasks by due date", description = "Retrieves the team's tasks due between from and to (inclusive), earliest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks due in the range"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid or too long date range")
+    })
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/team/{team}/due")
+    public ResponseEntity<List<TaskResponseDto>> getTasksByTeamDueBetween(
+            @Parameter(description = "The team name.", required = true) @PathVariable String team,
+            @Parameter(description = "First due day, inclusive.", required = true, example = "2025-09-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last due day, inclusive.", required = true, example = "2025-09-30") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<TaskResponseDto> tasks = taskService.getTasksByTeamDueBetween(team, from, to);
+        return ResponseEntity.ok(tasks);
+    }
+
     @Operation(summary = "Get tasks by User ID", description = "Retrieves all tasks assigned to a specific user.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<TaskResponseDto>> getTasksByUserId(
-            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId) {
-        List<TaskResponseDto> tasks = taskService.getTasksByUserId(userId);
+            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId,
+            @Parameter(description = "Also search archived (long-completed) tasks.") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<TaskResponseDto> tasks = taskService.getTasksByUserId(userId, includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
     @Operation(summary = "Get tasks by category", description = "Retrieves all tasks belonging to a specific category.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/category/{category}")
     public ResponseEntity<List<TaskResponseDto>> getTasksByCategory(
-            @Parameter(description = "The category name to filter by.", required = true, example = "Work") @PathVariable String category) {
-        List<TaskResponseDto> tasks = taskService.getTasksByCategory(category);
+            @Parameter(description = "The category name to filter by.", required = true, example = "Work") @PathVariable String category,
+            @Parameter(description = "Also search archived (long-completed) tasks.") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<TaskResponseDto> tasks = taskService.getTasksByCategory(category, includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
     @Operation(summary = "Get tasks by status", description = "Retrieves all tasks with a specific status.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/status/{status}")
     public ResponseEntity<List<TaskResponseDto>> getTasksByStatus(
-            @Parameter(description = "The status to filter by.", required = true, example = "IN_PROGRESS") @PathVariable String status) {
-        List<TaskResponseDto> tasks = taskService.getTasksByStatus(status);
+            @Parameter(description = "The status to filter by.", required = true, example = "IN_PROGRESS") @PathVariable String status,
+            @Parameter(description = "Also search archived (long-completed) tasks.") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<TaskResponseDto> tasks = taskService.getTasksByStatus(status, includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
     @Operation(summary = "Get tasks by User ID and Status", description = "Retrieves tasks for a specific user, filtered by status.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/user/{userId}/status/{status}")
     public ResponseEntity<List<TaskResponseDto>> getTasksByUserIdAndStatus(
             @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId,
@@ -125,6 +226,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Sort all tasks by created date (descending)", description = "Retrieves all tasks, sorted with the newest first.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/sort/created-date/desc")
     public ResponseEntity<List<TaskResponseDto>> getAllTasksSortedByCreatedDateDesc() {
         List<TaskResponseDto> tasks = taskService.getAllTasksSortedByCreatedDateDesc();
@@ -132,6 +234,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Sort all tasks by created date (ascending)", description = "Retrieves all tasks, sorted with the oldest first.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/sort/created-date/asc")
     public ResponseEntity<List<TaskResponseDto>> getAllTasksSortedByCreatedDateAsc() {
         List<TaskResponseDto> tasks = taskService.getAllTasksSortedByCreatedDateAsc();
@@ -139,6 +242,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Sort all tasks by priority (descending)", description = "Retrieves all tasks, sorted from highest to lowest priority.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/sort/priority/desc")
     public ResponseEntity<List<TaskResponseDto>> getAllTasksSortedByPriorityDesc() {
         List<TaskResponseDto> tasks = taskService.getAllTasksSortedByPriorityDesc();
@@ -146,6 +250,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Sort all tasks by priority (ascending)", description = "Retrieves all tasks, sorted from lowest to highest priority.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/sort/priority/asc")
     public ResponseEntity<List<TaskResponseDto>> getAllTasksSortedByPriorityAsc() {
         List<TaskResponseDto> tasks = taskService.getAllTasksSortedByPriorityAsc();
@@ -153,6 +258,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Sort all tasks by title", description = "Retrieves all tasks, sorted alphabetically by title.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/sort/title")
     public ResponseEntity<List<TaskResponseDto>> getAllTasksSortedByTitleAsc() {
         List<TaskResponseDto> tasks = taskService.getAllTasksSortedByTitleAsc();
@@ -160,6 +266,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Sort all tasks by status", description = "Retrieves all tasks, sorted alphabetically by status.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/sort/status")
     public ResponseEntity<List<TaskResponseDto>> getAllTasksSortedByStatusAsc() {
         List<TaskResponseDto> tasks = taskService.getAllTasksSortedByStatusAsc();
@@ -167,6 +274,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get tasks for a user, sorted by priority", description = "Retrieves tasks for a specific user, sorted by priority.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/user/{userId}/sort/priority")
     public ResponseEntity<List<TaskResponseDto>> getTasksByUserIdSortedByPriority(
             @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId) {
@@ -175,6 +283,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get tasks for a user, sorted by created date", description = "Retrieves tasks for a specific user, sorted by creation date.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/user/{userId}/sort/created-date")
     public ResponseEntity<List<TaskResponseDto>> getTasksByUserIdSortedByCreatedDate(
             @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId) {
@@ -183,6 +292,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get tasks by category, sorted by priority", description = "Retrieves tasks in a category, sorted by priority.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/category/{category}/sort/priority")
     public ResponseEntity<List<TaskResponseDto>> getTasksByCategorySortedByPriority(
             @Parameter(description = "The category name.", required = true) @PathVariable String category) {
@@ -191,6 +301,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get tasks by status, sorted by created date", description = "Retrieves tasks with a specific status, sorted by creation date.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/status/{status}/sort/created-date")
     public ResponseEntity<List<TaskResponseDto>> getTasksByStatusSortedByCreatedDate(
             @Parameter(description = "The status to filter by.", required = true) @PathVariable String status) {
@@ -199,6 +310,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get all tasks with dynamic sorting", description = "Retrieves all tasks, sorted by a specified field and direction.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/sort")
     public ResponseEntity<List<TaskResponseDto>> getAllTasksSorted(
             @Parameter(description = "Field to sort by. (e.g., 'createdAt', 'priority', 'title')", schema = @Schema(defaultValue = "createdAt")) @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -208,6 +320,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get task count by status", description = "Retrieves the total number of tasks for a given status.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/status/{status}/count")
     public ResponseEntity<Long> getTaskCountByStatus(
             @Parameter(description = "The status to count.", required = true) @PathVariable String status) {
@@ -216,6 +329,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get task count by team", description = "Retrieves the total number of tasks for a given team.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/team/{team}/count")
     public ResponseEntity<Long> getTaskCountByTeam(
             @Parameter(description = "The team name to count tasks for.", required = true) @PathVariable String team) {
@@ -224,6 +338,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get total task count", description = "Retrieves the total number of tasks in the system.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/count")
     public ResponseEntity<Long> getTotalTaskCount() {
         Long count = taskService.getTotalTaskCount();
@@ -231,15 +346,18 @@ public class TaskController {
     }
 
     @Operation(summary = "Get tasks by team and status", description = "Retrieves tasks assigned to a specific team and filtered by status.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/team/{team}/status/{status}")
     public ResponseEntity<List<TaskResponseDto>> getTasksByTeamAndStatus(
             @Parameter(description = "The team name.", required = true) @PathVariable String team,
-            @Parameter(description = "The status to filter by.", required = true) @PathVariable String status) {
-        List<TaskResponseDto> tasks = taskService.getTasksByTeamAndStatus(team, status);
+            @Parameter(description = "The status to filter by.", required = true) @PathVariable String status,
+            @Parameter(description = "Also search archived (long-completed) tasks.") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<TaskResponseDto> tasks = taskService.getTasksByTeamAndStatus(team, status, includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
     @Operation(summary = "Get task count by team and status", description = "Retrieves the number of tasks for a specific team and status.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/team/{team}/status/{status}/count")
     public ResponseEntity<Long> getTaskCountByTeamAndStatus(
             @Parameter(description = "The team name.", required = true) @PathVariable String team,
@@ -249,6 +367,7 @@ public class TaskController {
     }
 
     @Operation(summary = "Get task count by team and priority", description = "Retrieves the number of tasks for a specific team and priority level.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/team/{team}/priority/{priority}/count")
     public ResponseEntity<Long> getTaskCountByTeamAndPriority(
             @Parameter(description = "The team name.", required = true) @PathVariable String team,
@@ -257,7 +376,24 @@ public class TaskController {
         return ResponseEntity.ok(count);
     }
 
+    @Operation(summary = "Move a team's tasks to another status",
+            description = "Moves every task of the team that matches the filters to the given status, in chunks of set-based " +
+                    "updates with one TASK_BULK_UPDATED event per chunk. Tasks already in the status are left alone.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks moved",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StatusTransitionResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - No target status")
+    })
+    @Bulkhead(BulkheadType.WRITE)
+    @PostMapping("/team/{team}/status-transition")
+    public ResponseEntity<StatusTransitionResultDto> transitionStatus(
+            @Parameter(description = "The team name.", required = true) @PathVariable String team,
+            @RequestBody StatusTransitionRequestDto request) {
+        return ResponseEntity.ok(taskService.transitionStatus(team, request));
+    }
+
     @Operation(summary = "Get tasks by team and priority", description = "Retrieves tasks for a specific team, filtered by priority level.")
+    @Bulkhead(BulkheadType.LIST_READ)
     @GetMapping("/team/{team}/priority/{priority}")
     public ResponseEntity<List<TaskResponseDto>> getTasksByTeamAndPriority(
             @Parameter(description = "The team name.", required = true) @PathVariable String team,
@@ -0,0 +1,56 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.dto.TaskImportReportDto;
+import org.example.importer.TaskImportFormat;
+import org.example.importer.TaskImporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tasks/import")
+@ConditionalOnProperty(prefix = "task-service.import", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Task Import API", description = "Bulk creation of tasks from CSV or NDJSON files.")
+public class TaskImportController {
+
+    private final TaskImporter taskImporter;
+
+    @Autowired
+    public TaskImportController(TaskImporter taskImporter) {
+        this.taskImporter = taskImporter;
+    }
+
+    // Not behind the WRITE bulkhead: an import holds its request for minutes, which would
+    // skew the limiter's latency samples; concurrent imports are capped by the importer instead
+    @Operation(summary = "Import tasks", description = "Creates a task for every row of a CSV file (with a header row naming " +
+            "the task fields) or NDJSON file (one task object per line), streaming the upload. Invalid rows are skipped and " +
+            "listed in the report with their line numbers.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see the report for skipped rows",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskImportReportDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid CSV header"),
+            @ApiResponse(responseCode = "503", description = "Too many imports are already running")
+    })
+    @PostMapping(consumes = {TaskImportFormat.CSV_VALUE, TaskImportFormat.NDJSON_VALUE})
+    public ResponseEntity<TaskImportReportDto> importTasks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        return ResponseEntity.ok(taskImporter.importTasks(body, TaskImportFormat.of(mediaType), charset));
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.push.TaskPushHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tasks/push")
+@ConditionalOnProperty(prefix = "task-service.push", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Task Push API", description = "Server-sent events with live changes to a user's or a team's tasks.")
+public class TaskPushController {
+
+    private final TaskPushHub taskPushHub;
+
+    @Autowired
+    public TaskPushController(TaskPushHub taskPushHub) {
+        this.taskPushHub = taskPushHub;
+    }
+
+    // Not behind a bulkhead: a subscription is held open for up to max-connection-age; the hub caps them instead
+    @Operation(summary = "Subscribe to a user's tasks",
+            description = "Sends a task event for every task of the user created or updated, and a removed event for every " +
+                    "task deleted or reassigned away. Each event id is a delta sync token: after a reconnect, changes since " +
+                    "Last-Event-ID (or since) are sent first, as one sync event per page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - invalid token"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    @GetMapping("/user/{userId}")
+    public void subscribeUser(
+            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId,
+            @Parameter(description = "A delta sync token to catch up from.") @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        taskPushHub.subscribeUser(userId, lastEventId != null ? lastEventId : since, request, response);
+    }
+
+    @Operation(summary = "Subscribe to a team's tasks",
+            description = "Sends a task event for every task of the team (optionally only those in a status) created or " +
+                    "updated, and a removed event for every task that left the list. Reconnects catch up as for users.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - invalid token"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    @GetMapping("/team/{team}")
+    public void subscribeTeam(
+            @Parameter(description = "The team name.", required = true) @PathVariable String team,
+            @Parameter(description = "Only tasks in this status.") @RequestParam(required = false) String status,
+            @Parameter(description = "A delta sync token to catch up from.") @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        taskPushHub.subscribeTeam(team, status, lastEventId != null ? lastEventId : since, request, response);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.concurrency.Bulkhead;
+import org.example.concurrency.BulkheadType;
+import org.example.dto.Priority;
+import org.example.dto.TaskResponseDto;
+import org.example.service.TaskStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@CrossOrigin
+@RestController
+@RequestMapping(value = "/api/tasks/stream",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+@Tag(name = "Task Streaming API", description = "Backpressured NDJSON / server-sent event variants of the task list endpoints.")
+public class TaskStreamController {
+
+    private final TaskStreamService taskStreamService;
+
+    @Autowired
+    public TaskStreamController(TaskStreamService taskStreamService) {
+        this.taskStreamService = taskStreamService;
+    }
+
+    @Operation(summary = "Stream all tasks", description = "Streams every task, ordered by ID, at the pace the client reads.")
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping
+    public Flux<TaskResponseDto> streamAllTasks() {
+        return taskStreamService.streamAllTasks();
+    }
+
+    @Operation(summary = "Stream tasks by User ID", description = "Streams all tasks assigned to a specific user.")
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/user/{userId}")
+    public Flux<TaskResponseDto> streamTasksByUserId(
+            @Parameter(description = "The ID of the user.", required = true) @PathVariable Long userId) {
+        return taskStreamService.streamTasksByUserId(userId);
+    }
+
+    @Operation(summary = "Stream tasks by category", description = "Streams all tasks belonging to a specific category.")
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/category/{category}")
+    public Flux<TaskResponseDto> streamTasksByCategory(
+            @Parameter(description = "The category name to filter by.", required = true, example = "Work") @PathVariable String category) {
+        return taskStreamService.streamTasksByCategory(category);
+    }
+
+    @Operation(summary = "Stream tasks by status", description = "Streams all tasks with a specific status.")
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/status/{status}")
+    public Flux<TaskResponseDto> streamTasksByStatus(
+            @Parameter(description = "The status to filter by.", required = true, example = "IN_PROGRESS") @PathVariable String status) {
+        return taskStreamService.streamTasksByStatus(status);
+    }
+
+    @Operation(summary = "Stream tasks by team and status", description = "Streams tasks assigned to a specific team and filtered by status.")
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/team/{team}/status/{status}")
+    public Flux<TaskResponseDto> streamTasksByTeamAndStatus(
+            @Parameter(description = "The team name.", required = true) @PathVariable String team,
+            @Parameter(description = "The status to filter by.", required = true) @PathVariable String status) {
+        return taskStreamService.streamTasksByTeamAndStatus(team, status);
+    }
+
+    @Operation(summary = "Stream tasks by team and priority", description = "Streams tasks for a specific team, filtered by priority level.")
+    @Bulkhead(BulkheadType.LIST_READ)
+    @GetMapping("/team/{team}/priority/{priority}")
+    public Flux<TaskResponseDto> streamTasksByTeamAndPriority(
+            @Parameter(description = "The team name.", required = true) @PathVariable String team,
+            @Parameter(description = "The priority level (HIGH, MEDIUM, LOW).", required = true) @PathVariable Priority priority) {
+        return taskStreamService.streamTasksByTeamAndPriority(team, priority);
+    }
+}
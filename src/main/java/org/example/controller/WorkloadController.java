@@ -0,0 +1,42 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.concurrency.Bulkhead;
+import org.example.concurrency.BulkheadType;
+import org.example.dto.UserWorkloadDto;
+import org.example.service.WorkloadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tasks/workload")
+@Tag(name = "Workload API", description = "Committed hours per user, aggregated from task durations and due dates.")
+public class WorkloadController {
+
+    private final WorkloadService workloadService;
+
+    @Autowired
+    public WorkloadController(WorkloadService workloadService) {
+        this.workloadService = workloadService;
+    }
+
+    @Operation(summary = "Get workload per user",
+            description = "Sums task durations by assignee and due day, and by ISO week, for tasks due between from and to (inclusive).")
+    @GetMapping
+    @Bulkhead(BulkheadType.LIST_READ)
+    public ResponseEntity<List<UserWorkloadDto>> getWorkload(
+            @Parameter(description = "Only this team's tasks; all teams if omitted.", example = "Accounting") @RequestParam(required = false) String team,
+            @Parameter(description = "First due day, inclusive.", required = true, example = "2025-09-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last due day, inclusive.", required = true, example = "2025-09-30") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Also count tasks in a completed status.") @RequestParam(defaultValue = "false") boolean includeCompleted) {
+        return ResponseEntity.ok(workloadService.getWorkload(team, from, to, includeCompleted));
+    }
+}
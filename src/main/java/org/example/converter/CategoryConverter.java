@@ -0,0 +1,12 @@
+package org.example.converter;
+
+import jakarta.persistence.Converter;
+import org.example.dictionary.TaskDictionary;
+
+@Converter
+public class CategoryConverter extends DictionaryConverter {
+
+    public CategoryConverter(TaskDictionary dictionary) {
+        super(dictionary, TaskDictionary.Kind.CATEGORY);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.converter;
+
+import jakarta.persistence.AttributeConverter;
+import org.example.dictionary.TaskDictionary;
+
+/**
+ * Stores a dictionary-encoded string attribute as its {@link TaskDictionary} code. Query
+ * parameters compared with the attribute go through the same conversion, so filters and
+ * counts run on the integer column; a value that is not in the dictionary matches nothing.
+ * <p>
+ * Instantiated by Hibernate through the Spring bean container, which injects the dictionary.
+ */
+public abstract class DictionaryConverter implements AttributeConverter<String, Integer> {
+
+    private final TaskDictionary dictionary;
+    private final TaskDictionary.Kind kind;
+
+    protected DictionaryConverter(TaskDictionary dictionary, TaskDictionary.Kind kind) {
+        this.dictionary = dictionary;
+        this.kind = kind;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String value) {
+        return dictionary.code(kind, value);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer code) {
+        return dictionary.name(kind, code);
+    }
+}
@@ -4,32 +4,20 @@ import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import org.example.dto.Priority;
 
+/**
+ * Stores a priority as its numeric code (LOW 0, MEDIUM 1, HIGH 2) in {@code priority_code},
+ * so ordering by priority sorts by urgency and can use an index.
+ */
 @Converter(autoApply = true)
-public class PriorityConverter implements AttributeConverter<Priority, String> {
+public class PriorityConverter implements AttributeConverter<Priority, Integer> {
 
     @Override
-    public String convertToDatabaseColumn(Priority priority) {
-        if (priority == null) {
-            return "LOW";
-        }
-        return priority.name();
+    public Integer convertToDatabaseColumn(Priority priority) {
+        return (priority != null ? priority : Priority.LOW).getCode();
     }
 
     @Override
-    public Priority convertToEntityAttribute(String dbData) {
-        if (dbData == null) {
-            return Priority.LOW;
-        }
-        try {
-            return Priority.valueOf(dbData);
-        } catch (IllegalArgumentException e) {
-            // Try to parse as number
-            try {
-                int numValue = Integer.parseInt(dbData);
-                return Priority.fromValue(numValue);
-            } catch (NumberFormatException ex) {
-                return Priority.LOW;
-            }
-        }
+    public Priority convertToEntityAttribute(Integer dbData) {
+        return dbData != null ? Priority.fromCode(dbData) : Priority.LOW;
     }
-} 
\ No newline at end of file
+}
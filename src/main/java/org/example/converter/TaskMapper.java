@@ -0,0 +1,47 @@
+package org.example.converter;
+
+import org.example.dto.Priority;
+import org.example.dto.TaskResponseDto;
+import org.example.entity.ArchivedTaskEntity;
+import org.example.entity.TaskEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TaskMapper {
+
+    public TaskResponseDto toDto(TaskEntity task) {
+        TaskResponseDto dto = new TaskResponseDto();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setStatus(task.getStatus());
+        dto.setCategory(task.getCategory());
+        dto.setTeam(task.getTeam());
+        dto.setDuration(task.getDuration());
+        dto.setDueDate(task.getDueDate());
+        dto.setUserId(task.getUserId());
+        dto.setPriority(task.getPriority() != null ? task.getPriority() : Priority.LOW);
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setCompletedAt(task.getCompletedAt());
+        return dto;
+    }
+
+    public TaskResponseDto toDto(ArchivedTaskEntity task) {
+        TaskResponseDto dto = new TaskResponseDto();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setStatus(task.getStatus());
+        dto.setCategory(task.getCategory());
+        dto.setTeam(task.getTeam());
+        dto.setDuration(task.getDuration());
+        dto.setDueDate(task.getDueDate());
+        dto.setUserId(task.getUserId());
+        dto.setPriority(task.getPriority() != null ? task.getPriority() : Priority.LOW);
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setCompletedAt(task.getCompletedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.dto.TaskResponseDto;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes {@link TaskResponseDto} and collections of it to JSON responses ahead of the
+ * general Jackson converter.
+ * <p>
+ * The writers are resolved once from the application {@link ObjectMapper} (so they share its
+ * settings and the hand-written {@code TaskResponseDtoSerializer}) instead of per response,
+ * and write straight to the response stream. Everything else, including reading request
+ * bodies, is left to the default converters.
+ */
+public class TaskResponseHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ObjectWriter taskWriter;
+    private final ObjectWriter collectionWriter;
+
+    public TaskResponseHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        // The servlet container owns the response stream
+        this.taskWriter = objectMapper.writerFor(TaskResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.collectionWriter = objectMapper
+                .writerFor(objectMapper.getTypeFactory().constructCollectionType(Collection.class, TaskResponseDto.class))
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TaskResponseDto.class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type == null || type instanceof Class) {
+            return canWrite(clazz, mediaType);
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        return resolved.asCollection() != ResolvableType.NONE
+                && resolved.asCollection().resolveGeneric() == TaskResponseDto.class
+                && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ObjectWriter writer = value instanceof TaskResponseDto ? taskWriter : collectionWriter;
+        writer.writeValue(outputMessage.getBody(), value);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("TaskResponseDto is response-only");
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("TaskResponseDto is response-only");
+    }
+}
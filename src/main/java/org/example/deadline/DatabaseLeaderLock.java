@@ -0,0 +1,123 @@
+package org.example.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.sharding.ShardRoutingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Leader election through a MySQL named lock ({@code GET_LOCK}). The leader keeps the
+ * connection that acquired the lock open; if that connection dies the server releases
+ * the lock and another replica takes over on its next {@link #refresh()}.
+ * <p>
+ * That connection is held for the whole leadership term, so it is opened outside the
+ * application's pool (see {@link #dedicated}) rather than taking one of its connections.
+ */
+@Slf4j
+class DatabaseLeaderLock implements AutoCloseable {
+
+    private final DataSource dataSource;
+    private final String lockName;
+
+    private Connection connection;
+
+    DatabaseLeaderLock(DataSource dataSource, String lockName) {
+        this.dataSource = dataSource;
+        this.lockName = lockName;
+    }
+
+    /**
+     * An unpooled data source for the database behind {@code dataSource} (the primary shard
+     * when sharded), or {@code dataSource} itself if its settings cannot be read.
+     */
+    static DataSource dedicated(DataSource dataSource) {
+        DataSource target = dataSource instanceof ShardRoutingDataSource routing
+                ? routing.getResolvedDefaultDataSource()
+                : dataSource;
+        if (target instanceof HikariDataSource hikari) {
+            DriverManagerDataSource unpooled = new DriverManagerDataSource(
+                    hikari.getJdbcUrl(), hikari.getUsername(), hikari.getPassword());
+            if (hikari.getDriverClassName() != null) {
+                unpooled.setDriverClassName(hikari.getDriverClassName());
+            }
+            return unpooled;
+        }
+        log.warn("Deadline scheduler lock uses a pooled connection for as long as this instance leads");
+        return dataSource;
+    }
+
+    /**
+     * Verifies a held lock or tries to acquire a free one, without waiting.
+     *
+     * @return whether this instance holds the lock
+     */
+    boolean refresh() {
+        try {
+            if (connection != null) {
+                if (holdsLock()) {
+                    return true;
+                }
+                log.warn("Lost deadline scheduler lock '{}'", lockName);
+                close();
+            }
+            connection = dataSource.getConnection();
+            if (tryLock()) {
+                log.info("Acquired deadline scheduler lock '{}'", lockName);
+                return true;
+            }
+            close();
+            return false;
+        } catch (SQLException e) {
+            log.warn("Deadline scheduler lock check failed: {}", e.getMessage());
+            close();
+            return false;
+        }
+    }
+
+    private boolean tryLock() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, lockName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private boolean holdsLock() {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT IS_USED_LOCK(?) = CONNECTION_ID()")) {
+            statement.setString(1, lockName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (connection == null) {
+            return;
+        }
+        // Closing the connection releases the lock; RELEASE_LOCK first in case it is a
+        // pooled connection, which is not physically closed
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, lockName);
+            statement.executeQuery().close();
+        } catch (SQLException ignored) {
+            // Connection already broken; nothing left to release
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Best effort
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.deadlines")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    // Wheel resolution; events fire at most this much early
+    private Duration tick = Duration.ofSeconds(1);
+    // TASK_DUE_SOON fires this long before the due date
+    private Duration dueSoonLead = Duration.ofHours(24);
+
+    // Only deadlines up to this far ahead are held in memory; the window is extended every
+    // load-interval, and fully reloaded every resync-interval to pick up other replicas' edits
+    private Duration horizon = Duration.ofDays(2);
+    private Duration loadInterval = Duration.ofMinutes(10);
+    private Duration resyncInterval = Duration.ofHours(1);
+    // Deadlines per query, when loading and when re-checking the ones that fired
+    private int loadPageSize = 5000;
+    private int initialCapacity = 1 << 16;
+
+    // Tasks in these statuses have no pending deadline
+    private List<String> completedStatuses = new ArrayList<>(List.of("DONE", "COMPLETED"));
+
+    private LeaderElection leaderElection = LeaderElection.DATABASE_LOCK;
+    private String lockName = "task-service.deadline-scheduler";
+    private Duration leaderCheckInterval = Duration.ofSeconds(15);
+
+    public enum LeaderElection {
+        // MySQL GET_LOCK on a connection held by the leader
+        DATABASE_LOCK,
+        // Every instance fires; for single-instance deployments and databases without GET_LOCK
+        NONE
+    }
+}
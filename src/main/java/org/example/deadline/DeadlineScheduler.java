@@ -0,0 +1,377 @@
+package org.example.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.converter.TaskMapper;
+import org.example.dto.TaskResponseDto;
+import org.example.entity.TaskEntity;
+import org.example.messaging.TaskEventPublisher;
+import org.example.model.NotificationEvent;
+import org.example.model.TaskDeadline;
+import org.example.model.TaskEventType;
+import org.example.repository.TaskRepository;
+import org.example.service.TaskChange;
+import org.example.service.TaskChangeListener;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@code TASK_DUE_SOON} and {@code TASK_OVERDUE} events for open tasks.
+ * <p>
+ * Only the leader (see {@link DatabaseLeaderLock}) holds deadlines. It loads the next
+ * {@code horizon} of them with a keyset-paged range scan over {@code idx_tasks_due_date}
+ * into a {@link HierarchicalTimingWheel}, extends that window every {@code load-interval},
+ * and keeps it current from this instance's own writes through {@link TaskChangeListener}.
+ * Fired deadlines are re-checked against the database before publishing, which drops
+ * those made stale by edits on other replicas; the periodic resync picks up the rest.
+ * Published deadlines are also passed to the other {@link TaskChangeListener}s.
+ * <p>
+ * The wheel is confined to the scheduler thread; change callbacks are handed to it.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(prefix = "task-service.deadlines", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineScheduler implements TaskChangeListener, DisposableBean {
+
+    private static final byte DUE_SOON = 1;
+    private static final byte OVERDUE = 2;
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+
+    private final DeadlineProperties properties;
+    private static final Comparator<TaskDeadline> DEADLINE_ORDER =
+            Comparator.comparing(TaskDeadline::dueDate).thenComparing(TaskDeadline::id);
+
+    private final TaskRepository taskRepository;
+    private final ShardTemplate shards;
+    private final TaskMapper taskMapper;
+    private final TaskEventPublisher taskEventPublisher;
+    private final ObjectProvider<TaskChangeListener> changeListeners;
+    private final DatabaseLeaderLock leaderLock;
+    private final ScheduledExecutorService executor;
+    private final HierarchicalTimingWheel wheel;
+    private final long leadMillis;
+    private final Counter dueSoonFired;
+    private final Counter overdueFired;
+
+    private volatile boolean leader;
+    private volatile int pending;
+    private long loadedUntilMillis;
+    private long lastLoadMillis;
+    private long lastResyncMillis;
+    private long pausedUntilMillis;
+
+    public DeadlineScheduler(DeadlineProperties properties,
+                             TaskRepository taskRepository,
+                             ShardTemplate shards,
+                             TaskMapper taskMapper,
+                             TaskEventPublisher taskEventPublisher,
+                             ObjectProvider<TaskChangeListener> changeListeners,
+                             DataSource dataSource,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        this.shards = shards;
+        this.taskMapper = taskMapper;
+        this.taskEventPublisher = taskEventPublisher;
+        this.changeListeners = changeListeners;
+        this.leaderLock = properties.getLeaderElection() == DeadlineProperties.LeaderElection.DATABASE_LOCK
+                ? new DatabaseLeaderLock(DatabaseLeaderLock.dedicated(dataSource), properties.getLockName())
+                : null;
+        this.leadMillis = properties.getDueSoonLead().toMillis();
+        this.wheel = new HierarchicalTimingWheel(properties.getTick(), System.currentTimeMillis(),
+                properties.getInitialCapacity());
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-deadline-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.dueSoonFired = Counter.builder("task.deadlines.fired").tag("type", TaskEventType.TASK_DUE_SOON.name())
+                .register(meterRegistry);
+        this.overdueFired = Counter.builder("task.deadlines.fired").tag("type", TaskEventType.TASK_OVERDUE.name())
+                .register(meterRegistry);
+        Gauge.builder("task.deadlines.pending", this, s -> s.pending).register(meterRegistry);
+        Gauge.builder("task.deadlines.leader", this, s -> s.leader ? 1 : 0).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long tickMillis = properties.getTick().toMillis();
+        executor.scheduleWithFixedDelay(this::checkLeadership, 0,
+                properties.getLeaderCheckInterval().toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    @Override
+    public void onTaskChanged(TaskChange change) {
+        if (leader) {
+            executor.execute(() -> reschedule(change));
+        }
+    }
+
+    private void checkLeadership() {
+        boolean nowLeader = leaderLock == null || leaderLock.refresh();
+        if (nowLeader && !leader) {
+            leader = true;
+            try {
+                resync(System.currentTimeMillis());
+            } catch (Exception e) {
+                // The next tick retries, since lastResyncMillis was not advanced
+                log.error("Loading task deadlines failed", e);
+            }
+        } else if (!nowLeader && leader) {
+            leader = false;
+            wheel.clear(System.currentTimeMillis());
+            pending = 0;
+        }
+    }
+
+    private void tick() {
+        if (!leader) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (now - lastResyncMillis >= properties.getResyncInterval().toMillis()) {
+                resync(now);
+            } else if (now - lastLoadMillis >= properties.getLoadInterval().toMillis()) {
+                load(loadedUntilMillis, now + properties.getHorizon().toMillis() + leadMillis, now);
+                lastLoadMillis = now;
+            }
+            if (now < pausedUntilMillis) {
+                return;
+            }
+            List<Fired> fired = new ArrayList<>();
+            wheel.advance(now, (taskId, deadline, stage) -> fired.add(new Fired(taskId, deadline, stage)));
+            if (!fired.isEmpty()) {
+                fire(fired, now);
+            }
+            pending = wheel.size();
+        } catch (Exception e) {
+            log.error("Deadline scheduler tick failed", e);
+        }
+    }
+
+    private void resync(long now) {
+        wheel.clear(now);
+        long until = now + properties.getHorizon().toMillis() + leadMillis;
+        load(now, until, now);
+        lastResyncMillis = now;
+        lastLoadMillis = now;
+        pending = wheel.size();
+        log.info("Loaded {} task deadlines", pending);
+    }
+
+    // Schedules open tasks due in [fromMillis, toMillis); deadlines before 'now' already fired
+    private void load(long fromMillis, long toMillis, long now) {
+        if (toMillis <= fromMillis) {
+            return;
+        }
+        LocalDateTime afterDueDate = toLocal(fromMillis).minusNanos(1);
+        Long afterId = Long.MAX_VALUE;
+        LocalDateTime to = toLocal(toMillis);
+        int pageSize = properties.getLoadPageSize();
+        List<TaskDeadline> page;
+        do {
+            LocalDateTime pageAfterDueDate = afterDueDate;
+            Long pageAfterId = afterId;
+            page = shards.mergeSorted(shards.getRouter().shards(),
+                    () -> taskRepository.findOpenDeadlines(pageAfterDueDate, pageAfterId, to,
+                            properties.getCompletedStatuses(), Limit.of(pageSize)),
+                    DEADLINE_ORDER, pageSize);
+            for (TaskDeadline deadline : page) {
+                scheduleNext(deadline.id(), toMillis(deadline.dueDate()), now, false);
+            }
+            if (!page.isEmpty()) {
+                TaskDeadline last = page.get(page.size() - 1);
+                afterDueDate = last.dueDate();
+                afterId = last.id();
+            }
+        } while (page.size() == pageSize);
+        loadedUntilMillis = toMillis;
+    }
+
+    private void reschedule(TaskChange change) {
+        if (!leader) {
+            return;
+        }
+        TaskResponseDto current = change.current();
+        long taskId = change.taskId();
+        if (current == null || current.getDueDate() == null || isCompleted(current.getStatus())) {
+            wheel.cancel(taskId);
+            return;
+        }
+        TaskResponseDto previous = change.previous();
+        boolean unchanged = previous != null
+                && current.getDueDate().equals(previous.getDueDate())
+                && !isCompleted(previous.getStatus());
+        if (unchanged) {
+            return;
+        }
+        long due = toMillis(current.getDueDate());
+        if (due >= loadedUntilMillis) {
+            // Outside the loaded window; the next load picks it up
+            wheel.cancel(taskId);
+            return;
+        }
+        scheduleNext(taskId, due, System.currentTimeMillis(), true);
+    }
+
+    /**
+     * Schedules the next stage for a task due at {@code due}. A stage whose time has
+     * passed is skipped when loading (it fired before, or during a leadership gap), but
+     * fires immediately when a user has just moved the due date.
+     */
+    private void scheduleNext(long taskId, long due, long now, boolean changedNow) {
+        long dueSoonAt = due - leadMillis;
+        if (dueSoonAt >= now) {
+            wheel.schedule(taskId, dueSoonAt, DUE_SOON);
+        } else if (due >= now) {
+            if (changedNow) {
+                wheel.schedule(taskId, now, DUE_SOON);
+            } else {
+                wheel.schedule(taskId, due, OVERDUE);
+            }
+        } else if (changedNow) {
+            wheel.schedule(taskId, now, OVERDUE);
+        } else {
+            wheel.cancel(taskId);
+        }
+    }
+
+    private void fire(List<Fired> fired, long now) {
+        Set<Long> distinct = new HashSet<>();
+        fired.forEach(f -> distinct.add(f.taskId));
+        List<Long> ids = new ArrayList<>(distinct);
+        // A tick after downtime or a bulk import can fire many; read them in pages as load does
+        int pageSize = Math.max(1, properties.getLoadPageSize());
+        Map<Long, TaskEntity> tasks = new HashMap<>();
+        try {
+            for (int from = 0; from < ids.size(); from += pageSize) {
+                List<Long> page = ids.subList(from, Math.min(ids.size(), from + pageSize));
+                shards.concat(shards.getRouter().shards(), () -> taskRepository.findAllById(page))
+                        .forEach(task -> tasks.put(task.getId(), task));
+            }
+        } catch (Exception e) {
+            log.warn("Could not verify {} due task deadlines, retrying", fired.size(), e);
+            fired.forEach(f -> wheel.schedule(f.taskId, f.deadline, f.stage));
+            pausedUntilMillis = now + RETRY_DELAY_MILLIS;
+            return;
+        }
+
+        List<NotificationEvent> events = new ArrayList<>();
+        List<TaskChange> changes = new ArrayList<>();
+        for (Fired f : fired) {
+            TaskEntity task = tasks.get(f.taskId);
+            if (task == null || task.getDueDate() == null || isCompleted(task.getStatus())) {
+                continue;
+            }
+            long due = toMillis(task.getDueDate());
+            long expectedDue = f.stage == DUE_SOON ? f.deadline + leadMillis : f.deadline;
+            if (due != expectedDue) {
+                // Edited on another replica since it was loaded
+                if (due < loadedUntilMillis) {
+                    scheduleNext(f.taskId, due, now, true);
+                }
+                continue;
+            }
+            TaskEventType type = f.stage == DUE_SOON ? TaskEventType.TASK_DUE_SOON : TaskEventType.TASK_OVERDUE;
+            TaskResponseDto dto = taskMapper.toDto(task);
+            events.add(createEvent(type, task, dto));
+            changes.add(new TaskChange(type, dto, dto));
+            if (f.stage == DUE_SOON) {
+                dueSoonFired.increment();
+                wheel.schedule(f.taskId, due, OVERDUE);
+            } else {
+                overdueFired.increment();
+            }
+        }
+        if (!events.isEmpty()) {
+            notifyChangeListeners(changes);
+            taskEventPublisher.publishAll(events);
+        }
+    }
+
+    private void notifyChangeListeners(List<TaskChange> changes) {
+        changeListeners.orderedStream()
+                .filter(listener -> listener != this)
+                .forEach(listener -> changes.forEach(change -> {
+                    try {
+                        listener.onTaskChanged(change);
+                    } catch (Exception e) {
+                        log.warn("Task change listener {} failed for task {}", listener.getClass().getSimpleName(), change.taskId(), e);
+                    }
+                }));
+    }
+
+    private NotificationEvent createEvent(TaskEventType type, TaskEntity task, TaskResponseDto dto) {
+        boolean dueSoon = type == TaskEventType.TASK_DUE_SOON;
+        NotificationEvent event = new NotificationEvent(
+                type.name(),
+                task.getUserId(),
+                null,
+                dueSoon ? "Task Due Soon" : "Task Overdue",
+                (dueSoon ? "Task '" + task.getTitle() + "' is due at " : "Task '" + task.getTitle() + "' was due at ")
+                        + task.getDueDate()
+        );
+        event.setTaskId(task.getId());
+        event.setTaskTitle(task.getTitle());
+        event.setTask(dto);
+        return event;
+    }
+
+    private boolean isCompleted(String status) {
+        return status != null && properties.getCompletedStatuses().contains(status);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        if (leaderLock != null) {
+            leaderLock.close();
+        }
+    }
+
+    private record Fired(long taskId, long deadline, byte stage) {
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.deadline;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel keyed by task id, holding at most one pending deadline per task.
+ * <p>
+ * Four levels of 64 slots each cover 64^4 ticks (about 194 days at a one-second tick);
+ * later deadlines sit in the top level and are re-placed each time it turns. Scheduling,
+ * cancelling and each tick cost O(1) plus the number of entries fired or cascaded.
+ * <p>
+ * Entries live in parallel primitive arrays linked into per-slot doubly linked lists,
+ * with a {@link LongIntHashMap} from task id to entry index, so a pending deadline costs
+ * well under 100 bytes and no objects. For a head entry {@code prev} holds {@code -2 - bucket}
+ * instead of a neighbour, which lets it be unlinked without a separate bucket array.
+ * <p>
+ * Not thread-safe; the owner confines all access to one thread.
+ */
+final class HierarchicalTimingWheel {
+
+    @FunctionalInterface
+    interface ExpiryHandler {
+        void expired(long taskId, long deadlineMillis, byte stage);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int NONE = -1;
+
+    private final long tickMillis;
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final LongIntHashMap index;
+
+    private long[] taskIds;
+    private long[] deadlines;
+    private byte[] stages;
+    private int[] next;
+    private int[] prev;
+    private int freeHead = NONE;
+    private int highWater;
+
+    // All ticks before this one have been processed
+    private long currentTick;
+
+    HierarchicalTimingWheel(Duration tick, long nowMillis, int initialCapacity) {
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.index = new LongIntHashMap(initialCapacity);
+        int capacity = Math.max(16, initialCapacity);
+        this.taskIds = new long[capacity];
+        this.deadlines = new long[capacity];
+        this.stages = new byte[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        Arrays.fill(heads, NONE);
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * Schedules (or moves) the task's deadline. Deadlines already in the past fire on the
+     * next {@link #advance}.
+     */
+    void schedule(long taskId, long deadlineMillis, byte stage) {
+        int entry = index.get(taskId, NONE);
+        if (entry != NONE) {
+            unlink(entry);
+        } else {
+            entry = allocate();
+            taskIds[entry] = taskId;
+            index.put(taskId, entry);
+        }
+        deadlines[entry] = deadlineMillis;
+        stages[entry] = stage;
+        place(entry);
+    }
+
+    boolean cancel(long taskId) {
+        int entry = index.remove(taskId, NONE);
+        if (entry == NONE) {
+            return false;
+        }
+        unlink(entry);
+        release(entry);
+        return true;
+    }
+
+    /**
+     * @return the pending deadline of the task, or {@code Long.MIN_VALUE} if none
+     */
+    long deadlineOf(long taskId) {
+        int entry = index.get(taskId, NONE);
+        return entry == NONE ? Long.MIN_VALUE : deadlines[entry];
+    }
+
+    /**
+     * Fires every entry whose deadline falls in a tick up to and including the one
+     * containing {@code nowMillis}, so entries fire up to one tick early. The handler may
+     * schedule or cancel entries, including re-scheduling the task that just fired.
+     */
+    void advance(long nowMillis, ExpiryHandler handler) {
+        long targetTick = nowMillis / tickMillis;
+        while (true) {
+            cascade();
+            int bucket = (int) (currentTick & SLOT_MASK);
+            int entry;
+            while ((entry = heads[bucket]) != NONE) {
+                long taskId = taskIds[entry];
+                long deadline = deadlines[entry];
+                byte stage = stages[entry];
+                unlink(entry);
+                index.remove(taskId, NONE);
+                release(entry);
+                handler.expired(taskId, deadline, stage);
+            }
+            // The current tick stays open: entries scheduled into it later fire on the next call
+            if (currentTick >= targetTick) {
+                return;
+            }
+            currentTick++;
+        }
+    }
+
+    void clear(long nowMillis) {
+        Arrays.fill(heads, NONE);
+        index.clear();
+        freeHead = NONE;
+        highWater = 0;
+        currentTick = nowMillis / tickMillis;
+    }
+
+    // At a level boundary, moves the entries of the higher-level slot that starts now
+    // down the hierarchy; higher levels first, so they can cascade again in the same tick
+    private void cascade() {
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int shift = level * SLOT_BITS;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+            int bucket = level * SLOTS + (int) ((currentTick >>> shift) & SLOT_MASK);
+            int entry;
+            while ((entry = heads[bucket]) != NONE) {
+                unlink(entry);
+                place(entry);
+            }
+        }
+    }
+
+    private void place(int entry) {
+        long tick = Math.max(deadlines[entry] / tickMillis, currentTick);
+        int bucket;
+        if (tick - currentTick < SLOTS) {
+            bucket = (int) (tick & SLOT_MASK);
+        } else {
+            bucket = NONE;
+            for (int level = 1; level < LEVELS; level++) {
+                int shift = level * SLOT_BITS;
+                if ((tick >>> shift) - (currentTick >>> shift) < SLOTS) {
+                    bucket = level * SLOTS + (int) ((tick >>> shift) & SLOT_MASK);
+                    break;
+                }
+            }
+            if (bucket == NONE) {
+                // Beyond the wheel's range: park in the last top-level slot and re-place on each turn
+                int shift = (LEVELS - 1) * SLOT_BITS;
+                bucket = (LEVELS - 1) * SLOTS + (int) (((currentTick >>> shift) + SLOT_MASK) & SLOT_MASK);
+            }
+        }
+        int head = heads[bucket];
+        next[entry] = head;
+        prev[entry] = -2 - bucket;
+        if (head != NONE) {
+            prev[head] = entry;
+        }
+        heads[bucket] = entry;
+    }
+
+    private void unlink(int entry) {
+        int before = prev[entry];
+        int after = next[entry];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[-2 - before] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (highWater == taskIds.length) {
+            int capacity = taskIds.length + (taskIds.length >> 1);
+            taskIds = Arrays.copyOf(taskIds, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            stages = Arrays.copyOf(stages, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+        }
+        return highWater++;
+    }
+
+    private void release(int entry) {
+        next[entry] = freeHead;
+        freeHead = entry;
+    }
+}
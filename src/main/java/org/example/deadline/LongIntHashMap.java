@@ -0,0 +1,138 @@
+package org.example.deadline;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to int values, without boxing. Linear probing with
+ * backward-shift deletion, so no tombstones accumulate under churn. {@code Long.MIN_VALUE}
+ * is reserved as the empty marker and cannot be used as a key.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the value for the key, or {@code missing} if absent
+     */
+    int get(long key, int missing) {
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) {
+                return missing;
+            }
+            if (k == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size >= resizeAt) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            }
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return the removed value, or {@code missing} if the key was absent
+     */
+    int remove(long key, int missing) {
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) {
+                return missing;
+            }
+            if (k == key) {
+                int removed = values[slot];
+                shiftBack(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    // Moves later entries of the probe chain into the freed slot so lookups stay correct
+    private void shiftBack(int freed) {
+        int slot = freed;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long k = keys[slot];
+            if (k == EMPTY) {
+                keys[freed] = EMPTY;
+                return;
+            }
+            int home = slot(k);
+            boolean movable = freed <= slot
+                    ? home <= freed || home > slot
+                    : home <= freed && home > slot;
+            if (movable) {
+                keys[freed] = k;
+                values[freed] = values[slot];
+                freed = slot;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.dictionary;
+
+/**
+ * An entity whose status, category and team are stored only as {@link TaskDictionary} codes,
+ * which queries filter, count and index on. The attributes hold the decoded names.
+ */
+public interface DictionaryEncoded {
+
+    String getStatus();
+
+    String getCategory();
+
+    String getTeam();
+}
@@ -0,0 +1,263 @@
+package org.example.dictionary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.sharding.ShardTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small-integer codes for task statuses, categories and teams, kept in one dictionary table
+ * per kind on the primary shard and cached in memory in both directions. Every other shard
+ * holds a copy with the same ids, which the triggers in {@code schema.sql} use to keep the
+ * legacy name columns in step with the codes while older instances still read and write them.
+ * <p>
+ * The cache hands out one canonical {@code String} per value, so every loaded task shares
+ * the same instances instead of holding its own copies. Values are registered when a task is
+ * written; lookups for filters never add entries, and an unknown value gets
+ * {@link #UNKNOWN}, which matches no row. Names compare exactly (binary collation), so a
+ * value reads back as it was written. Entries are never removed or renumbered, which lets
+ * every replica cache them indefinitely and load a missing one on first use.
+ * <p>
+ * Database access uses its own autocommit connection on the primary shard, so a code is
+ * never rolled back with the task write that created it.
+ */
+@Slf4j
+@Component
+public class TaskDictionary {
+
+    public static final int UNKNOWN = -1;
+
+    private static final String CREATE_SQL =
+            "CREATE TABLE IF NOT EXISTS %s (id INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+            "name VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL, CONSTRAINT uk_%s_name UNIQUE (name))";
+    private static final String COPY_SQL = "INSERT INTO %s (id, name) VALUES (?, ?) ON DUPLICATE KEY UPDATE name = name";
+
+    public enum Kind {
+        STATUS("task_statuses"),
+        CATEGORY("task_categories"),
+        TEAM("task_teams");
+
+        private final String table;
+
+        Kind(String table) {
+            this.table = table;
+        }
+
+        public String getTable() {
+            return table;
+        }
+    }
+
+    private final DataSource dataSource;
+    private final ShardTemplate shards;
+    private final Map<Kind, Map<String, Integer>> codes = new EnumMap<>(Kind.class);
+    private final Map<Kind, Map<Integer, String>> names = new EnumMap<>(Kind.class);
+    private volatile boolean loaded;
+
+    public TaskDictionary(DataSource dataSource, ShardTemplate shards) {
+        this.dataSource = dataSource;
+        this.shards = shards;
+        for (Kind kind : Kind.values()) {
+            codes.put(kind, new ConcurrentHashMap<>());
+            names.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    // On first use rather than at startup, so booting needs no database round trip
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                load();
+                loaded = true;
+            }
+        }
+    }
+
+    private void load() {
+        withConnection(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                for (Kind kind : Kind.values()) {
+                    statement.execute(String.format(CREATE_SQL, kind.table, kind.table));
+                    try (ResultSet rs = statement.executeQuery("SELECT id, name FROM " + kind.table)) {
+                        while (rs.next()) {
+                            cache(kind, rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        for (String shard : copyShards()) {
+            withConnection(shard, connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (Kind kind : Kind.values()) {
+                        statement.execute(String.format(CREATE_SQL, kind.table, kind.table));
+                        copy(connection, kind, names.get(kind));
+                    }
+                }
+                return null;
+            });
+        }
+        log.info("Loaded task dictionary: {} statuses, {} categories, {} teams", codes.get(Kind.STATUS).size(),
+                codes.get(Kind.CATEGORY).size(), codes.get(Kind.TEAM).size());
+    }
+
+    /**
+     * @return the code of {@code value}, adding it to the dictionary if it is new; null for null
+     */
+    public Integer register(Kind kind, String value) {
+        if (value == null) {
+            return null;
+        }
+        ensureLoaded();
+        Integer code = codes.get(kind).get(value);
+        if (code != null) {
+            return code;
+        }
+        Integer created = withConnection(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + kind.table + " (name) VALUES (?) ON DUPLICATE KEY UPDATE name = name")) {
+                insert.setString(1, value);
+                insert.executeUpdate();
+            }
+            Integer found = find(connection, kind, value);
+            if (found == null) {
+                throw new IllegalStateException("Could not add '" + value + "' to " + kind.table);
+            }
+            return found;
+        });
+        // Before the caller writes a task with the code, so its shard can translate it
+        Map<Integer, String> entry = Map.of(created, names.get(kind).get(created));
+        for (String shard : copyShards()) {
+            withConnection(shard, connection -> {
+                copy(connection, kind, entry);
+                return null;
+            });
+        }
+        return created;
+    }
+
+    /**
+     * @return the code of {@code value}, {@link #UNKNOWN} if it was never registered; null for null
+     */
+    public Integer code(Kind kind, String value) {
+        if (value == null) {
+            return null;
+        }
+        ensureLoaded();
+        Integer code = codes.get(kind).get(value);
+        if (code != null) {
+            return code;
+        }
+        // Possibly registered by another replica
+        Integer found = withConnection(connection -> find(connection, kind, value));
+        return found != null ? found : UNKNOWN;
+    }
+
+    /**
+     * @return the canonical instance of the value with this code, or null if there is none
+     */
+    public String name(Kind kind, Integer code) {
+        if (code == null) {
+            return null;
+        }
+        ensureLoaded();
+        String name = names.get(kind).get(code);
+        if (name != null) {
+            return name;
+        }
+        return withConnection(connection -> {
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT name FROM " + kind.table + " WHERE id = ?")) {
+                select.setInt(1, code);
+                try (ResultSet rs = select.executeQuery()) {
+                    return rs.next() ? cache(kind, code, rs.getString(1)) : null;
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the canonical instance equal to {@code value} if it is in the dictionary, else {@code value}
+     */
+    public String intern(Kind kind, String value) {
+        if (value == null) {
+            return null;
+        }
+        ensureLoaded();
+        Integer code = codes.get(kind).get(value);
+        String name = code != null ? names.get(kind).get(code) : null;
+        return name != null ? name : value;
+    }
+
+    private Integer find(Connection connection, Kind kind, String value) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, name FROM " + kind.table + " WHERE name = ?")) {
+            select.setString(1, value);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                int code = rs.getInt(1);
+                cache(kind, code, rs.getString(2));
+                return code;
+            }
+        }
+    }
+
+    private List<String> copyShards() {
+        String primary = shards.getRouter().primaryShard();
+        return shards.getRouter().shards().stream().filter(shard -> !shard.equals(primary)).toList();
+    }
+
+    private static void copy(Connection connection, Kind kind, Map<Integer, String> entries) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(String.format(COPY_SQL, kind.table))) {
+            for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+                insert.setInt(1, entry.getKey());
+                insert.setString(2, entry.getValue());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private String cache(Kind kind, int code, String name) {
+        String canonical = names.get(kind).computeIfAbsent(code, c -> name);
+        codes.get(kind).putIfAbsent(canonical, code);
+        return canonical;
+    }
+
+    private <T> T withConnection(SqlCall<T> call) {
+        return withConnection(shards.getRouter().primaryShard(), call);
+    }
+
+    private <T> T withConnection(String shard, SqlCall<T> call) {
+        return shards.execute(shard, () -> {
+            // Not the transaction's connection: the dictionary commits on its own
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                return call.apply(connection);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Task dictionary access failed: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.dictionary;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Adds the status, category and team of a {@link DictionaryEncoded} entity to the dictionary
+ * before it is written, so the converters find a code for every value. Instantiated by
+ * Hibernate through the Spring bean container.
+ */
+public class TaskDictionaryListener {
+
+    private final TaskDictionary dictionary;
+
+    public TaskDictionaryListener(TaskDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(Object entity) {
+        if (entity instanceof DictionaryEncoded task) {
+            dictionary.register(TaskDictionary.Kind.STATUS, task.getStatus());
+            dictionary.register(TaskDictionary.Kind.CATEGORY, task.getCategory());
+            dictionary.register(TaskDictionary.Kind.TEAM, task.getTeam());
+        }
+    }
+}
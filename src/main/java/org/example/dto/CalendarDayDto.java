@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks due on one day of a calendar month.")
+public class CalendarDayDto {
+
+    @Schema(description = "The day.", example = "2025-09-15")
+    private LocalDate date;
+
+    @Schema(description = "Number of tasks due that day.", example = "7")
+    private long taskCount;
+
+    @Schema(description = "The most urgent of them (highest priority, then earliest due), at most top.")
+    private List<TaskSummaryDto> tasks;
+}
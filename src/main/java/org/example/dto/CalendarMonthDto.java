@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@Schema(description = "A month of due dates for one user or team, for a calendar view.")
+public class CalendarMonthDto {
+
+    @Schema(description = "The month.", example = "2025-09", type = "string")
+    private YearMonth month;
+
+    @Schema(description = "The user whose tasks are counted, for a user calendar.", example = "205")
+    private Long userId;
+
+    @Schema(description = "The team whose tasks are counted, for a team calendar.", example = "Accounting")
+    private String team;
+
+    @Schema(description = "Number of tasks due in the month.", example = "58")
+    private long taskCount;
+
+    @Schema(description = "Days with tasks due, in date order; days without any are left out.")
+    private List<CalendarDayDto> days;
+}
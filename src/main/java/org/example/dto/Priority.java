@@ -3,51 +3,71 @@ package org.example.dto;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public enum Priority {
     LOW(0),
     MEDIUM(1),
     HIGH(2);
 
+    // Lookup tables, so conversions on the read path never go through exceptions
+    private static final Priority[] BY_CODE = new Priority[3];
+    private static final Map<String, Priority> BY_NAME = new HashMap<>();
+
+    static {
+        for (Priority priority : values()) {
+            BY_CODE[priority.value] = priority;
+            BY_NAME.put(priority.name(), priority);
+            BY_NAME.put(String.valueOf(priority.value), priority);
+        }
+    }
+
     private final int value;
 
     Priority(int value) {
         this.value = value;
     }
 
+    public int getCode() {
+        return value;
+    }
+
     @JsonValue
     public String getValue() {
         return name();
     }
 
-    @JsonCreator
-    public static Priority fromValue(Object value) {
+    /**
+     * @return the priority with this code, or LOW for an unknown code
+     */
+    public static Priority fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : LOW;
+    }
+
+    /**
+     * Looks up a name ("HIGH", case-insensitive) or a numeric code ("2").
+     *
+     * @return the priority, or null if the value is neither
+     */
+    public static Priority parse(String value) {
         if (value == null) {
-            return LOW;
+            return null;
         }
+        Priority priority = BY_NAME.get(value);
+        return priority != null ? priority : BY_NAME.get(value.trim().toUpperCase(Locale.ROOT));
+    }
 
-        if (value instanceof Number) {
-            int numValue = ((Number) value).intValue();
-            switch (numValue) {
-                case 0: return LOW;
-                case 1: return MEDIUM;
-                case 2: return HIGH;
-                default: return LOW;
-            }
-        } else if (value instanceof String) {
-            String strValue = ((String) value).toUpperCase();
-            try {
-                return Priority.valueOf(strValue);
-            } catch (IllegalArgumentException e) {
-                // Try to parse as number
-                try {
-                    int numValue = Integer.parseInt(strValue);
-                    return fromValue(numValue);
-                } catch (NumberFormatException ex) {
-                    return LOW;
-                }
-            }
+    @JsonCreator
+    public static Priority fromValue(Object value) {
+        if (value instanceof Number number) {
+            return fromCode(number.intValue());
+        }
+        if (value instanceof String string) {
+            Priority priority = parse(string);
+            return priority != null ? priority : LOW;
         }
-
         return LOW;
     }
-} 
\ No newline at end of file
+}
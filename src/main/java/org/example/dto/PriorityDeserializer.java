@@ -12,18 +12,17 @@ public class PriorityDeserializer extends JsonDeserializer<Priority> {
         if (value == null) {
             return Priority.LOW;
         }
-        
+
+        // Numeric code or enum name
+        Priority priority = Priority.parse(value);
+        if (priority != null) {
+            return priority;
+        }
         try {
-            // Try to parse as number first
-            int numValue = Integer.parseInt(value);
-            return Priority.fromValue(numValue);
+            // An out-of-range code is LOW, as before
+            return Priority.fromCode(Integer.parseInt(value));
         } catch (NumberFormatException e) {
-            // If not a number, try to parse as enum name
-            try {
-                return Priority.valueOf(value.toUpperCase());
-            } catch (IllegalArgumentException ex) {
-                throw new IllegalArgumentException("Invalid priority value: " + value);
-            }
+            throw new IllegalArgumentException("Invalid priority value: " + value);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Schema(description = "Moves every task of a team that matches the filters to one status. Filters left out match everything.")
+public class StatusTransitionRequestDto {
+
+    @Schema(description = "The status to move the tasks to.", requiredMode = Schema.RequiredMode.REQUIRED, example = "DONE")
+    private String status;
+
+    @Schema(description = "Only tasks currently in this status.", example = "IN_PROGRESS")
+    private String fromStatus;
+
+    @Schema(description = "Only tasks in this category.", example = "Finance")
+    private String category;
+
+    @Schema(description = "Only tasks with this priority.", example = "HIGH")
+    private Priority priority;
+
+    @Schema(description = "Only tasks assigned to this user.", example = "205")
+    private Long userId;
+
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    @Schema(description = "Only tasks due before this time. Use ISO format.", example = "2025-07-15T18:00:00")
+    private LocalDateTime dueBefore;
+}
@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk status transition.")
+public class StatusTransitionResultDto {
+
+    @Schema(description = "The team whose tasks were moved.", example = "Accounting")
+    private String team;
+
+    @Schema(description = "The status the tasks were moved to.", example = "DONE")
+    private String status;
+
+    @Schema(description = "Tasks moved; tasks already in the status are not counted.", example = "240")
+    private long updated;
+
+    @Schema(description = "Chunks the tasks were updated in, one transaction and one event each.", example = "1")
+    private int chunks;
+}
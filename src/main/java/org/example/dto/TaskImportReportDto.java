@@ -0,0 +1,43 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk task import.")
+public class TaskImportReportDto {
+
+    @Schema(description = "Rows read from the file, not counting a CSV header.", example = "25000")
+    private long rows;
+
+    @Schema(description = "Rows stored as new tasks.", example = "24998")
+    private long imported;
+
+    @Schema(description = "Rows that could not be parsed, failed validation, or could not be written.", example = "2")
+    private long failed;
+
+    @Schema(description = "The failed rows, in file order; at most max-reported-errors of them.")
+    private List<RowError> errors;
+
+    @Schema(description = "Whether more rows failed than are listed in errors.", example = "false")
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Why one row of an import was not stored.")
+    public static class RowError {
+
+        @Schema(description = "Line of the file the row starts on, counting from 1.", example = "17")
+        private long line;
+
+        @Schema(description = "What was wrong with the row.", example = "title: must not be blank")
+        private String message;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks looked up by id.")
+public class TaskMultiGetDto {
+
+    @Schema(description = "One result per requested id, in request order.")
+    private List<Result> results;
+
+    @Schema(description = "Results whose task was found.", example = "2")
+    private int found;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "The lookup of one id.")
+    public static class Result {
+
+        @Schema(description = "The requested id.", example = "42")
+        private Long id;
+
+        @Schema(description = "Whether a task with this id exists; if not, task is left out.", example = "true")
+        private boolean found;
+
+        @Schema(description = "The task, when found.")
+        private TaskResponseDto task;
+    }
+}
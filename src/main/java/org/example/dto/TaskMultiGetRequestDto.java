@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Task ids to look up in one request.")
+public class TaskMultiGetRequestDto {
+
+    @Schema(description = "The ids, at most task-service.multi-get.max-ids of them; results come back in this order.",
+            requiredMode = Schema.RequiredMode.REQUIRED, example = "[42, 17, 905]")
+    private List<Long> ids;
+}
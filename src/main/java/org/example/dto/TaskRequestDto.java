@@ -3,26 +3,38 @@ package org.example.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
 @Schema(description = "Data Transfer Object for creating or updating a task.")
+// The constraints describe a new task; updates send only the fields they change
 public class TaskRequestDto {
 
     @Schema(description = "The title of the task.", requiredMode = Schema.RequiredMode.REQUIRED, example = "Design New Homepage")
+    @NotBlank
+    @Size(max = 255)
     private String title;
 
     @Schema(description = "A detailed description of the task.", example = "Create mockups and a prototype for the new company homepage.")
+    @Size(max = 255)
     private String description;
 
     @Schema(description = "The current status of the task.", example = "TODO")
+    @Size(max = 255)
     private String status;
 
     @Schema(description = "The category the task belongs to.", example = "Design")
+    @Size(max = 255)
     private String category;
 
     @Schema(description = "The team assigned to the task.", example = "Marketing")
+    @Size(max = 255)
     private String team;
 
     @Schema(description = "The priority level of the task.", example = "MEDIUM")
@@ -30,6 +42,8 @@ public class TaskRequestDto {
 
     @JsonProperty("userId")
     @Schema(description = "The ID of the user to whom the task will be assigned.", requiredMode = Schema.RequiredMode.REQUIRED, example = "205")
+    @NotNull
+    @Positive
     private Long userId;
 
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
@@ -37,6 +51,7 @@ public class TaskRequestDto {
     private LocalDateTime dueDate;
 
     @Schema(description = "Estimated duration to complete the task, in minutes.", example = "180")
+    @PositiveOrZero
     private Integer duration;
 
 
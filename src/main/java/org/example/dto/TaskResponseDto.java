@@ -1,10 +1,12 @@
 package org.example.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
+@JsonSerialize(using = TaskResponseDtoSerializer.class)
 @Schema(description = "Data Transfer Object for sending task details in an API response.")
 public class TaskResponseDto {
 
@@ -43,4 +45,7 @@ public class TaskResponseDto {
 
     @Schema(description = "The timestamp when the task was last updated.", example = "2025-06-17T11:30:00")
     private LocalDateTime updatedAt;
+
+    @Schema(description = "When the task last entered a completed status; absent while open.", example = "2025-06-20T16:45:00")
+    private LocalDateTime completedAt;
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hand-written JSON writer for {@link TaskResponseDto}, the bulk of every list response.
+ * <p>
+ * Produces exactly what the reflective bean serializer produced under the service's Jackson
+ * settings: snake_case names in declaration order, null fields omitted, and dates as
+ * {@code ISO_LOCAL_DATE_TIME}. Those settings are fixed here, so changing
+ * {@code spring.jackson.*} no longer affects this type. Field names and priority values
+ * are pre-encoded once, and dates are formatted into a per-thread buffer without going
+ * through {@link DateTimeFormatter}.
+ */
+public class TaskResponseDtoSerializer extends StdSerializer<TaskResponseDto> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString CATEGORY = new SerializedString("category");
+    private static final SerializableString TEAM = new SerializedString("team");
+    private static final SerializableString PRIORITY = new SerializedString("priority");
+    private static final SerializableString USER_ID = new SerializedString("user_id");
+    private static final SerializableString DUE_DATE = new SerializedString("due_date");
+    private static final SerializableString DURATION = new SerializedString("duration");
+    private static final SerializableString CREATED_AT = new SerializedString("created_at");
+    private static final SerializableString UPDATED_AT = new SerializedString("updated_at");
+    private static final SerializableString COMPLETED_AT = new SerializedString("completed_at");
+
+    private static final SerializableString[] PRIORITY_VALUES = new SerializableString[Priority.values().length];
+
+    static {
+        for (Priority priority : Priority.values()) {
+            PRIORITY_VALUES[priority.ordinal()] = new SerializedString(priority.getValue());
+        }
+    }
+
+    // "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn"
+    private static final ThreadLocal<char[]> DATE_BUFFER = ThreadLocal.withInitial(() -> new char[29]);
+
+    public TaskResponseDtoSerializer() {
+        super(TaskResponseDto.class);
+    }
+
+    @Override
+    public void serialize(TaskResponseDto task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(task);
+        writeNumber(gen, ID, task.getId());
+        writeString(gen, TITLE, task.getTitle());
+        writeString(gen, DESCRIPTION, task.getDescription());
+        writeString(gen, STATUS, task.getStatus());
+        writeString(gen, CATEGORY, task.getCategory());
+        writeString(gen, TEAM, task.getTeam());
+        if (task.getPriority() != null) {
+            gen.writeFieldName(PRIORITY);
+            gen.writeString(PRIORITY_VALUES[task.getPriority().ordinal()]);
+        }
+        writeNumber(gen, USER_ID, task.getUserId());
+        writeDateTime(gen, DUE_DATE, task.getDueDate());
+        if (task.getDuration() != null) {
+            gen.writeFieldName(DURATION);
+            gen.writeNumber(task.getDuration());
+        }
+        writeDateTime(gen, CREATED_AT, task.getCreatedAt());
+        writeDateTime(gen, UPDATED_AT, task.getUpdatedAt());
+        writeDateTime(gen, COMPLETED_AT, task.getCompletedAt());
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator gen, SerializableString name, LocalDateTime value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        gen.writeFieldName(name);
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed or wider years, never seen in practice
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buf = DATE_BUFFER.get();
+        put4(buf, 0, year);
+        buf[4] = '-';
+        put2(buf, 5, value.getMonthValue());
+        buf[7] = '-';
+        put2(buf, 8, value.getDayOfMonth());
+        buf[10] = 'T';
+        put2(buf, 11, value.getHour());
+        buf[13] = ':';
+        put2(buf, 14, value.getMinute());
+        buf[16] = ':';
+        put2(buf, 17, value.getSecond());
+        int length = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            // As ISO_LOCAL_DATE_TIME: only the significant fraction digits
+            buf[19] = '.';
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            for (int i = 19 + digits; i > 19; i--) {
+                buf[i] = (char) ('0' + nano % 10);
+                nano /= 10;
+            }
+            length = 20 + digits;
+        }
+        gen.writeString(buf, 0, length);
+    }
+
+    private static void put2(char[] buf, int offset, int value) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void put4(char[] buf, int offset, int value) {
+        put2(buf, offset, value / 100);
+        put2(buf, offset + 2, value % 100);
+    }
+}
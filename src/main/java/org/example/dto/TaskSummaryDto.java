@@ -0,0 +1,30 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "The fields of a task a calendar cell shows.")
+public class TaskSummaryDto {
+
+    @Schema(description = "The ID of the task.", example = "42")
+    private Long id;
+
+    @Schema(description = "The title of the task.", example = "Finalize Q3 Report")
+    private String title;
+
+    @Schema(description = "The current status of the task.", example = "TODO")
+    private String status;
+
+    @Schema(description = "The priority level of the task.", example = "HIGH")
+    private Priority priority;
+
+    @Schema(description = "When the task is due.", example = "2025-09-15T18:00:00")
+    private LocalDateTime dueDate;
+}
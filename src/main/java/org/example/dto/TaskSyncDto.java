@@ -0,0 +1,30 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Changes to a task list since a sync token, or the whole list.")
+public class TaskSyncDto {
+
+    @Schema(description = "Pass as since on the next call.", example = "djE6MTc1ODk2MDAwMDAwMDAwMDow")
+    private String token;
+
+    @Schema(description = "Whether tasks is the whole list (no or expired token): replace the local copy instead of merging.", example = "false")
+    private boolean full;
+
+    @Schema(description = "Whether more changes are waiting; call again at once with the new token.", example = "false")
+    private boolean hasMore;
+
+    @Schema(description = "Tasks created or updated since the token, in their current state; may repeat recently sent ones.")
+    private List<TaskResponseDto> tasks;
+
+    @Schema(description = "IDs of tasks that left the list since the token: deleted, archived, or moved to another user, team or status.")
+    private List<Long> removed;
+}
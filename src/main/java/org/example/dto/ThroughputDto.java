@@ -0,0 +1,29 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Schema(description = "Task throughput counters for one day, team or category, read from the daily rollups.")
+public class ThroughputDto {
+
+    @Schema(description = "The day, for per-day results.", example = "2025-09-29")
+    private LocalDate day;
+
+    @Schema(description = "The team, for per-team results; empty for tasks without a team.", example = "Accounting")
+    private String team;
+
+    @Schema(description = "The category, for per-category results; empty for tasks without a category.", example = "Finance")
+    private String category;
+
+    @Schema(description = "Tasks created.", example = "12")
+    private long created;
+
+    @Schema(description = "Tasks completed.", example = "9")
+    private long completed;
+
+    @Schema(description = "Tasks that went overdue (due that day and still open when due, or completed late).", example = "2")
+    private long overdue;
+}
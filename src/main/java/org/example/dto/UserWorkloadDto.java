@@ -0,0 +1,29 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Committed work of one user, bucketed by due day and by ISO week.")
+public class UserWorkloadDto {
+
+    @Schema(description = "The ID of the user.", example = "101")
+    private Long userId;
+
+    @Schema(description = "Total estimated duration of the user's tasks in the range, in minutes.", example = "1440")
+    private long totalMinutes;
+
+    @Schema(description = "Total in hours.", example = "24.0")
+    private double totalHours;
+
+    @Schema(description = "Number of tasks in the range.", example = "7")
+    private long taskCount;
+
+    @Schema(description = "Per-day buckets, only for days with work, in date order.")
+    private List<WorkloadBucketDto> days;
+
+    @Schema(description = "Per-week buckets (weeks start on Monday), only for weeks with work, in date order.")
+    private List<WorkloadBucketDto> weeks;
+}
@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Committed work of one user in one day or week.")
+public class WorkloadBucketDto {
+
+    @Schema(description = "First day of the bucket; a Monday for weekly buckets.", example = "2025-09-29")
+    private LocalDate start;
+
+    @Schema(description = "Sum of the estimated durations of the tasks due in the bucket, in minutes.", example = "480")
+    private long minutes;
+
+    @Schema(description = "The same total in hours.", example = "8.0")
+    private double hours;
+
+    @Schema(description = "Number of tasks due in the bucket.", example = "3")
+    private long taskCount;
+}
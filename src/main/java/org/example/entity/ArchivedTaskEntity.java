@@ -0,0 +1,57 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.example.converter.CategoryConverter;
+import org.example.converter.PriorityConverter;
+import org.example.converter.StatusConverter;
+import org.example.converter.TeamConverter;
+import org.example.dictionary.DictionaryEncoded;
+import org.example.dictionary.TaskDictionaryListener;
+import org.example.dto.Priority;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed task moved out of {@code tasks} by the archiver. Same columns and ids as
+ * {@link TaskEntity}, plus when the row was archived.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = {
+        @Index(name = "idx_tasks_archive_user_id", columnList = "user_id"),
+        @Index(name = "idx_tasks_archive_team_id_status_id", columnList = "team_id, status_id"),
+        @Index(name = "idx_tasks_archive_team_id_priority_code", columnList = "team_id, priority_code")
+})
+@EntityListeners(TaskDictionaryListener.class)
+@Data
+public class ArchivedTaskEntity implements DictionaryEncoded {
+    @Id
+    private Long id;
+
+    private String title;
+    private String description;
+    @Convert(converter = StatusConverter.class)
+    @Column(name = "status_id")
+    private String status;
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id")
+    private String category;
+    @Convert(converter = TeamConverter.class)
+    @Column(name = "team_id")
+    private String team;
+
+    @Convert(converter = PriorityConverter.class)
+    @Column(name = "priority_code", columnDefinition = "TINYINT", nullable = false)
+    private Priority priority;
+
+    private LocalDateTime dueDate;
+    private Integer duration;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime archivedAt;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
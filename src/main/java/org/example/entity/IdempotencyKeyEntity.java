@@ -0,0 +1,40 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Requests seen with an {@code Idempotency-Key}, written by {@code IdempotencyStore} on the
+ * primary shard. Mapped only so that schema tooling creates and validates the table.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@Data
+public class IdempotencyKeyEntity {
+
+    // Operation name and client key, e.g. "createTask:3f2c..."
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    // SHA-256 of the operation and request body, hex
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // The response body as JSON; null while the first request is still running
+    @Lob
+    @Column(name = "response")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Per-day, per-team, per-category task counters, maintained incrementally by
+ * {@code RollupRecorder} and rebuilt by {@code RollupBackfill}. Analytics queries read
+ * only this table.
+ */
+@Entity
+@Table(name = "task_daily_rollups")
+@Data
+public class TaskDailyRollupEntity {
+
+    @EmbeddedId
+    private TaskDailyRollupId id;
+
+    // Tasks created that day
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    // Tasks whose latest completion was that day
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    // Tasks due that day that were still open when due, or were completed late
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+}
@@ -0,0 +1,27 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDailyRollupId implements Serializable {
+
+    @Column(name = "rollup_date")
+    private LocalDate day;
+
+    // Tasks without a team or category are rolled up under ""
+    @Column(nullable = false)
+    private String team;
+
+    @Column(nullable = false)
+    private String category;
+}
@@ -3,25 +3,50 @@ package org.example.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.example.dto.Priority;
+import org.example.converter.CategoryConverter;
 import org.example.converter.PriorityConverter;
+import org.example.converter.StatusConverter;
+import org.example.converter.TeamConverter;
+import org.example.dictionary.DictionaryEncoded;
+import org.example.dictionary.TaskDictionaryListener;
+import org.example.sharding.ShardAwareId;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_due_date", columnList = "due_date"),
+        @Index(name = "idx_tasks_completed_at", columnList = "completed_at"),
+        @Index(name = "idx_tasks_priority_code", columnList = "priority_code"),
+        @Index(name = "idx_tasks_status_id", columnList = "status_id"),
+        @Index(name = "idx_tasks_category_id", columnList = "category_id"),
+        @Index(name = "idx_tasks_team_id_status_id", columnList = "team_id, status_id"),
+        @Index(name = "idx_tasks_team_id_priority_code", columnList = "team_id, priority_code"),
+        @Index(name = "idx_tasks_user_id_due_date", columnList = "user_id, due_date"),
+        @Index(name = "idx_tasks_team_id_due_date", columnList = "team_id, due_date"),
+        @Index(name = "idx_tasks_user_id_updated_at", columnList = "user_id, updated_at"),
+        @Index(name = "idx_tasks_team_id_updated_at", columnList = "team_id, updated_at")
+})
+@EntityListeners(TaskDictionaryListener.class)
 @Data
-public class TaskEntity {
+public class TaskEntity implements DictionaryEncoded {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardAwareId
     private Long id;
 
     private String title;
     private String description;
+    @Convert(converter = StatusConverter.class)
+    @Column(name = "status_id")
     private String status;
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id")
     private String category;
+    @Convert(converter = TeamConverter.class)
+    @Column(name = "team_id")
     private String team;
 
     @Convert(converter = PriorityConverter.class)
-    @Column(name = "priority", length = 20)
+    @Column(name = "priority_code", columnDefinition = "TINYINT", nullable = false)
     private Priority priority;
     
     private LocalDateTime dueDate;
@@ -29,6 +54,7 @@ public class TaskEntity {
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime completedAt; // set when the status enters a completed status
     
     @Column(name = "user_id", nullable = false)
     private Long userId; // to link with User Service
@@ -48,12 +74,4 @@ public class TaskEntity {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-
-    // Convert string priority to enum for existing data migration
-    @PostLoad
-    protected void onLoad() {
-        if (priority == null) {
-            priority = Priority.LOW;
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package org.example.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task that left a user's or team's list (deleted, archived, or moved to another user or
+ * team), kept for {@code task-service.sync.tombstone-retention} so delta syncs can report
+ * it. Written and read by {@code TaskTombstones} on the task's shard; mapped only so that
+ * schema tooling creates and validates the table.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+        @Index(name = "idx_task_tombstones_user_id_removed_at", columnList = "user_id, removed_at"),
+        @Index(name = "idx_task_tombstones_team_removed_at", columnList = "team, removed_at"),
+        @Index(name = "idx_task_tombstones_removed_at", columnList = "removed_at")
+})
+@Data
+public class TaskTombstoneEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    // The list the task left: its user and team (name) before the change
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "team")
+    private String team;
+
+    @Column(name = "removed_at", nullable = false)
+    private LocalDateTime removedAt;
+}
@@ -0,0 +1,23 @@
+package org.example.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    // How long a key is remembered; a retry after this runs as a new request
+    private Duration ttl = Duration.ofHours(24);
+    // Completed keys kept in memory; older ones are answered from idempotency_keys
+    private int maxEntries = 10_000;
+    // How long a duplicate waits for the first request to finish before getting 409
+    private Duration maxWait = Duration.ofSeconds(10);
+    // A key with no response after this was left by an instance that died mid-request
+    private Duration abandonAfter = Duration.ofMinutes(1);
+    private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,361 @@
+package org.example.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ExceptionHandling.IdempotencyConflictException;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its response to retries.
+ * <p>
+ * Completed keys are answered from a bounded in-memory LRU, then from the
+ * {@code idempotency_keys} table on the primary shard, without running the operation again.
+ * A duplicate arriving while the first request is still running waits for it: on the same
+ * instance on its future, across instances by polling the row the first request claimed
+ * with its INSERT. A key reused with a different request body is rejected with 422, and a
+ * duplicate that waited {@code max-wait} in vain gets 409 and can retry.
+ * <p>
+ * A failed request releases its key, so a retry runs it again. A key left without a
+ * response by an instance that died is taken over after {@code abandon-after}. Keys are
+ * forgotten after {@code ttl}.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "task-service.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyStore implements DisposableBean {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 200;
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, request_hash, response, created_at) VALUES (?, ?, NULL, ?)";
+    private static final String SELECT_SQL =
+            "SELECT request_hash, response, created_at FROM idempotency_keys WHERE idempotency_key = ?";
+    private static final String COMPLETE_SQL = "UPDATE idempotency_keys SET response = ? WHERE idempotency_key = ?";
+    private static final String RELEASE_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND response IS NULL";
+    // Expired keys, and claims left by an instance that died mid-request
+    private static final String TAKE_OVER_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? " +
+            "AND (created_at < ? OR (response IS NULL AND created_at < ?))";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE created_at < ?";
+
+    private static final long POLL_MILLIS = 50;
+
+    public record Outcome<T>(T response, boolean replayed) {
+    }
+
+    // A completed request; the response is kept as read or produced, converted on replay
+    private record Entry(String requestHash, Object response, String json, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTemplate shards;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Map<String, Entry> completed;
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter executedRequests;
+    private final Counter replayedRequests;
+    private final Counter conflictingRequests;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            ShardTemplate shards,
+                            ObjectMapper objectMapper,
+                            IdempotencyProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        int maxEntries = Math.max(1, properties.getMaxEntries());
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.executedRequests = outcomeCounter(meterRegistry, "executed");
+        this.replayedRequests = outcomeCounter(meterRegistry, "replayed");
+        this.conflictingRequests = outcomeCounter(meterRegistry, "conflict");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("task.idempotency.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getPurgeInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::purgeSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs {@code action} unless a request with the same key already ran, in which case its
+     * response is returned instead.
+     *
+     * @param operation names the endpoint, so keys of different operations never collide
+     * @param request   the parsed request body; a retry must send an equal one
+     */
+    public <T> Outcome<T> execute(String operation, String key, Object request, Class<T> type, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = operation + ":" + key;
+        String requestHash = hash(operation, request);
+        while (true) {
+            Entry cached = remembered(id);
+            if (cached != null) {
+                return replay(cached, requestHash, type);
+            }
+
+            CompletableFuture<Entry> call = new CompletableFuture<>();
+            CompletableFuture<Entry> running = inFlight.putIfAbsent(id, call);
+            if (running != null) {
+                Entry entry = await(running);
+                if (entry == null) {
+                    continue; // the first request failed; run it again
+                }
+                return replay(entry, requestHash, type);
+            }
+
+            try {
+                Outcome<T> outcome = lead(id, requestHash, type, action, call);
+                if (outcome != null) {
+                    return outcome;
+                }
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(id, call);
+            }
+        }
+    }
+
+    // Claims the key and runs the action; null if the key was released meanwhile and the caller should start over
+    private <T> Outcome<T> lead(String id, String requestHash, Class<T> type, Supplier<T> action,
+                                CompletableFuture<Entry> call) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!claim(id, requestHash, now)) {
+            Entry stored = awaitStored(id);
+            if (stored == null) {
+                call.complete(null);
+                return null;
+            }
+            remember(id, stored);
+            call.complete(stored);
+            return replay(stored, requestHash, type);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(id);
+            throw e;
+        }
+        executedRequests.increment();
+        String json = toJson(response);
+        Entry entry = new Entry(requestHash, response, json, now);
+        remember(id, entry);
+        call.complete(entry);
+        try {
+            onPrimary(() -> jdbcTemplate.update(COMPLETE_SQL, json, id));
+        } catch (RuntimeException e) {
+            // This instance still answers retries from memory; others wait for abandon-after
+            log.warn("Could not store the response for idempotency key {}: {}", id, e.getMessage());
+        }
+        return new Outcome<>(response, false);
+    }
+
+    private boolean claim(String id, String requestHash, LocalDateTime now) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                onPrimary(() -> jdbcTemplate.update(CLAIM_SQL, id, requestHash, Timestamp.valueOf(now)));
+                return true;
+            } catch (DuplicateKeyException e) {
+                int taken = onPrimary(() -> jdbcTemplate.update(TAKE_OVER_SQL, id,
+                        Timestamp.valueOf(now.minus(properties.getTtl())),
+                        Timestamp.valueOf(now.minus(properties.getAbandonAfter()))));
+                if (taken == 0) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Polls the claimed row until it has a response; null if it was released
+    private Entry awaitStored(String id) {
+        long deadline = System.nanoTime() + properties.getMaxWait().toNanos();
+        while (true) {
+            List<Entry> rows = onPrimary(() -> jdbcTemplate.query(SELECT_SQL, (rs, i) -> new Entry(
+                    rs.getString(1), null, rs.getString(2), rs.getTimestamp(3).toLocalDateTime()), id));
+            if (rows.isEmpty()) {
+                return null;
+            }
+            if (rows.get(0).json() != null) {
+                return rows.get(0);
+            }
+            if (System.nanoTime() > deadline) {
+                throw inProgress();
+            }
+            sleep(POLL_MILLIS);
+        }
+    }
+
+    private Entry await(CompletableFuture<Entry> running) {
+        try {
+            return running.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request with the same " + HEADER, e);
+        }
+    }
+
+    private <T> Outcome<T> replay(Entry entry, String requestHash, Class<T> type) {
+        if (!entry.requestHash().equals(requestHash)) {
+            conflictingRequests.increment();
+            throw new IdempotencyConflictException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+        replayedRequests.increment();
+        Object response = entry.response();
+        if (response == null) {
+            try {
+                response = objectMapper.readValue(entry.json(), type);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Stored response for " + HEADER + " is unreadable", e);
+            }
+        }
+        return new Outcome<>(type.cast(response), true);
+    }
+
+    private IdempotencyConflictException inProgress() {
+        conflictingRequests.increment();
+        return new IdempotencyConflictException(HttpStatus.CONFLICT,
+                "A request with this " + HEADER + " is still in progress; retry later");
+    }
+
+    private void release(String id) {
+        try {
+            onPrimary(() -> jdbcTemplate.update(RELEASE_SQL, id));
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    private Entry remembered(String id) {
+        synchronized (completed) {
+            Entry entry = completed.get(id);
+            if (entry != null && entry.createdAt().isBefore(LocalDateTime.now().minus(properties.getTtl()))) {
+                completed.remove(id);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void remember(String id, Entry entry) {
+        synchronized (completed) {
+            completed.put(id, entry);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot hash the request: " + e.getMessage(), e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store the response: " + e.getMessage(), e);
+        }
+    }
+
+    private <R> R onPrimary(Supplier<R> call) {
+        return shards.execute(shards.getRouter().primaryShard(), call);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request with the same " + HEADER, e);
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(properties.getTtl()));
+            int purged = onPrimary(() -> jdbcTemplate.update(PURGE_SQL, cutoff));
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.error("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
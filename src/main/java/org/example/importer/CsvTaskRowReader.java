@@ -0,0 +1,198 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.dto.TaskRequestDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RFC 4180 CSV with a header row naming the task fields. Header names ignore case and
+ * separators ({@code userId}, {@code user_id} and {@code User ID} are the same column); values
+ * may be quoted, with {@code ""} for a quote and line breaks inside quotes. Empty values are
+ * left unset and blank lines are skipped.
+ * <p>
+ * Each row is turned into a JSON object and bound like a {@code POST /createTask} body, so
+ * priorities and due dates accept the same formats.
+ */
+class CsvTaskRowReader extends TaskRowReader {
+
+    // Normalized header name -> JSON property of TaskRequestDto
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("title", "title");
+        COLUMNS.put("description", "description");
+        COLUMNS.put("status", "status");
+        COLUMNS.put("category", "category");
+        COLUMNS.put("team", "team");
+        COLUMNS.put("priority", "priority");
+        COLUMNS.put("userid", "userId");
+        COLUMNS.put("duedate", "due_date");
+        COLUMNS.put("duration", "duration");
+    }
+
+    private final ObjectMapper objectMapper;
+    private final List<String> values = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private final String[] properties;
+    private long recordLine;
+    private String recordError;
+
+    /**
+     * @throws IllegalArgumentException if the header names an unknown column, or lacks title or userId
+     */
+    CsvTaskRowReader(Reader in, ObjectMapper objectMapper, int maxRowLength) throws IOException {
+        super(in, maxRowLength);
+        this.objectMapper = objectMapper;
+        this.properties = readHeader();
+    }
+
+    private String[] readHeader() throws IOException {
+        if (!readRecord()) {
+            return new String[0];
+        }
+        if (recordError != null) {
+            throw new IllegalArgumentException("Invalid CSV header: " + recordError);
+        }
+        String[] header = new String[values.size()];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = values.get(i);
+            String property = COLUMNS.get(normalize(i == 0 ? stripBom(name) : name));
+            if (property == null) {
+                throw new IllegalArgumentException("Unknown CSV column '" + name + "'; expected " + COLUMNS.values());
+            }
+            if (!seen.add(property)) {
+                throw new IllegalArgumentException("CSV column '" + name + "' appears more than once");
+            }
+            header[i] = property;
+        }
+        if (!seen.contains("title") || !seen.contains("userId")) {
+            throw new IllegalArgumentException("CSV header must include title and userId");
+        }
+        return header;
+    }
+
+    @Override
+    Row next() throws IOException {
+        while (readRecord()) {
+            if (recordError != null) {
+                return Row.failed(recordLine, recordError);
+            }
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            if (values.size() != properties.length) {
+                return Row.failed(recordLine, "Expected " + properties.length + " values, found " + values.size());
+            }
+            ObjectNode node = objectMapper.createObjectNode();
+            for (int i = 0; i < properties.length; i++) {
+                String value = values.get(i);
+                if (!value.isEmpty()) {
+                    node.put(properties[i], value);
+                }
+            }
+            try {
+                return Row.parsed(recordLine, objectMapper.treeToValue(node, TaskRequestDto.class));
+            } catch (IOException | IllegalArgumentException e) {
+                return Row.failed(recordLine, describe(e));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads one record into {@link #values}, or sets {@link #recordError} if it is malformed
+     * or too long (still consuming it to its end).
+     *
+     * @return false at the end of the file
+     */
+    private boolean readRecord() throws IOException {
+        values.clear();
+        field.setLength(0);
+        recordError = null;
+        recordLine = line;
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            // Separators count too, so a row of commas cannot grow values without bound
+            if (c != -1 && ++length > maxRowLength) {
+                fail(tooLong());
+            }
+            if (quoted) {
+                if (c == -1) {
+                    fail("Unterminated quoted value");
+                    endField();
+                    return true;
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+            } else if (c == -1 || c == '\n') {
+                endField();
+                return true;
+            } else if (c == ',') {
+                endField();
+                c = read();
+                continue;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                c = read();
+                continue;
+            } else if (c == '\r') {
+                c = read();
+                continue;
+            }
+            if (recordError == null) {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void endField() {
+        if (recordError == null) {
+            values.add(field.toString());
+        }
+        field.setLength(0);
+    }
+
+    private void fail(String error) {
+        if (recordError == null) {
+            recordError = error;
+            values.clear();
+        }
+    }
+
+    private static String stripBom(String name) {
+        return !name.isEmpty() && name.charAt(0) == '\uFEFF' ? name.substring(1) : name;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.dto.TaskRequestDto;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * One JSON task object per line, with the same fields as {@code POST /createTask}. Blank
+ * lines are skipped.
+ */
+class NdjsonTaskRowReader extends TaskRowReader {
+
+    private final ObjectReader taskReader;
+    private final StringBuilder row = new StringBuilder();
+
+    NdjsonTaskRowReader(Reader in, ObjectMapper objectMapper, int maxRowLength) {
+        super(in, maxRowLength);
+        this.taskReader = objectMapper.readerFor(TaskRequestDto.class);
+    }
+
+    @Override
+    Row next() throws IOException {
+        while (true) {
+            long start = line;
+            row.setLength(0);
+            int c;
+            while ((c = read()) != -1 && c != '\n') {
+                if (row.length() == maxRowLength) {
+                    skipLine();
+                    return Row.failed(start, tooLong());
+                }
+                row.append((char) c);
+            }
+            if (!row.isEmpty() && row.charAt(row.length() - 1) == '\r') {
+                row.setLength(row.length() - 1);
+            }
+            String text = row.toString();
+            if (!text.isBlank()) {
+                try {
+                    TaskRequestDto task = taskReader.readValue(text);
+                    return task != null ? Row.parsed(start, task) : Row.failed(start, "Row is not a JSON object");
+                } catch (IOException | IllegalArgumentException e) {
+                    return Row.failed(start, describe(e));
+                }
+            }
+            if (c == -1) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.importer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Upload formats accepted by the task import, chosen by the request's Content-Type.
+ */
+public enum TaskImportFormat {
+    CSV(TaskImportFormat.CSV_VALUE),
+    NDJSON(TaskImportFormat.NDJSON_VALUE);
+
+    public static final String CSV_VALUE = "text/csv";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final MediaType mediaType;
+
+    TaskImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the content type is not one of the formats
+     */
+    public static TaskImportFormat of(MediaType contentType) {
+        for (TaskImportFormat format : values()) {
+            if (format.mediaType.includes(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.importer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.import")
+public class TaskImportProperties {
+
+    private boolean enabled = true;
+
+    // Tasks written per transaction; a chunk that fails is reported row by row
+    private int chunkSize = 500;
+    // Chunks each stage may run ahead of the next; with chunk-size this bounds an import's memory
+    private int queueCapacity = 4;
+    // Rows longer than this are reported instead of read into memory
+    private int maxRowLength = 65_536;
+    // Failed rows listed in the report; the rest are only counted
+    private int maxReportedErrors = 1000;
+    // Imports running at once on this instance; more are refused with 503
+    private int maxConcurrentImports = 2;
+}
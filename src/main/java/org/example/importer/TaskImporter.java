@@ -0,0 +1,300 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ExceptionHandling.ServiceOverloadedException;
+import org.example.dto.TaskImportReportDto;
+import org.example.dto.TaskRequestDto;
+import org.example.service.TaskService;
+import org.example.sharding.ShardRouter;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Imports tasks from a CSV or NDJSON stream in three stages connected by bounded queues:
+ * <ol>
+ *     <li>parse, on the request thread, reading rows in chunks of {@code chunk-size};</li>
+ *     <li>validate, against the {@link TaskRequestDto} constraints;</li>
+ *     <li>write, collecting valid rows per shard and storing each full chunk through
+ *     {@link TaskService#createTasks} in one transaction, with the usual events.</li>
+ * </ol>
+ * The stages overlap, so parsing and validation run while the previous chunk is being
+ * written, and a full queue makes the stage in front of it wait: the import runs at the
+ * speed the database accepts rows, and holds at most a few chunks in memory whatever the
+ * file size.
+ * <p>
+ * A row that cannot be parsed, fails validation, or belongs to a chunk whose write fails is
+ * reported with its line number and skipped; the rest of the file is still imported. Only
+ * a failure to read the upload itself ends the import early.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(TaskImportProperties.class)
+@ConditionalOnProperty(prefix = "task-service.import", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskImporter implements DisposableBean {
+
+    // Marks the end of a stage's output; compared by identity
+    private static final List<TaskRowReader.Row> END = Collections.unmodifiableList(new ArrayList<>());
+
+    private final TaskService taskService;
+    private final ShardRouter shardRouter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TaskImportProperties properties;
+    private final Semaphore imports;
+    private final ExecutorService executor;
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+
+    public TaskImporter(TaskService taskService, ShardTemplate shards, Validator validator,
+                        ObjectMapper objectMapper, TaskImportProperties properties, MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.shardRouter = shards.getRouter();
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.imports = new Semaphore(Math.max(1, properties.getMaxConcurrentImports()));
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "task-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.importedCounter = Counter.builder("task.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.failedCounter = Counter.builder("task.import.rows").tag("outcome", "failed").register(meterRegistry);
+    }
+
+    /**
+     * Imports every row of the stream, returning once the last chunk is written.
+     *
+     * @throws IllegalArgumentException if a CSV header is invalid
+     * @throws ServiceOverloadedException if {@code max-concurrent-imports} imports are already running
+     */
+    public TaskImportReportDto importTasks(InputStream body, TaskImportFormat format, Charset charset) {
+        if (!imports.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many imports are running; retry later", 5);
+        }
+        try {
+            Reader reader = new InputStreamReader(body, charset);
+            TaskRowReader rows = switch (format) {
+                case CSV -> new CsvTaskRowReader(reader, objectMapper, properties.getMaxRowLength());
+                case NDJSON -> new NdjsonTaskRowReader(reader, objectMapper, properties.getMaxRowLength());
+            };
+            return new Run().execute(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the import", e);
+        } finally {
+            imports.release();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // One import: its queues, its report, and the first failure that stops it
+    private final class Run {
+
+        private final int chunkSize = Math.max(1, properties.getChunkSize());
+        private final BlockingQueue<List<TaskRowReader.Row>> parsed = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        private final BlockingQueue<List<TaskRowReader.Row>> validated = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<TaskImportReportDto.RowError> errors = new ArrayList<>();
+        private volatile Throwable failure;
+
+        TaskImportReportDto execute(TaskRowReader reader) throws IOException {
+            Future<?> validating = executor.submit(() -> stage(this::validate));
+            Future<?> writing = executor.submit(() -> stage(this::write));
+            try {
+                parse(reader);
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+                throw new IllegalStateException("Interrupted during an import", e);
+            } finally {
+                await(validating);
+                await(writing);
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Import failed after " + imported.get() + " rows", failure);
+            }
+            List<TaskImportReportDto.RowError> reported;
+            synchronized (errors) {
+                reported = new ArrayList<>(errors);
+            }
+            reported.sort(Comparator.comparingLong(TaskImportReportDto.RowError::getLine));
+            return new TaskImportReportDto(rows.get(), imported.get(), failed.get(), reported, failed.get() > reported.size());
+        }
+
+        private void parse(TaskRowReader reader) throws IOException, InterruptedException {
+            List<TaskRowReader.Row> chunk = new ArrayList<>(chunkSize);
+            TaskRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.incrementAndGet();
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    put(parsed, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                put(parsed, chunk);
+            }
+            put(parsed, END);
+        }
+
+        private void validate() throws InterruptedException {
+            List<TaskRowReader.Row> chunk;
+            while ((chunk = take(parsed)) != END) {
+                List<TaskRowReader.Row> valid = new ArrayList<>(chunk.size());
+                for (TaskRowReader.Row row : chunk) {
+                    if (row.error() != null) {
+                        reject(row, row.error());
+                        continue;
+                    }
+                    Set<ConstraintViolation<TaskRequestDto>> violations = validator.validate(row.task());
+                    if (violations.isEmpty()) {
+                        valid.add(row);
+                    } else {
+                        reject(row, violations.stream()
+                                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                                .sorted()
+                                .collect(Collectors.joining("; ")));
+                    }
+                }
+                if (!valid.isEmpty()) {
+                    put(validated, valid);
+                }
+            }
+            put(validated, END);
+        }
+
+        // Rows wait per shard until a chunk is full, so each write is one shard's transaction
+        private void write() throws InterruptedException {
+            Map<String, List<TaskRowReader.Row>> pending = new HashMap<>();
+            List<TaskRowReader.Row> chunk;
+            while ((chunk = take(validated)) != END) {
+                for (TaskRowReader.Row row : chunk) {
+                    String shard = shardRouter.shardFor(row.task().getTeam(), row.task().getUserId());
+                    List<TaskRowReader.Row> shardRows = pending.computeIfAbsent(shard, key -> new ArrayList<>(chunkSize));
+                    shardRows.add(row);
+                    if (shardRows.size() == chunkSize) {
+                        store(shardRows);
+                        pending.remove(shard);
+                    }
+                }
+            }
+            pending.values().forEach(this::store);
+        }
+
+        private void store(List<TaskRowReader.Row> chunk) {
+            try {
+                taskService.createTasks(chunk.stream().map(TaskRowReader.Row::task).toList());
+                imported.addAndGet(chunk.size());
+                importedCounter.increment(chunk.size());
+            } catch (RuntimeException e) {
+                log.warn("Failed to import {} rows from line {}", chunk.size(), chunk.get(0).line(), e);
+                String message = "Not stored: " + e.getMessage();
+                chunk.forEach(row -> reject(row, message));
+            }
+        }
+
+        private void reject(TaskRowReader.Row row, String message) {
+            failed.incrementAndGet();
+            failedCounter.increment();
+            synchronized (errors) {
+                if (errors.size() < properties.getMaxReportedErrors()) {
+                    errors.add(new TaskImportReportDto.RowError(row.line(), message));
+                }
+            }
+        }
+
+        private void stage(Stage stage) {
+            try {
+                stage.run();
+            } catch (Throwable e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        // Waits for room, giving up once another stage has failed
+        private void put(BlockingQueue<List<TaskRowReader.Row>> queue, List<TaskRowReader.Row> chunk) throws InterruptedException {
+            while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        }
+
+        private List<TaskRowReader.Row> take(BlockingQueue<List<TaskRowReader.Row>> queue) throws InterruptedException {
+            List<TaskRowReader.Row> chunk;
+            while ((chunk = queue.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                checkFailure();
+            }
+            return chunk;
+        }
+
+        private void checkFailure() {
+            if (failure != null) {
+                throw new IllegalStateException("Import stopped", failure);
+            }
+        }
+
+        private void await(Future<?> future) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+                future.cancel(true);
+            } catch (ExecutionException e) {
+                // Recorded in failure by stage()
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+}
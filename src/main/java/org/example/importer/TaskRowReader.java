@@ -0,0 +1,100 @@
+package org.example.importer;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import org.example.dto.TaskRequestDto;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads an import file one row at a time through a fixed-size buffer, so neither the file
+ * nor an oversized row is ever held in memory whole.
+ */
+abstract class TaskRowReader {
+
+    /**
+     * A row of the file: the parsed task, or why it could not be parsed.
+     */
+    record Row(long line, TaskRequestDto task, String error) {
+
+        static Row parsed(long line, TaskRequestDto task) {
+            return new Row(line, task, null);
+        }
+
+        static Row failed(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    // Line of the next character, counting from 1
+    protected long line = 1;
+    protected final int maxRowLength;
+
+    protected TaskRowReader(Reader in, int maxRowLength) {
+        this.in = in;
+        this.maxRowLength = maxRowLength;
+    }
+
+    /**
+     * @return the next row, or null at the end of the file
+     */
+    abstract Row next() throws IOException;
+
+    /**
+     * @return the next character, or -1 at the end of the file
+     */
+    protected int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    /**
+     * Skips the rest of the current line.
+     *
+     * @return false at the end of the file
+     */
+    protected boolean skipLine() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected String tooLong() {
+        return "Row is longer than " + maxRowLength + " characters";
+    }
+
+    // A short reason naming the field Jackson failed on, without its type names where possible
+    protected static String describe(Exception e) {
+        if (e instanceof JsonParseException parse) {
+            return "Malformed JSON at column " + parse.getLocation().getColumnNr();
+        }
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            Throwable cause = mapping.getCause() != null ? mapping.getCause() : mapping;
+            String reason = cause instanceof JsonProcessingException json ? json.getOriginalMessage() : cause.getMessage();
+            return field != null ? field + ": " + reason : reason;
+        }
+        return e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+    }
+}
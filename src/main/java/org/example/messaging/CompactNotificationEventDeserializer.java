@@ -0,0 +1,12 @@
+package org.example.messaging;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.model.NotificationEvent;
+
+public class CompactNotificationEventDeserializer implements Deserializer<NotificationEvent> {
+
+    @Override
+    public NotificationEvent deserialize(String topic, byte[] data) {
+        return data == null ? null : NotificationEventCodec.decode(data);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.messaging;
+
+import org.apache.kafka.common.serialization.Serializer;
+import org.example.model.NotificationEvent;
+
+public class CompactNotificationEventSerializer implements Serializer<NotificationEvent> {
+
+    @Override
+    public byte[] serialize(String topic, NotificationEvent event) {
+        return event == null ? null : NotificationEventCodec.encode(event);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.messaging;
+
+/**
+ * Which encodings the publisher writes. {@code BOTH} supports migrating consumers from
+ * the JSON topic to the compact topic while producers write to both.
+ */
+public enum EventFormat {
+    JSON,
+    COMPACT,
+    BOTH;
+
+    boolean includesJson() {
+        return this != COMPACT;
+    }
+
+    boolean includesCompact() {
+        return this != JSON;
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.messaging;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.example.dto.Priority;
+import org.example.dto.TaskResponseDto;
+import org.example.model.NotificationEvent;
+import org.example.model.TaskEventType;
+import org.example.model.TaskField;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, schema-versioned binary encoding of {@link NotificationEvent}.
+ * <p>
+ * Version 1 layout:
+ * <pre>
+ *   byte    magic (0xC7)
+ *   byte    schema version
+ *   byte    event type code ({@link TaskEventType})
+ *   byte    presence flags (bit 0: taskId, bit 1: userId, bit 2: task state, v2+;
+ *                           bit 3: task ids, bit 4: task states, v4+)
+ *   varlong taskId              (if present)
+ *   varlong userId              (if present)
+ *   varlong timestamp, epoch millis
+ *   varint  changed field mask  ({@link TaskField} bits)
+ * </pre>
+ * Version 2 appends, when flag bit 2 is set, the full task state: a varint mask of the
+ * non-null state fields followed by their values in {@link StateField} order. Strings
+ * are length-prefixed UTF-8, timestamps epoch millis, the priority its numeric code.
+ * Version 3 adds the COMPLETED_AT state field. Version 4 appends the lists of a bulk event:
+ * with flag bit 3 its task ids (a varint count, then varlongs), then with flag bit 4 the
+ * tasks' states (a varint count, then states as above). Each event is written with the
+ * lowest version that can carry it, so events without task state are still version 1.
+ * <p>
+ * Titles, messages and e-mail addresses are not carried; consumers render them from
+ * the event type and look up anything else they need by id. Decoders accept every
+ * version up to {@link #CURRENT_VERSION} and reject newer ones.
+ */
+public final class NotificationEventCodec {
+
+    static final int MAGIC = 0xC7;
+    static final int CURRENT_VERSION = 4;
+
+    private static final int HAS_TASK_ID = 1;
+    private static final int HAS_USER_ID = 1 << 1;
+    private static final int HAS_TASK_STATE = 1 << 2;
+    private static final int HAS_TASK_IDS = 1 << 3;
+    private static final int HAS_TASK_STATES = 1 << 4;
+
+    // Order and positions are part of the wire format; new fields go last, with a version bump
+    private enum StateField {
+        ID, TITLE, DESCRIPTION, STATUS, CATEGORY, TEAM, PRIORITY, USER_ID, DUE_DATE, DURATION, CREATED_AT, UPDATED_AT,
+        COMPLETED_AT;
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private NotificationEventCodec() {
+    }
+
+    public static byte[] encode(NotificationEvent event) {
+        TaskEventType type = TaskEventType.fromName(event.getEventType());
+        if (type == null) {
+            throw new SerializationException("Event type has no compact code: " + event.getEventType());
+        }
+
+        TaskResponseDto task = event.getTask();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(task == null ? 32 : 128);
+        out.write(MAGIC);
+        out.write(version(event));
+        out.write(type.getCode());
+
+        int flags = 0;
+        if (event.getTaskId() != null) flags |= HAS_TASK_ID;
+        if (event.getUserId() != null) flags |= HAS_USER_ID;
+        if (task != null) flags |= HAS_TASK_STATE;
+        if (event.getTaskIds() != null) flags |= HAS_TASK_IDS;
+        if (event.getTasks() != null) flags |= HAS_TASK_STATES;
+        out.write(flags);
+
+        if (event.getTaskId() != null) writeVarLong(out, event.getTaskId());
+        if (event.getUserId() != null) writeVarLong(out, event.getUserId());
+        writeVarLong(out, toEpochMillis(event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now()));
+        writeVarLong(out, TaskField.toMask(event.getChangedFields()));
+        if (task != null) {
+            writeTaskState(out, task);
+        }
+        if (event.getTaskIds() != null) {
+            writeVarLong(out, event.getTaskIds().size());
+            event.getTaskIds().forEach(id -> writeVarLong(out, id));
+        }
+        if (event.getTasks() != null) {
+            writeVarLong(out, event.getTasks().size());
+            event.getTasks().forEach(state -> writeTaskState(out, state));
+        }
+        return out.toByteArray();
+    }
+
+    private static int version(NotificationEvent event) {
+        if (event.getTaskIds() != null || event.getTasks() != null) {
+            return 4;
+        }
+        TaskResponseDto task = event.getTask();
+        return task == null ? 1 : task.getCompletedAt() == null ? 2 : 3;
+    }
+
+    public static NotificationEvent decode(byte[] data) {
+        Reader in = new Reader(data);
+        if (in.readByte() != MAGIC) {
+            throw new SerializationException("Not a compact notification event");
+        }
+        int version = in.readByte();
+        if (version < 1 || version > CURRENT_VERSION) {
+            throw new SerializationException("Unsupported notification event schema version " + version);
+        }
+
+        int code = in.readByte();
+        TaskEventType type = TaskEventType.fromCode(code);
+        if (type == null) {
+            throw new SerializationException("Unknown notification event type code " + code);
+        }
+
+        NotificationEvent event = new NotificationEvent();
+        event.setEventType(type.name());
+        int flags = in.readByte();
+        if ((flags & HAS_TASK_ID) != 0) event.setTaskId(in.readVarLong());
+        if ((flags & HAS_USER_ID) != 0) event.setUserId(in.readVarLong());
+        event.setTimestamp(fromEpochMillis(in.readVarLong()));
+        event.setChangedFields(TaskField.fromMask((int) in.readVarLong()));
+        if (version >= 2 && (flags & HAS_TASK_STATE) != 0) {
+            event.setTask(readTaskState(in));
+        }
+        if (version >= 4 && (flags & HAS_TASK_IDS) != 0) {
+            int count = (int) in.readVarLong();
+            // Every entry takes at least a byte, so a corrupt count cannot over-allocate
+            List<Long> ids = new ArrayList<>(Math.min(count, data.length));
+            for (int i = 0; i < count; i++) {
+                ids.add(in.readVarLong());
+            }
+            event.setTaskIds(ids);
+        }
+        if (version >= 4 && (flags & HAS_TASK_STATES) != 0) {
+            int count = (int) in.readVarLong();
+            List<TaskResponseDto> tasks = new ArrayList<>(Math.min(count, data.length));
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTaskState(in));
+            }
+            event.setTasks(tasks);
+        }
+        return event;
+    }
+
+    private static void writeTaskState(ByteArrayOutputStream out, TaskResponseDto task) {
+        int mask = 0;
+        if (task.getId() != null) mask |= StateField.ID.bit();
+        if (task.getTitle() != null) mask |= StateField.TITLE.bit();
+        if (task.getDescription() != null) mask |= StateField.DESCRIPTION.bit();
+        if (task.getStatus() != null) mask |= StateField.STATUS.bit();
+        if (task.getCategory() != null) mask |= StateField.CATEGORY.bit();
+        if (task.getTeam() != null) mask |= StateField.TEAM.bit();
+        if (task.getPriority() != null) mask |= StateField.PRIORITY.bit();
+        if (task.getUserId() != null) mask |= StateField.USER_ID.bit();
+        if (task.getDueDate() != null) mask |= StateField.DUE_DATE.bit();
+        if (task.getDuration() != null) mask |= StateField.DURATION.bit();
+        if (task.getCreatedAt() != null) mask |= StateField.CREATED_AT.bit();
+        if (task.getUpdatedAt() != null) mask |= StateField.UPDATED_AT.bit();
+        if (task.getCompletedAt() != null) mask |= StateField.COMPLETED_AT.bit();
+        writeVarLong(out, mask);
+
+        if (task.getId() != null) writeVarLong(out, task.getId());
+        if (task.getTitle() != null) writeString(out, task.getTitle());
+        if (task.getDescription() != null) writeString(out, task.getDescription());
+        if (task.getStatus() != null) writeString(out, task.getStatus());
+        if (task.getCategory() != null) writeString(out, task.getCategory());
+        if (task.getTeam() != null) writeString(out, task.getTeam());
+        if (task.getPriority() != null) out.write(task.getPriority().getCode());
+        if (task.getUserId() != null) writeVarLong(out, task.getUserId());
+        if (task.getDueDate() != null) writeVarLong(out, toEpochMillis(task.getDueDate()));
+        if (task.getDuration() != null) writeVarLong(out, zigZag(task.getDuration()));
+        if (task.getCreatedAt() != null) writeVarLong(out, toEpochMillis(task.getCreatedAt()));
+        if (task.getUpdatedAt() != null) writeVarLong(out, toEpochMillis(task.getUpdatedAt()));
+        if (task.getCompletedAt() != null) writeVarLong(out, toEpochMillis(task.getCompletedAt()));
+    }
+
+    private static TaskResponseDto readTaskState(Reader in) {
+        int mask = (int) in.readVarLong();
+        TaskResponseDto task = new TaskResponseDto();
+        if (has(mask, StateField.ID)) task.setId(in.readVarLong());
+        if (has(mask, StateField.TITLE)) task.setTitle(in.readString());
+        if (has(mask, StateField.DESCRIPTION)) task.setDescription(in.readString());
+        if (has(mask, StateField.STATUS)) task.setStatus(in.readString());
+        if (has(mask, StateField.CATEGORY)) task.setCategory(in.readString());
+        if (has(mask, StateField.TEAM)) task.setTeam(in.readString());
+        if (has(mask, StateField.PRIORITY)) task.setPriority(Priority.fromCode(in.readByte()));
+        if (has(mask, StateField.USER_ID)) task.setUserId(in.readVarLong());
+        if (has(mask, StateField.DUE_DATE)) task.setDueDate(fromEpochMillis(in.readVarLong()));
+        if (has(mask, StateField.DURATION)) task.setDuration((int) unZigZag(in.readVarLong()));
+        if (has(mask, StateField.CREATED_AT)) task.setCreatedAt(fromEpochMillis(in.readVarLong()));
+        if (has(mask, StateField.UPDATED_AT)) task.setUpdatedAt(fromEpochMillis(in.readVarLong()));
+        if (has(mask, StateField.COMPLETED_AT)) task.setCompletedAt(fromEpochMillis(in.readVarLong()));
+        return task;
+    }
+
+    private static boolean has(int mask, StateField field) {
+        return (mask & field.bit()) != 0;
+    }
+
+    private static long toEpochMillis(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    // Unsigned LEB128; ids, masks and timestamps are never negative
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private int readByte() {
+            if (position >= data.length) {
+                throw new SerializationException("Truncated compact notification event");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("Malformed varint in compact notification event");
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > data.length) {
+                throw new SerializationException("Truncated compact notification event");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
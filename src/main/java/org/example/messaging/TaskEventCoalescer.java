@@ -0,0 +1,237 @@
+package org.example.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.NotificationEvent;
+import org.example.model.TaskEventType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Merges bursts of events for the same task into one event per time window.
+ * <p>
+ * The first created/updated event for a task opens a window; events for that task
+ * arriving before it closes are folded into the pending one:
+ * <ul>
+ *     <li>UPDATED + UPDATED: one UPDATED with the union of the changed fields</li>
+ *     <li>CREATED + UPDATED: one CREATED carrying the latest state</li>
+ *     <li>CREATED + DELETED: nothing is emitted</li>
+ *     <li>UPDATED + DELETED: only the DELETED is emitted</li>
+ * </ul>
+ * Any other event for a task with a pending event first flushes the pending one, and
+ * all emission for a task happens under that task's map entry, so per-task order is
+ * preserved.
+ * <p>
+ * Emitted events go through one ordered outbound queue drained by a single thread, which
+ * hands them to the sink in batches of whatever has accumulated; the sink can then do its
+ * per-batch work (such as resolving user emails) once per batch rather than per event.
+ */
+@Slf4j
+public class TaskEventCoalescer {
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final BlockingQueue<NotificationEvent> outbound = new LinkedBlockingQueue<>();
+    private final Consumer<List<NotificationEvent>> sink;
+    private final int maxBatchSize;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    private final Counter received;
+    private final Counter emitted;
+
+    public TaskEventCoalescer(Consumer<List<NotificationEvent>> sink, Duration window, int maxBatchSize,
+                              MeterRegistry meterRegistry) {
+        this.sink = sink;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMillis = window.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-event-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.received = Counter.builder("task.events.coalescer.received").register(meterRegistry);
+        this.emitted = Counter.builder("task.events.coalescer.emitted").register(meterRegistry);
+        Gauge.builder("task.events.coalescing.ratio", this, TaskEventCoalescer::coalescingRatio)
+                .description("Share of received task events merged away before publishing")
+                .register(meterRegistry);
+        Gauge.builder("task.events.coalescer.pending", pending, Map::size).register(meterRegistry);
+
+        this.drainer = new Thread(this::drainLoop, "task-event-sender");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    public void submit(NotificationEvent event) {
+        received.increment();
+        Long taskId = event.getTaskId();
+        TaskEventType type = TaskEventType.fromName(event.getEventType());
+        if (taskId == null || type == null) {
+            emit(event);
+            return;
+        }
+
+        pending.compute(taskId, (id, current) -> {
+            if (current == null) {
+                if (type == TaskEventType.TASK_CREATED || type == TaskEventType.TASK_UPDATED) {
+                    Pending opened = new Pending(event);
+                    scheduler.schedule(() -> flush(id, opened), windowMillis, TimeUnit.MILLISECONDS);
+                    return opened;
+                }
+                emit(event);
+                return null;
+            }
+            return merge(current, event, type);
+        });
+    }
+
+    private Pending merge(Pending current, NotificationEvent next, TaskEventType nextType) {
+        TaskEventType currentType = TaskEventType.fromName(current.event.getEventType());
+        if (nextType == TaskEventType.TASK_UPDATED) {
+            if (currentType == TaskEventType.TASK_CREATED) {
+                current.replaceKeepingType(next);
+            } else {
+                current.mergeUpdate(next);
+            }
+            return current;
+        }
+        if (nextType == TaskEventType.TASK_DELETED) {
+            if (currentType != TaskEventType.TASK_CREATED) {
+                emit(next);
+            }
+            return null;
+        }
+        // Anything else must not overtake the pending event
+        emit(current.event);
+        if (nextType == TaskEventType.TASK_CREATED) {
+            Pending opened = new Pending(next);
+            scheduler.schedule(() -> flush(next.getTaskId(), opened), windowMillis, TimeUnit.MILLISECONDS);
+            return opened;
+        }
+        emit(next);
+        return null;
+    }
+
+    private void flush(Long taskId, Pending expected) {
+        pending.computeIfPresent(taskId, (id, current) -> {
+            if (current != expected) {
+                return current;
+            }
+            emit(current.event);
+            return null;
+        });
+    }
+
+    /**
+     * Emits everything still pending; called on shutdown.
+     */
+    public void flushAll() {
+        for (Long taskId : new ArrayList<>(pending.keySet())) {
+            pending.computeIfPresent(taskId, (id, current) -> {
+                emit(current.event);
+                return null;
+            });
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flushAll();
+        running = false;
+        drainer.interrupt();
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainBatches();
+    }
+
+    private void emit(NotificationEvent event) {
+        emitted.increment();
+        outbound.add(event);
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                NotificationEvent first = outbound.take();
+                List<NotificationEvent> batch = new ArrayList<>();
+                batch.add(first);
+                outbound.drainTo(batch, maxBatchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void drainBatches() {
+        List<NotificationEvent> batch = new ArrayList<>();
+        while (outbound.drainTo(batch, maxBatchSize) > 0) {
+            deliver(batch);
+            batch = new ArrayList<>();
+        }
+    }
+
+    private void deliver(List<NotificationEvent> batch) {
+        try {
+            sink.accept(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to send {} task notifications: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private double coalescingRatio() {
+        double in = received.count();
+        return in == 0 ? 0.0 : Math.max(0.0, 1.0 - emitted.count() / in);
+    }
+
+    private static final class Pending {
+        private NotificationEvent event;
+        private final Set<String> changedFields = new LinkedHashSet<>();
+
+        private Pending(NotificationEvent event) {
+            this.event = event;
+            addChangedFields(event.getChangedFields());
+        }
+
+        private void mergeUpdate(NotificationEvent next) {
+            addChangedFields(next.getChangedFields());
+            event = next;
+            event.setChangedFields(new ArrayList<>(changedFields));
+        }
+
+        private void replaceKeepingType(NotificationEvent next) {
+            String type = event.getEventType();
+            String title = event.getTitle();
+            String message = event.getMessage();
+            event = next;
+            event.setEventType(type);
+            event.setTitle(title);
+            event.setMessage(message);
+            event.setChangedFields(null);
+        }
+
+        private void addChangedFields(List<String> fields) {
+            if (fields != null) {
+                changedFields.addAll(fields);
+            }
+        }
+    }
+}
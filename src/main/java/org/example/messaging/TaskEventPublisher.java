@@ -0,0 +1,157 @@
+package org.example.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.model.NotificationEvent;
+import org.example.userdirectory.UserDirectory;
+import org.example.userdirectory.UserInfo;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes task notification events in the configured format(s): JSON through the
+ * application's KafkaTemplate, and/or the compact binary encoding through a producer
+ * owned by this class. Bursts of events for one task are first merged by the
+ * {@link TaskEventCoalescer} when coalescing is enabled.
+ * <p>
+ * User emails are filled in here, just before sending, with one {@link UserDirectory}
+ * lookup per batch of events. When the lookup is unavailable the events go out without
+ * an email rather than being held back.
+ */
+@Slf4j
+@Component
+public class TaskEventPublisher implements DisposableBean {
+
+    private final KafkaTemplate<String, Object> jsonTemplate;
+    private final KafkaTemplate<String, NotificationEvent> compactTemplate;
+    private final DefaultKafkaProducerFactory<String, NotificationEvent> compactProducerFactory;
+    private final EventFormat format;
+    private final String jsonTopic;
+    private final String compactTopic;
+    private final TaskEventCoalescer coalescer;
+    private final UserDirectory userDirectory;
+    private final boolean includeTaskState;
+
+    public TaskEventPublisher(KafkaTemplate<String, Object> jsonTemplate,
+                              KafkaProperties kafkaProperties,
+                              MeterRegistry meterRegistry,
+                              UserDirectory userDirectory,
+                              @Value("${task-service.events.format:JSON}") EventFormat format,
+                              @Value("${task-service.events.topic:task-events}") String jsonTopic,
+                              @Value("${task-service.events.compact-topic:task-events-compact}") String compactTopic,
+                              @Value("${task-service.events.include-task-state:false}") boolean includeTaskState,
+                              @Value("${task-service.events.coalescing.enabled:true}") boolean coalescingEnabled,
+                              @Value("${task-service.events.coalescing.window:500ms}") Duration coalescingWindow,
+                              @Value("${task-service.events.max-batch-size:500}") int maxBatchSize) {
+        this.jsonTemplate = jsonTemplate;
+        this.format = format;
+        this.jsonTopic = jsonTopic;
+        this.compactTopic = compactTopic;
+        this.userDirectory = userDirectory;
+        this.includeTaskState = includeTaskState;
+
+        if (format.includesCompact()) {
+            this.compactProducerFactory = new DefaultKafkaProducerFactory<>(
+                    kafkaProperties.buildProducerProperties(null),
+                    new StringSerializer(),
+                    new CompactNotificationEventSerializer());
+            this.compactTemplate = new KafkaTemplate<>(compactProducerFactory);
+        } else {
+            this.compactProducerFactory = null;
+            this.compactTemplate = null;
+        }
+
+        this.coalescer = coalescingEnabled
+                ? new TaskEventCoalescer(this::sendBatch, coalescingWindow, maxBatchSize, meterRegistry)
+                : null;
+    }
+
+    public void publish(NotificationEvent event) {
+        publishAll(List.of(event));
+    }
+
+    /**
+     * Publishes the events of one bulk operation; without coalescing their users are
+     * resolved together in one lookup.
+     */
+    public void publishAll(List<NotificationEvent> events) {
+        if (!includeTaskState) {
+            events.forEach(event -> {
+                event.setTask(null);
+                event.setTasks(null);
+            });
+        }
+        if (coalescer != null) {
+            events.forEach(coalescer::submit);
+        } else {
+            sendBatch(events);
+        }
+    }
+
+    private void sendBatch(List<NotificationEvent> events) {
+        // The compact encoding carries no email, so only JSON output needs the lookup
+        if (format.includesJson()) {
+            resolveEmails(events);
+        }
+        events.forEach(this::sendNow);
+    }
+
+    private void resolveEmails(List<NotificationEvent> events) {
+        Set<Long> userIds = events.stream()
+                .filter(event -> event.getUserEmail() == null)
+                .map(NotificationEvent::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<Long, UserInfo> users = userDirectory.resolveAll(userIds);
+        for (NotificationEvent event : events) {
+            UserInfo user = event.getUserEmail() == null ? users.get(event.getUserId()) : null;
+            if (user != null) {
+                event.setUserEmail(user.email());
+            }
+        }
+    }
+
+    // Keyed by task id so that all events of one task land on one partition, in order
+    private void sendNow(NotificationEvent event) {
+        String key = event.getTaskId() != null ? event.getTaskId().toString() : null;
+        if (format.includesJson()) {
+            send(() -> jsonTemplate.send(jsonTopic, key, event), jsonTopic);
+        }
+        if (format.includesCompact()) {
+            send(() -> compactTemplate.send(compactTopic, key, event), compactTopic);
+        }
+    }
+
+    private void send(Runnable send, String topic) {
+        try {
+            send.run();
+        } catch (Exception e) {
+            log.error("Failed to send task notification to {}: {}", topic, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+        if (compactProducerFactory != null) {
+            compactProducerFactory.destroy();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dictionary.TaskDictionary;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills {@code status_id}, {@code category_id} and {@code team_id} from the legacy name
+ * columns on existing rows, online.
+ * <p>
+ * Runs in the background after startup, on every shard and on both {@code tasks} and
+ * {@code tasks_archive}. Rows are read in id-ordered pages and their names encoded through
+ * {@link TaskDictionary}, which assigns codes on the primary shard, so the comparison happens
+ * here rather than in SQL. Rows whose codes are missing or stale are updated only while their
+ * names are still the ones read, and the job pauses {@code batch-pause} between pages. A
+ * failed run is retried after {@code retry-interval}; until one completes,
+ * {@link MigrationHealthIndicator} keeps the instance out of service, since queries read the
+ * codes only.
+ * <p>
+ * The triggers in {@code schema.sql} code the rows older instances write, except for a name
+ * the dictionary has never seen, so while older instances may still be running the job
+ * repeats every {@code recheck-interval} (0 stops after the first complete run). Tables
+ * without the name columns have nothing to fill.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "task-service.dictionary-migration", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DictionaryCodeBackfill implements DisposableBean {
+
+    private static final String PAGE_SQL =
+            "SELECT id, status, category, team, status_id, category_id, team_id FROM %s WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final List<String> TABLES = List.of("tasks", "tasks_archive");
+    private static final String[] NAME_COLUMNS = {"status", "category", "team"};
+    private static final TaskDictionary.Kind[] KINDS = {
+            TaskDictionary.Kind.STATUS, TaskDictionary.Kind.CATEGORY, TaskDictionary.Kind.TEAM};
+    private static final String MIGRATION = "dictionary-code-backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTemplate shards;
+    private final TaskDictionary dictionary;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration retryInterval;
+    private final Duration recheckInterval;
+    private final MigrationHealthIndicator health;
+    private final ExecutorService executor;
+
+    public DictionaryCodeBackfill(JdbcTemplate jdbcTemplate,
+                                  ShardTemplate shards,
+                                  TaskDictionary dictionary,
+                                  MigrationHealthIndicator health,
+                                  @Value("${task-service.dictionary-migration.batch-size:1000}") int batchSize,
+                                  @Value("${task-service.dictionary-migration.batch-pause:100ms}") Duration batchPause,
+                                  @Value("${task-service.dictionary-migration.retry-interval:30s}") Duration retryInterval,
+                                  @Value("${task-service.dictionary-migration.recheck-interval:5m}") Duration recheckInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.dictionary = dictionary;
+        this.health = health;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPause = batchPause;
+        this.retryInterval = retryInterval;
+        this.recheckInterval = recheckInterval;
+        // Before the context is ready, so readiness never reports UP ahead of the backfill
+        health.started(MIGRATION);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "task-dictionary-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::runSafely);
+    }
+
+    private void runSafely() {
+        try {
+            while (!runOnce()) {
+                Thread.sleep(retryInterval.toMillis());
+            }
+            health.finished(MIGRATION);
+            while (!recheckInterval.isZero()) {
+                Thread.sleep(recheckInterval.toMillis());
+                runOnce();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean runOnce() throws InterruptedException {
+        try {
+            long total = 0;
+            for (String shard : shards.getRouter().shards()) {
+                for (String table : TABLES) {
+                    total += backfill(shard, table);
+                }
+            }
+            if (total > 0) {
+                log.info("Backfilled dictionary codes on {} rows", total);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Dictionary code backfill failed, retrying in {}", retryInterval, e);
+            return false;
+        }
+    }
+
+    private long backfill(String shard, String table) throws InterruptedException {
+        if (!shards.execute(shard, () -> LegacyColumns.exist(jdbcTemplate, table, NAME_COLUMNS))) {
+            return 0;
+        }
+        String pageSql = String.format(PAGE_SQL, table);
+        long total = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            long lastId = afterId;
+            page = shards.execute(shard, () -> jdbcTemplate.query(pageSql, (rs, i) -> new Object[]{
+                    rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getObject(5), rs.getObject(6), rs.getObject(7)}, lastId, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = (Long) page.get(page.size() - 1)[0];
+
+            // Grouped by statement: the name guard differs for null names
+            Map<String, List<Object[]>> updates = new LinkedHashMap<>();
+            for (Object[] row : page) {
+                Object[] codes = new Object[KINDS.length];
+                boolean stale = false;
+                for (int i = 0; i < KINDS.length; i++) {
+                    codes[i] = dictionary.register(KINDS[i], (String) row[1 + i]);
+                    Object stored = row[4 + i] != null ? ((Number) row[4 + i]).intValue() : null;
+                    stale |= !Objects.equals(codes[i], stored);
+                }
+                if (stale) {
+                    addUpdate(updates, table, row, codes);
+                }
+            }
+            for (Map.Entry<String, List<Object[]>> update : updates.entrySet()) {
+                for (int count : shards.execute(shard, () -> jdbcTemplate.batchUpdate(update.getKey(), update.getValue()))) {
+                    total += Math.max(count, 0);
+                }
+            }
+            Thread.sleep(batchPause.toMillis());
+        } while (page.size() == batchSize);
+        return total;
+    }
+
+    private static void addUpdate(Map<String, List<Object[]>> updates, String table, Object[] row, Object[] codes) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table)
+                .append(" SET status_id = ?, category_id = ?, team_id = ? WHERE id = ?");
+        List<Object> args = new ArrayList<>(Arrays.asList(codes));
+        args.add(row[0]);
+        for (int i = 0; i < NAME_COLUMNS.length; i++) {
+            Object name = row[1 + i];
+            if (name == null) {
+                sql.append(" AND ").append(NAME_COLUMNS[i]).append(" IS NULL");
+            } else {
+                sql.append(" AND ").append(NAME_COLUMNS[i]).append(" = ?");
+                args.add(name);
+            }
+        }
+        updates.computeIfAbsent(sql.toString(), key -> new ArrayList<>()).add(args.toArray());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.migration;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * Whether a table still has the pre-migration columns a backfill reads. A schema created by
+ * this version (a new database, or the local H2 shards) has only the coded columns, and
+ * there is nothing to backfill.
+ */
+final class LegacyColumns {
+
+    private LegacyColumns() {
+    }
+
+    static boolean exist(JdbcTemplate jdbcTemplate, String table, String... columns) {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String column : columns) {
+                try (ResultSet rs = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
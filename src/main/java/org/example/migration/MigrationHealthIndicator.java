@@ -0,0 +1,40 @@
+package org.example.migration;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports an instance out of service while an online backfill is still running.
+ * <p>
+ * Queries filter, count and sort on {@code priority_code} and the dictionary codes only, so
+ * until the existing rows have them, results would miss rows. Part of the readiness group
+ * ({@code /actuator/health/readiness}): during a rolling deploy the first new instance takes
+ * no traffic until its backfills are done, while the older instances keep serving. Rows
+ * written meanwhile get their codes from the triggers in {@code schema.sql}.
+ */
+@Component
+public class MigrationHealthIndicator implements HealthIndicator {
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    void started(String migration) {
+        running.add(migration);
+    }
+
+    void finished(String migration) {
+        running.remove(migration);
+    }
+
+    @Override
+    public Health health() {
+        if (running.isEmpty()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("running", List.copyOf(running)).build();
+    }
+}
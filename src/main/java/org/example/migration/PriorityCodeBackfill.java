@@ -0,0 +1,141 @@
+package org.example.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills {@code priority_code} from the legacy {@code priority} name on existing rows, online.
+ * <p>
+ * Runs in the background after startup, on every shard and on both {@code tasks} and
+ * {@code tasks_archive}: rows are walked in id order, and each batch of rows whose code is
+ * missing or disagrees with the name is updated in its own short statement, with
+ * {@code batch-pause} between batches. A failed run is retried after {@code retry-interval}
+ * until one completes; meanwhile {@link MigrationHealthIndicator} keeps the instance out of
+ * service, since queries read {@code priority_code} only. The triggers in {@code schema.sql}
+ * fill the code of rows that older instances write, so one complete run leaves every row
+ * coded; after it, {@code priority_code} can be made {@code NOT NULL} and the job disabled.
+ * Tables without the legacy column have nothing to fill.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "task-service.priority-migration", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PriorityCodeBackfill implements DisposableBean {
+
+    private static final String CODE_OF_NAME =
+            "CASE UPPER(TRIM(priority)) WHEN 'HIGH' THEN 2 WHEN '2' THEN 2 WHEN 'MEDIUM' THEN 1 WHEN '1' THEN 1 ELSE 0 END";
+
+    private static final String SELECT_SQL =
+            "SELECT id FROM %s WHERE id > ? AND (priority_code IS NULL OR priority_code <> " + CODE_OF_NAME + ") " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_SQL = "UPDATE %s SET priority_code = " + CODE_OF_NAME + " WHERE id IN (%s)";
+
+    private static final List<String> TABLES = List.of("tasks", "tasks_archive");
+    private static final String MIGRATION = "priority-code-backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTemplate shards;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration retryInterval;
+    private final MigrationHealthIndicator health;
+    private final ExecutorService executor;
+
+    public PriorityCodeBackfill(JdbcTemplate jdbcTemplate,
+                                ShardTemplate shards,
+                                MigrationHealthIndicator health,
+                                @Value("${task-service.priority-migration.batch-size:1000}") int batchSize,
+                                @Value("${task-service.priority-migration.batch-pause:100ms}") Duration batchPause,
+                                @Value("${task-service.priority-migration.retry-interval:30s}") Duration retryInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.health = health;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPause = batchPause;
+        this.retryInterval = retryInterval;
+        // Before the context is ready, so readiness never reports UP ahead of the backfill
+        health.started(MIGRATION);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "task-priority-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::runSafely);
+    }
+
+    private void runSafely() {
+        try {
+            while (!runOnce()) {
+                Thread.sleep(retryInterval.toMillis());
+            }
+            health.finished(MIGRATION);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean runOnce() throws InterruptedException {
+        try {
+            long total = 0;
+            for (String shard : shards.getRouter().shards()) {
+                for (String table : TABLES) {
+                    total += backfill(shard, table);
+                }
+            }
+            log.info("priority_code backfill complete, {} rows updated", total);
+            return true;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("priority_code backfill failed, retrying in {}", retryInterval, e);
+            return false;
+        }
+    }
+
+    private long backfill(String shard, String table) throws InterruptedException {
+        if (!shards.execute(shard, () -> LegacyColumns.exist(jdbcTemplate, table, "priority"))) {
+            return 0;
+        }
+        String select = String.format(SELECT_SQL, table);
+        long total = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long lastId = afterId;
+            ids = shards.execute(shard, () -> jdbcTemplate.queryForList(select, Long.class, lastId, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            String update = String.format(UPDATE_SQL, table, String.join(", ", Collections.nCopies(ids.size(), "?")));
+            Object[] args = ids.toArray();
+            total += shards.execute(shard, () -> jdbcTemplate.update(update, args));
+            afterId = ids.get(ids.size() - 1);
+            Thread.sleep(batchPause.toMillis());
+        } while (ids.size() == batchSize);
+        return total;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
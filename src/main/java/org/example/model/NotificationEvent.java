@@ -1,7 +1,9 @@
 package org.example.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.example.dto.TaskResponseDto;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class NotificationEvent {
     private String eventType;
@@ -11,6 +13,12 @@ public class NotificationEvent {
     private String message;
     private Long taskId;
     private String taskTitle;
+    private List<String> changedFields;
+    // Full task state after the change; only sent when task-service.events.include-task-state is on
+    private TaskResponseDto task;
+    // Bulk events only: the tasks changed, and (with include-task-state) their states after the change
+    private List<Long> taskIds;
+    private List<TaskResponseDto> tasks;
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime timestamp;
@@ -50,6 +58,18 @@ public class NotificationEvent {
     public String getTaskTitle() { return taskTitle; }
     public void setTaskTitle(String taskTitle) { this.taskTitle = taskTitle; }
     
+    public List<String> getChangedFields() { return changedFields; }
+    public void setChangedFields(List<String> changedFields) { this.changedFields = changedFields; }
+    
+    public TaskResponseDto getTask() { return task; }
+    public void setTask(TaskResponseDto task) { this.task = task; }
+
+    public List<Long> getTaskIds() { return taskIds; }
+    public void setTaskIds(List<Long> taskIds) { this.taskIds = taskIds; }
+
+    public List<TaskResponseDto> getTasks() { return tasks; }
+    public void setTasks(List<TaskResponseDto> tasks) { this.tasks = tasks; }
+    
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 } 
\ No newline at end of file
@@ -0,0 +1,7 @@
+package org.example.model;
+
+/**
+ * Summed rollup counters for one group key (a day, team or category).
+ */
+public record RollupTotals(Object key, Long created, Long completed, Long overdue) {
+}
@@ -0,0 +1,9 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id and due date of an open task; the row shape loaded by the deadline scheduler.
+ */
+public record TaskDeadline(Long id, LocalDateTime dueDate) {
+}
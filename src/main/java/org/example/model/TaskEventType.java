@@ -0,0 +1,59 @@
+package org.example.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event types published on the task event topics. The numeric code is what the
+ * compact encoding carries on the wire, so codes must never be reused.
+ */
+public enum TaskEventType {
+    TASK_CREATED(1),
+    TASK_UPDATED(2),
+    TASK_DELETED(3),
+    TASK_DUE_SOON(4),
+    TASK_OVERDUE(5),
+    // Moved to the archive table; gone from the hot views but not deleted
+    TASK_ARCHIVED(6),
+    // One status transition applied to many tasks at once; carries taskIds instead of taskId
+    TASK_BULK_UPDATED(7);
+
+    private static final Map<String, TaskEventType> BY_NAME = new HashMap<>();
+    private static final TaskEventType[] BY_CODE;
+
+    static {
+        int maxCode = 0;
+        for (TaskEventType type : values()) {
+            BY_NAME.put(type.name(), type);
+            maxCode = Math.max(maxCode, type.code);
+        }
+        BY_CODE = new TaskEventType[maxCode + 1];
+        for (TaskEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    TaskEventType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return the type for the code, or null if the code is unknown to this version
+     */
+    public static TaskEventType fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * @return the type for the name, or null if the name is unknown
+     */
+    public static TaskEventType fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+}
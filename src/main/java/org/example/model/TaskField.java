@@ -0,0 +1,55 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Mutable task fields, used to describe what an update changed. The bit position is
+ * part of the compact event encoding, so existing positions must never change.
+ */
+public enum TaskField {
+    TITLE(0),
+    DESCRIPTION(1),
+    STATUS(2),
+    CATEGORY(3),
+    TEAM(4),
+    PRIORITY(5),
+    USER_ID(6),
+    DUE_DATE(7),
+    DURATION(8);
+
+    private final int bit;
+
+    TaskField(int bit) {
+        this.bit = bit;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public static int toMask(Collection<String> fieldNames) {
+        int mask = 0;
+        if (fieldNames != null) {
+            for (String name : fieldNames) {
+                for (TaskField field : values()) {
+                    if (field.name().equals(name)) {
+                        mask |= 1 << field.bit;
+                    }
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static List<String> fromMask(int mask) {
+        List<String> names = new ArrayList<>();
+        for (TaskField field : values()) {
+            if ((mask & (1 << field.bit)) != 0) {
+                names.add(field.name());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.model;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the per-user, per-day workload aggregate.
+ */
+public record WorkloadRow(Long userId, LocalDate day, Long minutes, Long taskCount) {
+}
@@ -0,0 +1,133 @@
+package org.example.nexttask;
+
+import org.example.dto.TaskResponseDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Binary heap of tasks with an id-to-position index, so a task can be replaced or removed
+ * in O(log n) when it changes. The heap itself is never reordered to read the best tasks:
+ * {@link #top(int)} walks it from the root with a small frontier queue, which costs
+ * O(k log k) for the first k. Not thread-safe.
+ */
+final class IndexedTaskHeap {
+
+    private final Comparator<TaskResponseDto> order;
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private TaskResponseDto[] heap = new TaskResponseDto[16];
+    private int size;
+
+    IndexedTaskHeap(Comparator<TaskResponseDto> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size;
+    }
+
+    TaskResponseDto get(long id) {
+        Integer position = positions.get(id);
+        return position != null ? heap[position] : null;
+    }
+
+    /**
+     * Adds the task, or replaces the entry with the same id.
+     */
+    void upsert(TaskResponseDto task) {
+        Integer position = positions.get(task.getId());
+        if (position == null) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size << 1);
+            }
+            place(task, size++);
+            siftUp(size - 1);
+            return;
+        }
+        heap[position] = task;
+        siftUp(position);
+        siftDown(positions.get(task.getId()));
+    }
+
+    void remove(long id) {
+        Integer position = positions.remove(id);
+        if (position == null) {
+            return;
+        }
+        TaskResponseDto last = heap[--size];
+        heap[size] = null;
+        if (position == size) {
+            return;
+        }
+        place(last, position);
+        siftUp(position);
+        siftDown(positions.get(last.getId()));
+    }
+
+    /**
+     * @return the first {@code k} tasks in order
+     */
+    List<TaskResponseDto> top(int k) {
+        int count = Math.min(k, size);
+        List<TaskResponseDto> top = new ArrayList<>(count);
+        if (count == 0) {
+            return top;
+        }
+        // Every position's children are behind it, so the next best task is always in the frontier
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(Math.min(2 * count + 1, size),
+                (a, b) -> order.compare(heap[a], heap[b]));
+        frontier.add(0);
+        while (top.size() < count) {
+            int position = frontier.poll();
+            top.add(heap[position]);
+            int child = 2 * position + 1;
+            if (child < size) {
+                frontier.add(child);
+            }
+            if (child + 1 < size) {
+                frontier.add(child + 1);
+            }
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        TaskResponseDto task = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (order.compare(task, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(task, position);
+    }
+
+    private void siftDown(int position) {
+        TaskResponseDto task = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (order.compare(task, heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(task, position);
+    }
+
+    private void place(TaskResponseDto task, int position) {
+        heap[position] = task;
+        positions.put(task.getId(), position);
+    }
+}
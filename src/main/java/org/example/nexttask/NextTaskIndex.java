@@ -0,0 +1,174 @@
+package org.example.nexttask;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.converter.TaskMapper;
+import org.example.dto.Priority;
+import org.example.dto.TaskResponseDto;
+import org.example.repository.TaskRepository;
+import org.example.service.TaskChange;
+import org.example.service.TaskChangeListener;
+import org.example.sharding.ShardTemplate;
+import org.example.writebehind.TaskWriteBehindBuffer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "what should this user work on next?" from memory.
+ * <p>
+ * Each user's open tasks are held in an {@link IndexedTaskHeap} ordered by {@link #ORDER}:
+ * highest priority first, then earliest due date. A user's heap is loaded from the database
+ * on their first request and then kept current from this instance's writes through
+ * {@link TaskChangeListener}; after {@code max-staleness} it is reloaded to pick up writes
+ * made on other replicas. At most {@code max-users} heaps are kept, dropping the least
+ * recently used.
+ * <p>
+ * A heap is loaded while holding its monitor, so a change for that user waits for the load
+ * and is applied on top of it; a change committed before the load is already in what it reads,
+ * and one still in the {@link TaskWriteBehindBuffer} is applied to it.
+ */
+@Component
+@EnableConfigurationProperties(NextTaskProperties.class)
+@ConditionalOnProperty(prefix = "task-service.next-task", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class NextTaskIndex implements TaskChangeListener {
+
+    public static final Comparator<TaskResponseDto> ORDER = Comparator
+            .comparingInt((TaskResponseDto task) -> -(task.getPriority() != null ? task.getPriority() : Priority.LOW).getCode())
+            .thenComparing(TaskResponseDto::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskResponseDto::getId);
+
+    private static final class UserTasks {
+        private final IndexedTaskHeap heap = new IndexedTaskHeap(ORDER);
+        private final long createdAtMillis = System.currentTimeMillis();
+        private boolean loaded;
+    }
+
+    private final TaskRepository taskRepository;
+    private final ShardTemplate shards;
+    private final TaskMapper taskMapper;
+    private final NextTaskProperties properties;
+    private final ObjectProvider<TaskWriteBehindBuffer> writeBehind;
+    private final Set<String> completedStatuses;
+    // Recency order for eviction, touched by requests only; writers look users up in byUser
+    private final Map<Long, UserTasks> users;
+    private final Map<Long, UserTasks> byUser = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter loads;
+
+    public NextTaskIndex(TaskRepository taskRepository, ShardTemplate shards, TaskMapper taskMapper,
+                         NextTaskProperties properties, ObjectProvider<TaskWriteBehindBuffer> writeBehind,
+                         MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.shards = shards;
+        this.taskMapper = taskMapper;
+        this.properties = properties;
+        this.writeBehind = writeBehind;
+        this.completedStatuses = new HashSet<>(properties.getCompletedStatuses());
+        int maxUsers = properties.getMaxUsers();
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserTasks> eldest) {
+                if (size() > maxUsers) {
+                    byUser.remove(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder("task.nexttask.requests").tag("source", "memory").register(meterRegistry);
+        this.loads = Counter.builder("task.nexttask.requests").tag("source", "database").register(meterRegistry);
+        Gauge.builder("task.nexttask.users", byUser, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return the user's first {@code limit} open tasks in {@link #ORDER}
+     */
+    public List<TaskResponseDto> next(Long userId, int limit) {
+        if (limit < 1 || limit > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + properties.getMaxLimit());
+        }
+        long staleBefore = System.currentTimeMillis() - properties.getMaxStaleness().toMillis();
+        UserTasks tasks;
+        synchronized (users) {
+            tasks = users.get(userId);
+            if (tasks == null || tasks.createdAtMillis < staleBefore) {
+                tasks = new UserTasks();
+                users.put(userId, tasks);
+                byUser.put(userId, tasks);
+            }
+        }
+        synchronized (tasks) {
+            if (!tasks.loaded) {
+                load(userId, tasks);
+                loads.increment();
+            } else {
+                hits.increment();
+            }
+            return tasks.heap.top(limit);
+        }
+    }
+
+    private void load(Long userId, UserTasks tasks) {
+        List<TaskResponseDto> loaded = shards.concat(shards.getRouter().shardsForUser(userId), () -> taskRepository.findByUserId(userId))
+                .stream().map(taskMapper::toDto).toList();
+        TaskWriteBehindBuffer buffer = writeBehind.getIfAvailable();
+        if (buffer != null) {
+            loaded = buffer.overlay(loaded, task -> userId.equals(task.getUserId()), null);
+        }
+        loaded.forEach(task -> apply(tasks, task));
+        tasks.loaded = true;
+    }
+
+    @Override
+    public void onTaskChanged(TaskChange change) {
+        TaskResponseDto previous = change.previous();
+        TaskResponseDto current = change.current();
+        // A reassigned task leaves its previous user's queue
+        if (previous != null && previous.getUserId() != null
+                && (current == null || !previous.getUserId().equals(current.getUserId()))) {
+            UserTasks tasks = byUser.get(previous.getUserId());
+            if (tasks != null) {
+                synchronized (tasks) {
+                    tasks.heap.remove(previous.getId());
+                }
+            }
+        }
+        if (current != null && current.getUserId() != null) {
+            UserTasks tasks = byUser.get(current.getUserId());
+            if (tasks != null) {
+                synchronized (tasks) {
+                    apply(tasks, current);
+                }
+            }
+        }
+    }
+
+    private void apply(UserTasks tasks, TaskResponseDto task) {
+        if (task.getStatus() != null && completedStatuses.contains(task.getStatus())) {
+            tasks.heap.remove(task.getId());
+            return;
+        }
+        TaskResponseDto existing = tasks.heap.get(task.getId());
+        // Changes may be reported out of order; the later update wins
+        if (existing != null && isAfter(existing.getUpdatedAt(), task.getUpdatedAt())) {
+            return;
+        }
+        tasks.heap.upsert(task);
+    }
+
+    private static boolean isAfter(LocalDateTime a, LocalDateTime b) {
+        return a != null && b != null && a.isAfter(b);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.nexttask;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.next-task")
+public class NextTaskProperties {
+
+    private boolean enabled = true;
+
+    // Users whose open tasks are held in memory; the least recently used are dropped first
+    private int maxUsers = 10_000;
+    // Largest limit a next-task request may ask for
+    private int maxLimit = 50;
+    // A user's tasks are reloaded after this long, picking up changes made on other replicas
+    private Duration maxStaleness = Duration.ofMinutes(5);
+
+    // Tasks in these statuses are not candidates
+    private List<String> completedStatuses = new ArrayList<>(List.of("DONE", "COMPLETED"));
+}
@@ -0,0 +1,73 @@
+package org.example.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.messaging.CompactNotificationEventDeserializer;
+import org.example.model.NotificationEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Query-side projection of the task event stream. Only active with
+ * {@code task-service.projection.enabled=true}, which requires producers to publish
+ * events with {@code task-service.events.include-task-state=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "task-service.projection", name = "enabled", havingValue = "true")
+public class ProjectionConfig {
+
+    @Bean
+    public TaskReadModel taskReadModel(@Value("${task-service.projection.max-staleness:5s}") Duration maxStaleness) {
+        return new TaskReadModel(maxStaleness);
+    }
+
+    @Bean
+    public ProjectionSnapshotStore projectionSnapshotStore(
+            @Value("${task-service.projection.snapshot-path:data/task-projection.json}") Path path,
+            ObjectMapper objectMapper) {
+        return new ProjectionSnapshotStore(path, objectMapper);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> projectionListenerContainerFactory(
+            KafkaProperties kafkaProperties,
+            @Value("${task-service.projection.source-format:json}") String sourceFormat,
+            @Value("${task-service.projection.max-staleness:5s}") Duration maxStaleness) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        // Offsets come from the local snapshot, never from the (per-instance) group
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        DefaultKafkaConsumerFactory<String, NotificationEvent> consumerFactory;
+        if ("compact".equalsIgnoreCase(sourceFormat)) {
+            consumerFactory = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                    new ErrorHandlingDeserializer<>(new CompactNotificationEventDeserializer()));
+        } else {
+            JsonDeserializer<NotificationEvent> json = new JsonDeserializer<>(NotificationEvent.class, false);
+            json.ignoreTypeHeaders();
+            consumerFactory = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                    new ErrorHandlingDeserializer<>(json));
+        }
+
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        // An idle consumer reports in well within max-staleness, so a quiet topic does not make
+        // the model stale (TaskProjectionListener.onIdle); a stalled one stops reporting
+        long staleMillis = Math.max(200, maxStaleness.toMillis());
+        factory.getContainerProperties().setIdleEventInterval(staleMillis / 2);
+        factory.getContainerProperties().setPollTimeout(staleMillis / 5);
+        return factory;
+    }
+}
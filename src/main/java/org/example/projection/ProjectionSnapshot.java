@@ -0,0 +1,16 @@
+package org.example.projection;
+
+import org.example.dto.TaskResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the read model together with the next offset to consume per
+ * partition of the event topic.
+ */
+public record ProjectionSnapshot(Map<Integer, Long> offsets,
+                                 List<TaskResponseDto> tasks,
+                                 Map<Long, LocalDateTime> tombstones) {
+}
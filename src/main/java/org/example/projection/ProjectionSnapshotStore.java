@@ -0,0 +1,48 @@
+package org.example.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Persists read model snapshots to local disk. Writes go to a temporary file that is
+ * atomically moved into place, so a crash never leaves a torn snapshot behind.
+ */
+@Slf4j
+public class ProjectionSnapshotStore {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public ProjectionSnapshotStore(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<ProjectionSnapshot> load() {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(path.toFile(), ProjectionSnapshot.class));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable projection snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(ProjectionSnapshot snapshot) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), snapshot);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.projection;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.example.converter.TaskMapper;
+import org.example.entity.TaskEntity;
+import org.example.model.NotificationEvent;
+import org.example.repository.TaskRepository;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds the {@link TaskReadModel} from the task event topic.
+ * <p>
+ * Every instance consumes all partitions under its own consumer group and keeps its
+ * position in the local snapshot rather than in Kafka. On start-up the last snapshot
+ * is restored and consumption resumes at its offsets. Without a usable snapshot the
+ * model is bootstrapped from the database after seeking slightly before the bootstrap
+ * began, so that no change made during the scan is missed; the overlap is absorbed by
+ * the model's last-writer-wins rules.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "task-service.projection", name = "enabled", havingValue = "true")
+public class TaskProjectionListener implements ConsumerSeekAware, DisposableBean {
+
+    private static final int BOOTSTRAP_PAGE_SIZE = 1000;
+    private static final Duration IDLE_CHECK_TIMEOUT = Duration.ofSeconds(1);
+
+    private final TaskReadModel readModel;
+    private final ProjectionSnapshotStore snapshotStore;
+    private final TaskRepository taskRepository;
+    private final ShardTemplate shards;
+    private final TaskMapper taskMapper;
+    private final Duration bootstrapOverlap;
+    private final Duration tombstoneRetention;
+    private final ScheduledExecutorService snapshotScheduler;
+    private final boolean restoredFromSnapshot;
+
+    private volatile long lastEventAtMillis = System.currentTimeMillis();
+
+    public TaskProjectionListener(TaskReadModel readModel,
+                                  ProjectionSnapshotStore snapshotStore,
+                                  TaskRepository taskRepository,
+                                  ShardTemplate shards,
+                                  TaskMapper taskMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${task-service.projection.snapshot-interval:5m}") Duration snapshotInterval,
+                                  @Value("${task-service.projection.bootstrap-overlap:1m}") Duration bootstrapOverlap,
+                                  @Value("${task-service.projection.tombstone-retention:1d}") Duration tombstoneRetention) {
+        this.readModel = readModel;
+        this.snapshotStore = snapshotStore;
+        this.taskRepository = taskRepository;
+        this.shards = shards;
+        this.taskMapper = taskMapper;
+        this.bootstrapOverlap = bootstrapOverlap;
+        this.tombstoneRetention = tombstoneRetention;
+
+        this.restoredFromSnapshot = snapshotStore.load()
+                .map(snapshot -> {
+                    readModel.restore(snapshot);
+                    log.info("Restored task projection snapshot with {} tasks", snapshot.tasks().size());
+                    return true;
+                })
+                .orElse(false);
+
+        TimeGauge.builder("task.projection.staleness", readModel, TimeUnit.MILLISECONDS, TaskReadModel::getLastLagMillis)
+                .description("Delay between an event being produced and being applied to the read model")
+                .register(meterRegistry);
+        TimeGauge.builder("task.projection.idle", this, TimeUnit.MILLISECONDS,
+                        listener -> System.currentTimeMillis() - listener.lastEventAtMillis)
+                .description("Time since the read model last applied an event")
+                .register(meterRegistry);
+        Gauge.builder("task.projection.tasks", readModel, TaskReadModel::count).register(meterRegistry);
+
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-projection-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = snapshotInterval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(this::saveSnapshot, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @KafkaListener(id = "task-projection",
+            topics = "${task-service.projection.topic:${task-service.events.topic:task-events}}",
+            groupId = "task-projection-${random.uuid}",
+            containerFactory = "projectionListenerContainerFactory")
+    public void onEvent(ConsumerRecord<String, NotificationEvent> record) {
+        if (record.value() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastEventAtMillis = now;
+        readModel.apply(record.value(), record.partition(), record.offset() + 1, now - record.timestamp());
+    }
+
+    /**
+     * Published on the consumer thread while no records arrive. Marks the model current if every
+     * assigned partition has been read to its end; a consumer that lost the broker or its
+     * partitions cannot confirm that, so the model goes stale after {@code max-staleness}.
+     */
+    @EventListener(condition = "event.listenerId.startsWith('task-projection')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        Consumer<?, ?> consumer = event.getConsumer();
+        Set<TopicPartition> assigned = consumer.assignment();
+        if (assigned.isEmpty()) {
+            return;
+        }
+        try {
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(assigned, IDLE_CHECK_TIMEOUT);
+            for (TopicPartition partition : assigned) {
+                Long end = endOffsets.get(partition);
+                if (end == null || consumer.position(partition, IDLE_CHECK_TIMEOUT) < end) {
+                    return;
+                }
+            }
+            readModel.markCurrent();
+        } catch (KafkaException e) {
+            log.debug("Could not check the task projection's position: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<TopicPartition> unknown = new ArrayList<>();
+        for (TopicPartition partition : assignments.keySet()) {
+            Long offset = readModel.getOffset(partition.partition());
+            if (offset != null) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            } else {
+                unknown.add(partition);
+            }
+        }
+
+        if (!restoredFromSnapshot && !unknown.isEmpty()) {
+            callback.seekToTimestamp(unknown, System.currentTimeMillis() - bootstrapOverlap.toMillis());
+            bootstrapFromDatabase();
+        } else if (!unknown.isEmpty()) {
+            // Partitions added since the snapshot was taken
+            callback.seekToBeginning(unknown);
+        }
+        readModel.markReady();
+    }
+
+    private void bootstrapFromDatabase() {
+        long lastId = 0;
+        long loaded = 0;
+        List<TaskEntity> page;
+        do {
+            long afterId = lastId;
+            page = shards.mergeSorted(shards.getRouter().shards(),
+                    () -> taskRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(BOOTSTRAP_PAGE_SIZE)),
+                    Comparator.comparing(TaskEntity::getId), BOOTSTRAP_PAGE_SIZE);
+            for (TaskEntity task : page) {
+                readModel.upsert(taskMapper.toDto(task));
+                lastId = task.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == BOOTSTRAP_PAGE_SIZE);
+        log.info("Bootstrapped task projection from the database with {} tasks", loaded);
+    }
+
+    private void saveSnapshot() {
+        if (!readModel.isReady()) {
+            // Never bootstrapped, so local writes alone would make an incomplete snapshot
+            return;
+        }
+        try {
+            snapshotStore.save(readModel.snapshot(tombstoneRetention));
+        } catch (Exception e) {
+            log.warn("Failed to save task projection snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        snapshotScheduler.shutdownNow();
+        saveSnapshot();
+    }
+}
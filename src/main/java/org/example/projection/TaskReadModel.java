@@ -0,0 +1,307 @@
+package org.example.projection;
+
+import org.example.dto.Priority;
+import org.example.dto.TaskResponseDto;
+import org.example.model.NotificationEvent;
+import org.example.model.TaskEventType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local, denormalized copy of the tasks table, indexed for the user, team and status
+ * views and kept current from the task event stream.
+ * <p>
+ * Updates are applied last-writer-wins on {@code updatedAt}, and deletions leave a
+ * tombstone, so replaying events that are already reflected (after a snapshot restore
+ * or a database bootstrap) is harmless. The consumed offset per partition is stored
+ * alongside the data under the same lock so that a snapshot is always consistent with
+ * the position it resumes from.
+ */
+public class TaskReadModel {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, TaskResponseDto> tasks = new HashMap<>();
+    private final Map<Long, LocalDateTime> tombstones = new HashMap<>();
+    private final Map<Long, NavigableSet<Long>> byUser = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> byTeam = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> byStatus = new HashMap<>();
+    private final Map<IndexKey, NavigableSet<Long>> byTeamAndStatus = new HashMap<>();
+    private final Map<IndexKey, NavigableSet<Long>> byTeamAndPriority = new HashMap<>();
+    private final Map<Integer, Long> offsets = new HashMap<>();
+
+    private final Duration maxStaleness;
+    private volatile boolean ready;
+    private volatile long lastLagMillis;
+    // When the model last applied an event or was found caught up with the topic
+    private volatile long currentAtMillis;
+
+    public TaskReadModel(Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * @return true once the model is bootstrapped and not further behind the event
+     * stream than the configured maximum staleness. A model that has neither applied an
+     * event nor been found caught up within that time (a stalled or disconnected consumer)
+     * counts as stale, however small the lag of its last event was.
+     */
+    public boolean isServing() {
+        long maxMillis = maxStaleness.toMillis();
+        return ready && lastLagMillis <= maxMillis && System.currentTimeMillis() - currentAtMillis <= maxMillis;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        currentAtMillis = System.currentTimeMillis();
+        ready = true;
+    }
+
+    /**
+     * Records that the consumer has read every partition to its end, with nothing left to apply.
+     */
+    public void markCurrent() {
+        currentAtMillis = System.currentTimeMillis();
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    public void apply(NotificationEvent event, int partition, long nextOffset, long lagMillis) {
+        lock.writeLock().lock();
+        try {
+            TaskEventType type = TaskEventType.fromName(event.getEventType());
+            if (type == TaskEventType.TASK_DELETED || type == TaskEventType.TASK_ARCHIVED) {
+                removeLocked(event.getTaskId(), event.getTimestamp());
+            } else if (event.getTask() != null) {
+                upsertLocked(event.getTask());
+            } else if (event.getTasks() != null) {
+                event.getTasks().forEach(this::upsertLocked);
+            }
+            offsets.put(partition, nextOffset);
+            lastLagMillis = Math.max(0, lagMillis);
+            currentAtMillis = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(TaskResponseDto task) {
+        lock.writeLock().lock();
+        try {
+            upsertLocked(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long taskId, LocalDateTime deletedAt) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId, deletedAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void upsertLocked(TaskResponseDto task) {
+        if (task.getId() == null) {
+            return;
+        }
+        LocalDateTime deletedAt = tombstones.get(task.getId());
+        if (deletedAt != null && !isAfter(task.getUpdatedAt(), deletedAt)) {
+            return;
+        }
+        TaskResponseDto existing = tasks.get(task.getId());
+        if (existing != null) {
+            if (isAfter(existing.getUpdatedAt(), task.getUpdatedAt())) {
+                return;
+            }
+            unindex(existing);
+        }
+        tombstones.remove(task.getId());
+        tasks.put(task.getId(), task);
+        index(task);
+    }
+
+    private void removeLocked(Long taskId, LocalDateTime deletedAt) {
+        if (taskId == null) {
+            return;
+        }
+        TaskResponseDto existing = tasks.remove(taskId);
+        if (existing != null) {
+            unindex(existing);
+        }
+        tombstones.put(taskId, deletedAt != null ? deletedAt : LocalDateTime.now());
+    }
+
+    private static boolean isAfter(LocalDateTime a, LocalDateTime b) {
+        return a != null && b != null && a.isAfter(b);
+    }
+
+    private void index(TaskResponseDto task) {
+        add(byUser, task.getUserId(), task.getId());
+        add(byTeam, task.getTeam(), task.getId());
+        add(byStatus, task.getStatus(), task.getId());
+        add(byTeamAndStatus, new IndexKey(task.getTeam(), task.getStatus()), task.getId());
+        add(byTeamAndPriority, new IndexKey(task.getTeam(), task.getPriority()), task.getId());
+    }
+
+    private void unindex(TaskResponseDto task) {
+        remove(byUser, task.getUserId(), task.getId());
+        remove(byTeam, task.getTeam(), task.getId());
+        remove(byStatus, task.getStatus(), task.getId());
+        remove(byTeamAndStatus, new IndexKey(task.getTeam(), task.getStatus()), task.getId());
+        remove(byTeamAndPriority, new IndexKey(task.getTeam(), task.getPriority()), task.getId());
+    }
+
+    private static <K> void add(Map<K, NavigableSet<Long>> index, K key, Long id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private static <K> void remove(Map<K, NavigableSet<Long>> index, K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        NavigableSet<Long> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return the tasks among {@code ids} that the model holds, by id
+     */
+    public Map<Long, TaskResponseDto> findByIds(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            Map<Long, TaskResponseDto> result = new HashMap<>();
+            for (Long id : ids) {
+                TaskResponseDto task = tasks.get(id);
+                if (task != null) {
+                    result.put(id, task);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<TaskResponseDto> findByUserId(Long userId) {
+        return find(byUser, userId);
+    }
+
+    public List<TaskResponseDto> findByTeamAndStatus(String team, String status) {
+        return find(byTeamAndStatus, new IndexKey(team, status));
+    }
+
+    public List<TaskResponseDto> findByTeamAndPriority(String team, Priority priority) {
+        return find(byTeamAndPriority, new IndexKey(team, priority));
+    }
+
+    public long countByStatus(String status) {
+        return count(byStatus, status);
+    }
+
+    public long countByTeam(String team) {
+        return count(byTeam, team);
+    }
+
+    public long countByTeamAndStatus(String team, String status) {
+        return count(byTeamAndStatus, new IndexKey(team, status));
+    }
+
+    public long countByTeamAndPriority(String team, Priority priority) {
+        return count(byTeamAndPriority, new IndexKey(team, priority));
+    }
+
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <K> List<TaskResponseDto> find(Map<K, NavigableSet<Long>> index, K key) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> ids = index.get(key);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            List<TaskResponseDto> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                result.add(tasks.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <K> long count(Map<K, NavigableSet<Long>> index, K key) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> ids = index.get(key);
+            return ids == null ? 0 : ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Long getOffset(int partition) {
+        lock.readLock().lock();
+        try {
+            return offsets.get(partition);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ProjectionSnapshot snapshot(Duration tombstoneRetention) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+            tombstones.values().removeIf(deletedAt -> deletedAt.isBefore(cutoff));
+            return new ProjectionSnapshot(new HashMap<>(offsets), new ArrayList<>(tasks.values()), new HashMap<>(tombstones));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void restore(ProjectionSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            snapshot.tasks().forEach(this::upsertLocked);
+            tombstones.putAll(snapshot.tombstones());
+            offsets.putAll(snapshot.offsets());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record IndexKey(Object first, Object second) {
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.push;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.push")
+public class PushProperties {
+
+    private boolean enabled = true;
+
+    // Open subscriptions on this instance; more are refused with 503
+    private int maxSubscribers = 50_000;
+    // Events waiting for one subscriber; a subscriber that falls this far behind is disconnected.
+    // Above task-service.bulk.chunk-size, as a bulk transition sends a chunk's changes at once
+    private int bufferSize = 1024;
+    // Threads writing events to subscribers; writes never wait for a client, so a slow one holds none
+    private int writerThreads = 4;
+    // A subscriber whose connection has accepted nothing for this long is disconnected
+    private Duration writeTimeout = Duration.ofSeconds(5);
+    // A comment is sent this often so proxies keep idle connections open and dead ones are found
+    private Duration heartbeatInterval = Duration.ofSeconds(25);
+    // Connections are closed after this long; clients reconnect with Last-Event-ID
+    private Duration maxConnectionAge = Duration.ofMinutes(30);
+    // Reconnect delay suggested to clients
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+}
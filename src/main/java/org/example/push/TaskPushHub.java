@@ -0,0 +1,434 @@
+package org.example.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.ExceptionHandling.ServiceOverloadedException;
+import org.example.dto.TaskResponseDto;
+import org.example.dto.TaskSyncDto;
+import org.example.model.TaskEventType;
+import org.example.service.TaskChange;
+import org.example.service.TaskChangeListener;
+import org.example.service.TaskSyncService;
+import org.example.sync.SyncProperties;
+import org.example.sync.SyncToken;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Pushes task changes to server-sent event subscribers of a user's or a team's tasks.
+ * <p>
+ * Changes arrive through {@link TaskChangeListener} on the writing thread, which only
+ * serializes each change once and appends it to the buffers of the subscribers of the
+ * task's previous and current user and team. A small pool of writer threads drains the
+ * buffers through the servlet's non-blocking output: a writer only writes while the
+ * connection accepts data and moves on when it does not, and the container calls back once
+ * it does again. So neither the writing thread nor a writer ever waits for a client, and
+ * an idle or stalled subscription holds a socket and a few objects rather than a thread.
+ * <p>
+ * A subscriber whose buffer reaches {@code buffer-size}, or whose connection has accepted
+ * nothing for {@code write-timeout}, is disconnected; like any client that loses its
+ * connection, it reconnects with {@code Last-Event-ID} and is sent what it missed from the
+ * delta sync before live events resume.
+ * <p>
+ * Only this instance's writes are pushed; archiving, which bypasses the listeners, shows
+ * up in the delta sync.
+ */
+@Component
+@EnableConfigurationProperties(PushProperties.class)
+@ConditionalOnProperty(prefix = "task-service.push", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskPushHub implements TaskChangeListener, DisposableBean {
+
+    private static final Event HEARTBEAT = new Event(":\n\n".getBytes(StandardCharsets.UTF_8), false);
+
+    private final TaskSyncService taskSyncService;
+    private final ObjectMapper objectMapper;
+    private final PushProperties properties;
+    private final SyncProperties syncProperties;
+    private final Map<Long, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byTeam = new ConcurrentHashMap<>();
+    // Subscribers whose connection stopped accepting data, checked against write-timeout
+    private final Set<Subscriber> blocked = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter sentCounter;
+    private final Counter evictedCounter;
+
+    public TaskPushHub(TaskSyncService taskSyncService, ObjectMapper objectMapper, PushProperties properties,
+                       SyncProperties syncProperties, MeterRegistry meterRegistry) {
+        this.taskSyncService = taskSyncService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.syncProperties = syncProperties;
+        AtomicInteger counter = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(Math.max(1, properties.getWriterThreads()), r -> {
+            Thread thread = new Thread(r, "task-push-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-push-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        long check = Math.max(10, properties.getWriteTimeout().toMillis() / 4);
+        heartbeats.scheduleWithFixedDelay(this::evictBlocked, check, check, TimeUnit.MILLISECONDS);
+        this.sentCounter = Counter.builder("task.push.events").register(meterRegistry);
+        this.evictedCounter = Counter.builder("task.push.evicted").register(meterRegistry);
+        Gauge.builder("task.push.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Subscribes the request to the user's tasks, turning it into an event stream. With
+     * {@code since}, a delta sync token (the {@code Last-Event-ID} of a previous subscription),
+     * the changes since then are sent first, one {@code sync} event per page.
+     *
+     * @throws IllegalArgumentException if the token is invalid
+     * @throws ServiceOverloadedException if {@code max-subscribers} are already connected
+     */
+    public void subscribeUser(Long userId, String since, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        subscribe(byUser, userId, task -> userId.equals(task.getUserId()), since,
+                token -> taskSyncService.getUserChanges(userId, token), request, response);
+    }
+
+    /**
+     * Subscribes the request to the team's tasks, or only those in {@code status}; see {@link #subscribeUser}.
+     */
+    public void subscribeTeam(String team, String status, String since, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        subscribe(byTeam, team,
+                task -> team.equals(task.getTeam()) && (status == null || status.equals(task.getStatus())), since,
+                token -> taskSyncService.getTeamChanges(team, status, token), request, response);
+    }
+
+    private <K> void subscribe(Map<K, Set<Subscriber>> topics, K key, Predicate<TaskResponseDto> inList,
+                               String since, Function<String, TaskSyncDto> sync,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (since != null && !since.isBlank()) {
+            SyncToken.decode(since);
+        }
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new ServiceOverloadedException("Too many push subscribers; retry later", 5);
+        }
+        Subscriber subscriber = new Subscriber(inList);
+        subscriber.unsubscribe = () -> {
+            if (subscriber.closed.compareAndSet(false, true)) {
+                subscribers.decrementAndGet();
+                blocked.remove(subscriber);
+                topics.computeIfPresent(key, (k, set) -> {
+                    set.remove(subscriber);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        };
+        // Registered before the sync is read, so no change falls between the two; the overlap is sent twice
+        topics.compute(key, (k, set) -> {
+            Set<Subscriber> subscribed = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribed.add(subscriber);
+            return subscribed;
+        });
+
+        try {
+            // Written before any live event, which waits in the buffer meanwhile
+            String first = "retry:" + properties.getReconnectDelay().toMillis() + "\n:subscribed\n\n";
+            subscriber.catchUp.add(new Event(first.getBytes(StandardCharsets.UTF_8), false));
+            if (since != null && !since.isBlank()) {
+                // One sync event per page, each with the token to resume from after it
+                TaskSyncDto changes = sync.apply(since);
+                subscriber.catchUp.add(event(changes.getToken(), "sync", changes));
+                while (changes.isHasMore()) {
+                    changes = sync.apply(changes.getToken());
+                    subscriber.catchUp.add(event(changes.getToken(), "sync", changes));
+                }
+            }
+        } catch (RuntimeException e) {
+            subscriber.unsubscribe.run();
+            throw e;
+        }
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        AsyncContext async;
+        try {
+            async = request.startAsync();
+            async.setTimeout(properties.getMaxConnectionAge().toMillis());
+            async.addListener(subscriber);
+            subscriber.async = async;
+            subscriber.out = async.getResponse().getOutputStream();
+        } catch (IOException | RuntimeException e) {
+            subscriber.unsubscribe.run();
+            throw e;
+        }
+        if (subscriber.closed.get()) {
+            // Evicted while catching up
+            async.complete();
+            return;
+        }
+        // The container calls onWritePossible as soon as the listener is set, which starts the first drain
+        subscriber.out.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                subscriber.blockedSince = 0;
+                blocked.remove(subscriber);
+                schedule(subscriber);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                close(subscriber);
+            }
+        });
+    }
+
+    @Override
+    public void onTaskChanged(TaskChange change) {
+        if (change.type() == TaskEventType.TASK_DUE_SOON || change.type() == TaskEventType.TASK_OVERDUE) {
+            return;
+        }
+        TaskResponseDto previous = change.previous();
+        TaskResponseDto current = change.current();
+        Event upsert = null;
+        Event removal = null;
+        for (Subscriber subscriber : audience(previous, current)) {
+            boolean wasIn = previous != null && subscriber.inList.test(previous);
+            boolean isIn = current != null && subscriber.inList.test(current);
+            if (isIn) {
+                upsert = upsert != null ? upsert : event(liveToken(), "task", current);
+                offer(subscriber, upsert);
+            } else if (wasIn) {
+                removal = removal != null ? removal : event(liveToken(), "removed", Map.of("id", change.taskId()));
+                offer(subscriber, removal);
+            }
+        }
+    }
+
+    // Subscribers of the lists the task was or is in
+    private Set<Subscriber> audience(TaskResponseDto previous, TaskResponseDto current) {
+        Set<Subscriber> audience = new HashSet<>();
+        for (TaskResponseDto task : new TaskResponseDto[]{previous, current}) {
+            if (task == null) {
+                continue;
+            }
+            if (task.getUserId() != null) {
+                audience.addAll(byUser.getOrDefault(task.getUserId(), Set.of()));
+            }
+            if (task.getTeam() != null) {
+                audience.addAll(byTeam.getOrDefault(task.getTeam(), Set.of()));
+            }
+        }
+        return audience;
+    }
+
+    // Resuming from the event's time, less the settle window, repeats rather than skips late commits
+    private String liveToken() {
+        return new SyncToken(LocalDateTime.now().minus(syncProperties.getSettleWindow()), 0).encode();
+    }
+
+    // Encoded once per change, shared by every subscriber it goes to
+    private Event event(String id, String name, Object data) {
+        try {
+            String frame = "id:" + id + "\nevent:" + name + "\ndata:" + objectMapper.writeValueAsString(data) + "\n\n";
+            return new Event(frame.getBytes(StandardCharsets.UTF_8), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize a push event", e);
+        }
+    }
+
+    private void offer(Subscriber subscriber, Event event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (subscriber.queued.incrementAndGet() > properties.getBufferSize()) {
+            evict(subscriber);
+            return;
+        }
+        subscriber.buffer.add(event);
+        schedule(subscriber);
+    }
+
+    private void heartbeat() {
+        for (Map<?, Set<Subscriber>> topics : List.of(byUser, byTeam)) {
+            for (Set<Subscriber> set : topics.values()) {
+                for (Subscriber subscriber : set) {
+                    // A subscriber with events waiting gets those instead
+                    if (subscriber.queued.get() == 0) {
+                        offer(subscriber, HEARTBEAT);
+                    }
+                }
+            }
+        }
+    }
+
+    private void evictBlocked() {
+        long now = System.nanoTime();
+        long timeout = properties.getWriteTimeout().toNanos();
+        for (Subscriber subscriber : blocked) {
+            long since = subscriber.blockedSince;
+            if (since != 0 && now - since > timeout) {
+                evict(subscriber);
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (!subscriber.closed.get()) {
+            evictedCounter.increment();
+        }
+        close(subscriber);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.unsubscribe.run();
+        subscriber.buffer.clear();
+        AsyncContext async = subscriber.async;
+        if (async != null) {
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Completed already, by the container or another thread
+            }
+        }
+    }
+
+    // At most one writer drains a subscriber at a time, so its events stay in order; none
+    // is started while the connection is not accepting data
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.out != null && subscriber.blockedSince == 0
+                && (!subscriber.catchUp.isEmpty() || !subscriber.buffer.isEmpty())
+                && subscriber.draining.compareAndSet(false, true)) {
+            writers.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        ServletOutputStream out = subscriber.out;
+        try {
+            while (!subscriber.closed.get() && ready(subscriber, out)) {
+                Event event = subscriber.catchUp.poll();
+                if (event == null) {
+                    event = subscriber.buffer.poll();
+                    if (event == null) {
+                        // Written out by the container as the connection accepts it
+                        out.flush();
+                        ready(subscriber, out);
+                        break;
+                    }
+                    subscriber.queued.decrementAndGet();
+                }
+                out.write(event.frame());
+                if (event.counted()) {
+                    sentCounter.increment();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container reports it through onError/onComplete too
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        schedule(subscriber);
+    }
+
+    // Marked blocked first: onWritePossible, which follows a false isReady(), clears it
+    private boolean ready(Subscriber subscriber, ServletOutputStream out) {
+        subscriber.blockedSince = System.nanoTime();
+        if (out.isReady()) {
+            subscriber.blockedSince = 0;
+            return true;
+        }
+        blocked.add(subscriber);
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        for (Map<?, Set<Subscriber>> topics : List.of(byUser, byTeam)) {
+            topics.values().forEach(set -> set.forEach(this::close));
+        }
+    }
+
+    private record Event(byte[] frame, boolean counted) {
+    }
+
+    private static final class Subscriber implements AsyncListener {
+        private final Predicate<TaskResponseDto> inList;
+        // The first line and catch-up sync pages, written before anything in buffer
+        private final Queue<Event> catchUp = new ConcurrentLinkedQueue<>();
+        // Unbounded queue with a separate count, so an idle subscriber allocates no buffer
+        private final Queue<Event> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Runnable unsubscribe;
+        private volatile AsyncContext async;
+        // Set once the request is asynchronous; nothing is written before
+        private volatile ServletOutputStream out;
+        // System.nanoTime() when the connection stopped accepting data, 0 while it accepts it
+        private volatile long blockedSince;
+
+        Subscriber(Predicate<TaskResponseDto> inList) {
+            this.inList = Objects.requireNonNull(inList);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            unsubscribe.run();
+        }
+
+        // max-connection-age reached; the client reconnects with Last-Event-ID
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            unsubscribe.run();
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            unsubscribe.run();
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.repository;
+
+import org.example.entity.ArchivedTaskEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTaskEntity, Long> {
+    List<ArchivedTaskEntity> findByUserId(Long userId);
+    List<ArchivedTaskEntity> findByCategory(String category);
+    List<ArchivedTaskEntity> findByStatus(String status);
+    List<ArchivedTaskEntity> findByTeamAndStatus(String team, String status);
+}
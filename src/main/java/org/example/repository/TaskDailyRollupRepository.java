@@ -0,0 +1,37 @@
+package org.example.repository;
+
+import org.example.entity.TaskDailyRollupEntity;
+import org.example.entity.TaskDailyRollupId;
+import org.example.model.RollupTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TaskDailyRollupRepository extends JpaRepository<TaskDailyRollupEntity, TaskDailyRollupId> {
+
+    @Query("select new org.example.model.RollupTotals(r.id.day, sum(r.createdCount), sum(r.completedCount), sum(r.overdueCount)) " +
+           "from TaskDailyRollupEntity r where r.id.day between :from and :to " +
+           "and (:team is null or r.id.team = :team) and (:category is null or r.id.category = :category) " +
+           "group by r.id.day order by r.id.day")
+    List<RollupTotals> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                @Param("team") String team, @Param("category") String category);
+
+    @Query("select new org.example.model.RollupTotals(r.id.team, sum(r.createdCount), sum(r.completedCount), sum(r.overdueCount)) " +
+           "from TaskDailyRollupEntity r where r.id.day between :from and :to " +
+           "and (:category is null or r.id.category = :category) " +
+           "group by r.id.team order by r.id.team")
+    List<RollupTotals> sumByTeam(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                 @Param("category") String category);
+
+    @Query("select new org.example.model.RollupTotals(r.id.category, sum(r.createdCount), sum(r.completedCount), sum(r.overdueCount)) " +
+           "from TaskDailyRollupEntity r where r.id.day between :from and :to " +
+           "and (:team is null or r.id.team = :team) " +
+           "group by r.id.category order by r.id.category")
+    List<RollupTotals> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                     @Param("team") String team);
+}
@@ -3,13 +3,25 @@ package org.example.repository;
 import org.example.dto.Priority;
 import org.example.dto.TaskResponseDto;
 import org.example.entity.TaskEntity;
+import org.example.model.TaskDeadline;
+import org.example.model.WorkloadRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
+
+    // Status, category and team are dictionary-coded: filters bind codes and use the *_id indexes
     List<TaskEntity> findByUserId(Long userId);
     List<TaskEntity> findByCategory(String category);
     List<TaskEntity> findByStatus(String status);
@@ -19,10 +31,10 @@ public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
 
     List<TaskEntity> findAllByOrderByCreatedAtDesc();
     List<TaskEntity> findAllByOrderByCreatedAtAsc();
+    // Priority sorts and filters run on priority_code (idx_tasks_priority_code, idx_tasks_team_id_priority_code)
     List<TaskEntity> findAllByOrderByPriorityDesc();
     List<TaskEntity> findAllByOrderByPriorityAsc();
     List<TaskEntity> findAllByOrderByTitleAsc();
-    List<TaskEntity> findAllByOrderByStatusAsc();
 
     List<TaskEntity> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<TaskEntity> findByUserIdOrderByPriorityDesc(Long userId);
@@ -35,4 +47,69 @@ public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
     Long countByTeamAndPriority(String team, Priority priority);
     List<TaskEntity> findByTeamAndPriority(String team, Priority priority);
 
-}
\ No newline at end of file
+    // Keyset pages (id > afterId) used by the streaming endpoints
+    List<TaskEntity> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<TaskEntity> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Limit limit);
+    List<TaskEntity> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Long afterId, Limit limit);
+    List<TaskEntity> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long afterId, Limit limit);
+    List<TaskEntity> findByTeamAndStatusAndIdGreaterThanOrderByIdAsc(String team, String status, Long afterId, Limit limit);
+    List<TaskEntity> findByTeamAndPriorityAndIdGreaterThanOrderByIdAsc(String team, Priority priority, Long afterId, Limit limit);
+
+    // Range scan on idx_tasks_due_date, keyset-paged by (dueDate, id) after (afterDueDate, afterId)
+    @Query("select new org.example.model.TaskDeadline(t.id, t.dueDate) from TaskEntity t " +
+           "where t.dueDate < :to " +
+           "and (t.dueDate > :afterDueDate or (t.dueDate = :afterDueDate and t.id > :afterId)) " +
+           "and (t.status is null or t.status not in :completedStatuses) " +
+           "order by t.dueDate, t.id")
+    List<TaskDeadline> findOpenDeadlines(@Param("afterDueDate") LocalDateTime afterDueDate,
+                                         @Param("afterId") Long afterId,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("completedStatuses") Collection<String> completedStatuses,
+                                         Limit limit);
+
+    // Range scans on idx_tasks_user_id_due_date and idx_tasks_team_id_due_date, due [from, to)
+    @Query("select t from TaskEntity t where t.userId = :userId " +
+           "and t.dueDate >= :from and t.dueDate < :to order by t.dueDate, t.id")
+    List<TaskEntity> findByUserIdDueBetween(@Param("userId") Long userId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query("select t from TaskEntity t where t.team = :team " +
+           "and t.dueDate >= :from and t.dueDate < :to order by t.dueDate, t.id")
+    List<TaskEntity> findByTeamDueBetween(@Param("team") String team,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    // Delta sync: changes after (after, afterId) in (updatedAt, id) order, on
+    // idx_tasks_user_id_updated_at and idx_tasks_team_id_updated_at
+    @Query("select t from TaskEntity t where t.userId = :userId " +
+           "and (t.updatedAt > :after or (t.updatedAt = :after and t.id > :afterId)) order by t.updatedAt, t.id")
+    List<TaskEntity> findByUserIdChangedAfter(@Param("userId") Long userId,
+                                              @Param("after") LocalDateTime after,
+                                              @Param("afterId") Long afterId,
+                                              Limit limit);
+
+    @Query("select t from TaskEntity t where t.team = :team " +
+           "and (t.updatedAt > :after or (t.updatedAt = :after and t.id > :afterId)) order by t.updatedAt, t.id")
+    List<TaskEntity> findByTeamChangedAfter(@Param("team") String team,
+                                            @Param("after") LocalDateTime after,
+                                            @Param("afterId") Long afterId,
+                                            Limit limit);
+
+    List<TaskEntity> findByTeam(String team);
+
+    // Per-user, per-day sums for the workload view; ordered so callers can group rows per user as they stream
+    @Query("select new org.example.model.WorkloadRow(t.userId, cast(t.dueDate as LocalDate), " +
+           "sum(coalesce(t.duration, 0)), count(t)) from TaskEntity t " +
+           "where t.dueDate >= :from and t.dueDate < :to " +
+           "and (:team is null or t.team = :team) " +
+           "and (:includeCompleted = true or t.status is null or t.status not in :completedStatuses) " +
+           "group by t.userId, cast(t.dueDate as LocalDate) " +
+           "order by t.userId, cast(t.dueDate as LocalDate)")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<WorkloadRow> streamWorkload(@Param("team") String team,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("includeCompleted") boolean includeCompleted,
+                                       @Param("completedStatuses") Collection<String> completedStatuses);
+}
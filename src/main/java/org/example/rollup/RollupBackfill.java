@@ -0,0 +1,207 @@
+package org.example.rollup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dictionary.TaskDictionary;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds {@code task_daily_rollups} for a date range from the {@code tasks} and
+ * {@code tasks_archive} tables.
+ * <p>
+ * The range is processed in chunks of {@code backfill-chunk-days}, oldest first: three
+ * aggregate queries count the chunk on every shard, the chunk's rollup rows are deleted
+ * and rewritten from those counts in one transaction on the primary shard (counts from
+ * different shards for the same day and group add up), and the job pauses for
+ * {@code backfill-pause} so the scans do not monopolise the database. Rebuilding a chunk is idempotent, so a failed or
+ * interrupted backfill can simply be run again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task-service.rollup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RollupBackfill implements DisposableBean {
+
+    // Archived tasks still count towards their days. Groups are by dictionary code, named in count()
+    private static final String TASKS =
+            "(SELECT created_at, updated_at, completed_at, due_date, status_id, team_id, category_id FROM tasks " +
+            "UNION ALL SELECT created_at, updated_at, completed_at, due_date, status_id, team_id, category_id FROM tasks_archive) t";
+
+    private static final int CREATED = 0;
+    private static final int COMPLETED = 1;
+    private static final int OVERDUE = 2;
+
+    private static final String DELETE_SQL = "DELETE FROM task_daily_rollups WHERE rollup_date >= ? AND rollup_date < ?";
+
+    private static final String CREATED_SQL =
+            "SELECT CAST(created_at AS DATE), team_id, category_id, COUNT(*), 0, 0 " +
+            "FROM " + TASKS + " WHERE created_at >= ? AND created_at < ? " +
+            "GROUP BY CAST(created_at AS DATE), team_id, category_id";
+
+    private static final String COMPLETED_SQL =
+            "SELECT CAST(COALESCE(completed_at, updated_at) AS DATE), team_id, category_id, 0, COUNT(*), 0 " +
+            "FROM " + TASKS + " WHERE status_id IN (%s) " +
+            "AND COALESCE(completed_at, updated_at) >= ? AND COALESCE(completed_at, updated_at) < ? " +
+            "GROUP BY CAST(COALESCE(completed_at, updated_at) AS DATE), team_id, category_id";
+
+    private static final String OVERDUE_SQL =
+            "SELECT CAST(due_date AS DATE), team_id, category_id, 0, 0, COUNT(*) " +
+            "FROM " + TASKS + " WHERE due_date >= ? AND due_date < ? AND due_date < ? " +
+            "AND ((status_id IS NULL OR status_id NOT IN (%s)) OR (status_id IN (%s) AND completed_at > due_date)) " +
+            "GROUP BY CAST(due_date AS DATE), team_id, category_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RollupRecorder recorder;
+    private final RollupProperties properties;
+    private final ShardTemplate shards;
+    private final TaskDictionary dictionary;
+    private final List<String> completedStatuses;
+    private final ExecutorService executor;
+
+    private volatile Status status = Status.idle();
+
+    public RollupBackfill(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          RollupRecorder recorder,
+                          RollupProperties properties,
+                          ShardTemplate shards,
+                          TaskDictionary dictionary,
+                          @Value("${task-service.completed-statuses:DONE,COMPLETED}") Set<String> completedStatuses) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.recorder = recorder;
+        this.properties = properties;
+        this.shards = shards;
+        this.dictionary = dictionary;
+        this.completedStatuses = new ArrayList<>(completedStatuses);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "task-rollup-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Starts rebuilding [from, to] in the background.
+     *
+     * @return false if a backfill is already running
+     */
+    public synchronized boolean start(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A date range with from <= to is required");
+        }
+        if (status.running()) {
+            return false;
+        }
+        status = new Status(true, from, to, null, 0, null);
+        executor.execute(() -> run(from, to.plusDays(1)));
+        return true;
+    }
+
+    private void run(LocalDate from, LocalDate endExclusive) {
+        int chunkDays = Math.max(1, properties.getBackfillChunkDays());
+        int chunks = 0;
+        LocalDate chunkStart = from;
+        try {
+            while (chunkStart.isBefore(endExclusive)) {
+                LocalDate chunkEnd = chunkStart.plusDays(chunkDays);
+                if (chunkEnd.isAfter(endExclusive)) {
+                    chunkEnd = endExclusive;
+                }
+                rebuild(chunkStart, chunkEnd);
+                chunks++;
+                status = new Status(true, status.from(), status.to(), chunkEnd.minusDays(1), chunks, null);
+                chunkStart = chunkEnd;
+                if (chunkStart.isBefore(endExclusive)) {
+                    Thread.sleep(properties.getBackfillPause().toMillis());
+                }
+            }
+            status = new Status(false, status.from(), status.to(), status.completedThrough(), chunks, null);
+            log.info("Rebuilt task rollups {} to {} in {} chunks", from, endExclusive.minusDays(1), chunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = new Status(false, status.from(), status.to(), status.completedThrough(), chunks, "interrupted");
+        } catch (Exception e) {
+            log.error("Task rollup backfill failed at {}: {}", chunkStart, e.getMessage());
+            status = new Status(false, status.from(), status.to(), status.completedThrough(), chunks, e.getMessage());
+        }
+    }
+
+    private void rebuild(LocalDate from, LocalDate to) {
+        String in = String.join(", ", completedStatuses.stream().map(s -> "?").toList());
+        Timestamp fromTs = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTs = Timestamp.valueOf(to.atStartOfDay());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Integer> completedCodes = completedStatuses.stream()
+                .map(status -> dictionary.code(TaskDictionary.Kind.STATUS, status)).toList();
+        List<Object> completedArgs = new ArrayList<>(completedCodes);
+        completedArgs.add(fromTs);
+        completedArgs.add(toTs);
+        List<Object> overdueArgs = new ArrayList<>(List.of(fromTs, toTs, now));
+        overdueArgs.addAll(completedCodes);
+        overdueArgs.addAll(completedCodes);
+
+        recorder.rebuildDays(from, to, () -> {
+            List<Object[]> rows = new ArrayList<>();
+            rows.addAll(count(CREATED_SQL, CREATED, fromTs, toTs));
+            rows.addAll(count(String.format(COMPLETED_SQL, in), COMPLETED, completedArgs.toArray()));
+            rows.addAll(count(String.format(OVERDUE_SQL, in, in), OVERDUE, overdueArgs.toArray()));
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.update(DELETE_SQL, Date.valueOf(from), Date.valueOf(to));
+                jdbcTemplate.batchUpdate(RollupRecorder.UPSERT_SQL, rows);
+            });
+        });
+    }
+
+    // Runs one aggregate on every shard, as upsert rows with the count in the given counter column
+    private List<Object[]> count(String sql, int counter, Object... args) {
+        return shards.concat(shards.getRouter().shards(), () -> jdbcTemplate.query(sql, (rs, i) -> {
+            Object[] row = new Object[]{rs.getDate(1), name(TaskDictionary.Kind.TEAM, rs.getObject(2, Integer.class)),
+                    name(TaskDictionary.Kind.CATEGORY, rs.getObject(3, Integer.class)), 0L, 0L, 0L};
+            row[3 + counter] = rs.getLong(4);
+            return row;
+        }, args));
+    }
+
+    // Rollups key groups by name, '' for none
+    private String name(TaskDictionary.Kind kind, Integer code) {
+        String name = dictionary.name(kind, code);
+        return name != null ? name : "";
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param completedThrough last day rebuilt so far
+     * @param error            why the last run stopped early, if it did
+     */
+    public record Status(boolean running, LocalDate from, LocalDate to, LocalDate completedThrough,
+                         int chunksCompleted, String error) {
+        static Status idle() {
+            return new Status(false, null, null, null, 0, null);
+        }
+    }
+}
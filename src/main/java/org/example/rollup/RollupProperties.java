@@ -0,0 +1,18 @@
+package org.example.rollup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.rollup")
+public class RollupProperties {
+
+    private boolean enabled = true;
+    // Buffered counter deltas are written at most this often
+    private Duration flushInterval = Duration.ofSeconds(5);
+    // Days rebuilt per backfill transaction, and the pause between chunks
+    private int backfillChunkDays = 7;
+    private Duration backfillPause = Duration.ofMillis(500);
+}
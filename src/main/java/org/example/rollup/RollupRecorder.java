@@ -0,0 +1,219 @@
+package org.example.rollup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.TaskResponseDto;
+import org.example.entity.TaskDailyRollupId;
+import org.example.model.TaskEventType;
+import org.example.service.TaskChange;
+import org.example.service.TaskChangeListener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Keeps {@code task_daily_rollups} current from task changes.
+ * <p>
+ * Each change is turned into counter deltas by subtracting what the previous state
+ * contributed and adding what the new state contributes, so any edit (status, team,
+ * category, dates, deletion) moves counts between rows correctly. Deltas are merged in
+ * memory per row and written every {@code flush-interval} as one JDBC batch of upserts,
+ * keeping the rollup off the request path.
+ * <p>
+ * Contributions mirror the backfill queries in {@link RollupBackfill}:
+ * <ul>
+ *     <li>created: one on the day of {@code createdAt}</li>
+ *     <li>completed: one on the day of {@code completedAt} (else {@code updatedAt}) while completed</li>
+ *     <li>overdue: one on the due day once due while open, or if completed after the due date;
+ *     time passing is reported by the deadline scheduler's {@code TASK_OVERDUE}</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RollupProperties.class)
+@ConditionalOnProperty(prefix = "task-service.rollup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RollupRecorder implements TaskChangeListener, DisposableBean {
+
+    static final String UPSERT_SQL =
+            "INSERT INTO task_daily_rollups (rollup_date, team, category, created_count, completed_count, overdue_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "created_count = created_count + VALUES(created_count), " +
+            "completed_count = completed_count + VALUES(completed_count), " +
+            "overdue_count = overdue_count + VALUES(overdue_count)";
+
+    private static final int CREATED = 0;
+    private static final int COMPLETED = 1;
+    private static final int OVERDUE = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<String> completedStatuses;
+    private final Map<TaskDailyRollupId, long[]> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+
+    public RollupRecorder(JdbcTemplate jdbcTemplate,
+                          RollupProperties properties,
+                          MeterRegistry meterRegistry,
+                          @Value("${task-service.completed-statuses:DONE,COMPLETED}") Set<String> completedStatuses) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.completedStatuses = completedStatuses;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-rollup-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        Gauge.builder("task.rollup.pending.rows", pending, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void onTaskChanged(TaskChange change) {
+        LocalDateTime now = LocalDateTime.now();
+        if (change.type() == TaskEventType.TASK_OVERDUE) {
+            TaskResponseDto task = change.current();
+            // Already counted if the task was last changed after it fell due
+            if (task.getDueDate() != null
+                    && (task.getUpdatedAt() == null || task.getUpdatedAt().isBefore(task.getDueDate()))) {
+                add(key(task.getDueDate().toLocalDate(), task), OVERDUE, 1);
+            }
+            return;
+        }
+        if (change.type() == TaskEventType.TASK_DUE_SOON) {
+            return;
+        }
+        if (change.previous() != null) {
+            contribute(change.previous(), -1, now);
+        }
+        if (change.current() != null) {
+            contribute(change.current(), 1, now);
+        }
+    }
+
+    private void contribute(TaskResponseDto task, int sign, LocalDateTime now) {
+        if (task.getCreatedAt() != null) {
+            add(key(task.getCreatedAt().toLocalDate(), task), CREATED, sign);
+        }
+        boolean completed = isCompleted(task.getStatus());
+        LocalDateTime completedAt = task.getCompletedAt() != null ? task.getCompletedAt() : task.getUpdatedAt();
+        if (completed && completedAt != null) {
+            add(key(completedAt.toLocalDate(), task), COMPLETED, sign);
+        }
+        LocalDateTime due = task.getDueDate();
+        if (due != null && due.isBefore(now)
+                && (!completed || (task.getCompletedAt() != null && task.getCompletedAt().isAfter(due)))) {
+            add(key(due.toLocalDate(), task), OVERDUE, sign);
+        }
+    }
+
+    private void add(TaskDailyRollupId key, int counter, long delta) {
+        pending.merge(key, counterDelta(counter, delta), (current, added) -> {
+            for (int i = 0; i < current.length; i++) {
+                current[i] += added[i];
+            }
+            return current;
+        });
+    }
+
+    private static long[] counterDelta(int counter, long delta) {
+        long[] counts = new long[3];
+        counts[counter] = delta;
+        return counts;
+    }
+
+    /**
+     * Writes all buffered deltas in one batch.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushMatching(key -> true);
+        } catch (Exception e) {
+            log.error("Failed to flush task rollups: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drops buffered deltas for days in [from, to) and runs {@code rebuild} while no flush
+     * can interleave; used by the backfill, whose recount already includes those changes.
+     */
+    void rebuildDays(LocalDate from, LocalDate to, Runnable rebuild) {
+        flushLock.lock();
+        try {
+            flushMatching(key -> key.getDay().isBefore(from) || !key.getDay().isBefore(to));
+            pending.keySet().removeIf(key -> !key.getDay().isBefore(from) && key.getDay().isBefore(to));
+            rebuild.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushMatching(Predicate<TaskDailyRollupId> filter) {
+        Map<TaskDailyRollupId, long[]> taken = new HashMap<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (TaskDailyRollupId key : new ArrayList<>(pending.keySet())) {
+            if (!filter.test(key)) {
+                continue;
+            }
+            long[] counts = pending.remove(key);
+            if (counts == null || (counts[CREATED] == 0 && counts[COMPLETED] == 0 && counts[OVERDUE] == 0)) {
+                continue;
+            }
+            taken.put(key, counts);
+            batch.add(new Object[]{Date.valueOf(key.getDay()), key.getTeam(), key.getCategory(),
+                    counts[CREATED], counts[COMPLETED], counts[OVERDUE]});
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        } catch (RuntimeException e) {
+            // Put the deltas back for the next attempt
+            taken.forEach((key, counts) -> pending.merge(key, counts, (current, added) -> {
+                for (int i = 0; i < current.length; i++) {
+                    current[i] += added[i];
+                }
+                return current;
+            }));
+            throw e;
+        }
+    }
+
+    private boolean isCompleted(String status) {
+        return status != null && completedStatuses.contains(status);
+    }
+
+    private static TaskDailyRollupId key(LocalDate day, TaskResponseDto task) {
+        return new TaskDailyRollupId(day,
+                task.getTeam() != null ? task.getTeam() : "",
+                task.getCategory() != null ? task.getCategory() : "");
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        flush();
+    }
+}
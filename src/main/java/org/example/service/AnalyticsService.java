@@ -0,0 +1,15 @@
+package org.example.service;
+
+import org.example.dto.ThroughputDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Throughput analytics; reads only the daily rollup table, never {@code tasks}.
+ */
+public interface AnalyticsService {
+    List<ThroughputDto> getDailyThroughput(LocalDate from, LocalDate to, String team, String category);
+    List<ThroughputDto> getThroughputByTeam(LocalDate from, LocalDate to, String category);
+    List<ThroughputDto> getThroughputByCategory(LocalDate from, LocalDate to, String team);
+}
@@ -0,0 +1,16 @@
+package org.example.service;
+
+import org.example.dto.CalendarMonthDto;
+
+import java.time.YearMonth;
+
+public interface CalendarService {
+    /**
+     * Per-day task counts for a month, with the {@code top} most urgent tasks of each day.
+     *
+     * @param includeCompleted whether tasks in a completed status are counted and listed
+     */
+    CalendarMonthDto getUserCalendar(Long userId, YearMonth month, int top, boolean includeCompleted);
+
+    CalendarMonthDto getTeamCalendar(String team, YearMonth month, int top, boolean includeCompleted);
+}
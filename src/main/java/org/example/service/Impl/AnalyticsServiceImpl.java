@@ -0,0 +1,62 @@
+package org.example.service.Impl;
+
+import org.example.dto.ThroughputDto;
+import org.example.model.RollupTotals;
+import org.example.repository.TaskDailyRollupRepository;
+import org.example.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final TaskDailyRollupRepository rollupRepository;
+
+    @Autowired
+    public AnalyticsServiceImpl(TaskDailyRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    @Override
+    public List<ThroughputDto> getDailyThroughput(LocalDate from, LocalDate to, String team, String category) {
+        validateRange(from, to);
+        return toDtos(rollupRepository.sumByDay(from, to, team, category),
+                (dto, key) -> dto.setDay((LocalDate) key));
+    }
+
+    @Override
+    public List<ThroughputDto> getThroughputByTeam(LocalDate from, LocalDate to, String category) {
+        validateRange(from, to);
+        return toDtos(rollupRepository.sumByTeam(from, to, category),
+                (dto, key) -> dto.setTeam((String) key));
+    }
+
+    @Override
+    public List<ThroughputDto> getThroughputByCategory(LocalDate from, LocalDate to, String team) {
+        validateRange(from, to);
+        return toDtos(rollupRepository.sumByCategory(from, to, team),
+                (dto, key) -> dto.setCategory((String) key));
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A date range with from <= to is required");
+        }
+    }
+
+    private static List<ThroughputDto> toDtos(List<RollupTotals> totals, BiConsumer<ThroughputDto, Object> setKey) {
+        return totals.stream().map(total -> {
+            ThroughputDto dto = new ThroughputDto();
+            setKey.accept(dto, total.key());
+            dto.setCreated(total.created() != null ? total.created() : 0);
+            dto.setCompleted(total.completed() != null ? total.completed() : 0);
+            dto.setOverdue(total.overdue() != null ? total.overdue() : 0);
+            return dto;
+        }).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.service.Impl;
+
+import org.example.dictionary.TaskDictionary;
+import org.example.dto.CalendarDayDto;
+import org.example.dto.CalendarMonthDto;
+import org.example.dto.Priority;
+import org.example.dto.TaskSummaryDto;
+import org.example.service.CalendarService;
+import org.example.sharding.ShardRouter;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Builds month calendars with one query per shard. Window functions number each day's
+ * tasks by urgency and count them in the same pass over the month's rows (a range scan on
+ * {@code idx_tasks_user_id_due_date} or {@code idx_tasks_team_id_due_date}), so only the
+ * top rows of each day, carrying their day's count, leave the database. With several
+ * shards the counts are added up and the per-day top lists merged. Buffered write-behind
+ * changes are ranked once flushed, at most {@code flush-interval} later.
+ */
+@Service
+public class CalendarServiceImpl implements CalendarService {
+
+    private static final String CALENDAR_SQL =
+            "SELECT id, title, status_id, priority_code, due_date, day_count FROM (" +
+            "SELECT id, title, status_id, due_date, priority_code, " +
+            "ROW_NUMBER() OVER (PARTITION BY CAST(due_date AS DATE) ORDER BY priority_code DESC, due_date, id) AS day_rank, " +
+            "COUNT(*) OVER (PARTITION BY CAST(due_date AS DATE)) AS day_count " +
+            "FROM tasks WHERE %s = ? AND due_date >= ? AND due_date < ?%s) ranked " +
+            "WHERE day_rank <= ? ORDER BY due_date, id";
+
+    // The order of CALENDAR_SQL's day_rank
+    private static final Comparator<TaskSummaryDto> URGENCY_ORDER = Comparator
+            .comparingInt((TaskSummaryDto task) -> -task.getPriority().getCode())
+            .thenComparing(TaskSummaryDto::getDueDate)
+            .thenComparing(TaskSummaryDto::getId);
+
+    private record CalendarRow(TaskSummaryDto task, long dayCount) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTemplate shards;
+    private final ShardRouter shardRouter;
+    private final TaskDictionary dictionary;
+    private final List<String> completedStatuses;
+    private final int maxTop;
+
+    @Autowired
+    public CalendarServiceImpl(JdbcTemplate jdbcTemplate, ShardTemplate shards,
+                               TaskDictionary dictionary,
+                               @Value("${task-service.completed-statuses:DONE,COMPLETED}") List<String> completedStatuses,
+                               @Value("${task-service.calendar.max-top:20}") int maxTop) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.shardRouter = shards.getRouter();
+        this.dictionary = dictionary;
+        this.completedStatuses = completedStatuses;
+        this.maxTop = maxTop;
+    }
+
+    @Override
+    public CalendarMonthDto getUserCalendar(Long userId, YearMonth month, int top, boolean includeCompleted) {
+        CalendarMonthDto calendar = calendar(shardRouter.shardsForUser(userId), "user_id", userId, month, top, includeCompleted);
+        calendar.setUserId(userId);
+        return calendar;
+    }
+
+    @Override
+    public CalendarMonthDto getTeamCalendar(String team, YearMonth month, int top, boolean includeCompleted) {
+        CalendarMonthDto calendar = calendar(shardRouter.shardsForTeam(team), "team_id",
+                dictionary.code(TaskDictionary.Kind.TEAM, team), month, top, includeCompleted);
+        calendar.setTeam(team);
+        return calendar;
+    }
+
+    private CalendarMonthDto calendar(List<String> targets, String scopeColumn, Object scope,
+                                      YearMonth month, int top, boolean includeCompleted) {
+        if (month == null) {
+            throw new IllegalArgumentException("A month is required");
+        }
+        if (top < 1 || top > maxTop) {
+            throw new IllegalArgumentException("top must be between 1 and " + maxTop);
+        }
+
+        List<List<CalendarRow>> parts = List.of();
+        if (!targets.isEmpty()) {
+            String statusFilter = includeCompleted ? ""
+                    : " AND (status_id IS NULL OR status_id NOT IN (" + placeholders(completedStatuses.size()) + "))";
+            String sql = String.format(CALENDAR_SQL, scopeColumn, statusFilter);
+            List<Object> args = new ArrayList<>();
+            args.add(scope);
+            args.add(Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+            args.add(Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+            if (!includeCompleted) {
+                for (String status : completedStatuses) {
+                    args.add(dictionary.code(TaskDictionary.Kind.STATUS, status));
+                }
+            }
+            args.add(top);
+            parts = shards.scatter(targets, shard -> jdbcTemplate.query(sql, (rs, rowNum) -> new CalendarRow(
+                    new TaskSummaryDto(rs.getLong("id"), rs.getString("title"),
+                            dictionary.name(TaskDictionary.Kind.STATUS, rs.getObject("status_id", Integer.class)),
+                            Priority.fromCode(rs.getInt("priority_code")), rs.getTimestamp("due_date").toLocalDateTime()),
+                    rs.getLong("day_count")), args.toArray()));
+        }
+
+        Map<LocalDate, CalendarDayDto> days = new TreeMap<>();
+        for (List<CalendarRow> part : parts) {
+            Set<LocalDate> counted = new HashSet<>();
+            for (CalendarRow row : part) {
+                LocalDate date = row.task().getDueDate().toLocalDate();
+                CalendarDayDto day = days.computeIfAbsent(date, d -> new CalendarDayDto(d, 0, new ArrayList<>()));
+                // Every row of a shard's day carries that shard's count for the day
+                if (counted.add(date)) {
+                    day.setTaskCount(day.getTaskCount() + row.dayCount());
+                }
+                day.getTasks().add(row.task());
+            }
+        }
+        long taskCount = 0;
+        for (CalendarDayDto day : days.values()) {
+            // Each shard sent its own top rows for the day
+            List<TaskSummaryDto> tasks = day.getTasks();
+            tasks.sort(URGENCY_ORDER);
+            if (tasks.size() > top) {
+                day.setTasks(new ArrayList<>(tasks.subList(0, top)));
+            }
+            taskCount += day.getTaskCount();
+        }
+
+        CalendarMonthDto calendar = new CalendarMonthDto();
+        calendar.setMonth(month);
+        calendar.setTaskCount(taskCount);
+        calendar.setDays(new ArrayList<>(days.values()));
+        return calendar;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
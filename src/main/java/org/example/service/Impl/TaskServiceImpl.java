@@ -1,30 +1,239 @@
 package org.example.service.Impl;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.concurrency.SingleFlight;
+import org.example.converter.TaskMapper;
+import org.example.dictionary.TaskDictionary;
 import org.example.dto.Priority;
+import org.example.dto.StatusTransitionRequestDto;
+import org.example.dto.StatusTransitionResultDto;
 import org.example.dto.TaskRequestDto;
+import org.example.dto.TaskMultiGetDto;
 import org.example.dto.TaskResponseDto;
+import org.example.entity.ArchivedTaskEntity;
 import org.example.entity.TaskEntity;
+import org.example.messaging.TaskEventPublisher;
 import org.example.model.NotificationEvent;
+import org.example.model.TaskEventType;
+import org.example.model.TaskField;
+import org.example.nexttask.NextTaskIndex;
+import org.example.projection.TaskReadModel;
+import org.example.repository.ArchivedTaskRepository;
 import org.example.repository.TaskRepository;
+import org.example.service.TaskChange;
+import org.example.service.TaskChangeListener;
 import org.example.service.TaskService;
+import org.example.sharding.ShardRebalancer;
+import org.example.sharding.ShardRouter;
+import org.example.sharding.ShardSort;
+import org.example.sharding.ShardTemplate;
+import org.example.sync.TaskTombstones;
+import org.example.writebehind.TaskWriteBehindBuffer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    private static final Sort DUE_DATE_ORDER = Sort.by("dueDate", "id");
+
+    // Dictionary-coded attributes: codes are not in name order, so these sort in memory
+    private static final Set<String> CODED = Set.of("status", "category", "team");
+
+    private static final String TRANSITION_SELECT_SQL =
+            "SELECT id FROM tasks WHERE team_id = ? AND (status_id IS NULL OR status_id <> ?)%s " +
+            "AND id > ? ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String TRANSITION_SQL =
+            "UPDATE tasks SET status_id = ?, updated_at = ? WHERE id IN (%s)";
+    private static final String TRANSITION_COMPLETION_SQL =
+            "UPDATE tasks SET status_id = ?, updated_at = ?, completed_at = ? WHERE id IN (%s)";
+
     private final TaskRepository taskRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ShardTemplate shards;
+    private final ShardRouter shardRouter;
+    private final ShardRebalancer shardRebalancer;
+    private final TaskMapper taskMapper;
+    private final TaskEventPublisher taskEventPublisher;
+    private final SingleFlight<List<Object>, Object> readCoalescer;
+    private final ObjectProvider<TaskReadModel> readModelProvider;
+    private final ObjectProvider<TaskChangeListener> changeListeners;
+    private final ObjectProvider<NextTaskIndex> nextTaskIndex;
+    private final Set<String> completedStatuses;
+    private final TaskWriteBehindBuffer writeBehind;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskDictionary dictionary;
+    private final TaskTombstones tombstones;
+    private final int transitionChunkSize;
+    private final long maxDueRangeDays;
+    private final int maxMultiGetIds;
+    private final int multiGetChunkSize;
 
     @Autowired
-    public TaskServiceImpl(TaskRepository taskRepository, KafkaTemplate<String, Object> kafkaTemplate) {
+    public TaskServiceImpl(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+                           ShardTemplate shards, ShardRebalancer shardRebalancer, TaskMapper taskMapper, TaskEventPublisher taskEventPublisher,
+                           ObjectProvider<TaskReadModel> readModelProvider,
+                           ObjectProvider<TaskChangeListener> changeListeners, ObjectProvider<NextTaskIndex> nextTaskIndex,
+                           ObjectProvider<TaskWriteBehindBuffer> writeBehindProvider, MeterRegistry meterRegistry,
+                           JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, TaskDictionary dictionary,
+                           TaskTombstones tombstones,
+                           @Value("${task-service.single-flight.max-wait:2s}") Duration singleFlightMaxWait,
+                           @Value("${task-service.single-flight.reuse-window:0ms}") Duration singleFlightReuseWindow,
+                           @Value("${task-service.completed-statuses:DONE,COMPLETED}") Set<String> completedStatuses,
+                           @Value("${task-service.bulk.chunk-size:500}") int transitionChunkSize,
+                           @Value("${task-service.calendar.max-range-days:366}") long maxDueRangeDays,
+                           @Value("${task-service.multi-get.max-ids:500}") int maxMultiGetIds,
+                           @Value("${task-service.multi-get.chunk-size:100}") int multiGetChunkSize) {
         this.taskRepository = taskRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.shards = shards;
+        this.shardRouter = shards.getRouter();
+        this.shardRebalancer = shardRebalancer;
+        this.taskMapper = taskMapper;
+        this.taskEventPublisher = taskEventPublisher;
+        this.readModelProvider = readModelProvider;
+        this.changeListeners = changeListeners;
+        this.nextTaskIndex = nextTaskIndex;
+        this.completedStatuses = completedStatuses;
+        this.readCoalescer = new SingleFlight<>("task-reads", singleFlightMaxWait, singleFlightReuseWindow, meterRegistry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dictionary = dictionary;
+        this.tombstones = tombstones;
+        this.transitionChunkSize = transitionChunkSize;
+        this.maxDueRangeDays = maxDueRangeDays;
+        this.maxMultiGetIds = maxMultiGetIds;
+        this.multiGetChunkSize = Math.max(1, multiGetChunkSize);
+        this.writeBehind = writeBehindProvider.getIfAvailable();
+        if (writeBehind != null) {
+            writeBehind.onFlushed(this::publishFlushed);
+        }
+    }
+
+    private static List<Object> queryKey(String method, Object... args) {
+        List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(method);
+        Collections.addAll(key, args);
+        return key;
+    }
+
+    // The local projection, when enabled and caught up, answers the user/team/status views
+    private TaskReadModel readModel() {
+        TaskReadModel readModel = readModelProvider.getIfAvailable();
+        return readModel != null && readModel.isServing() ? readModel : null;
+    }
+
+    // Identical concurrent reads share one query and one convertToDto pass
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(List<Object> key, Supplier<T> query) {
+        return (T) readCoalescer.execute(key, query::get);
+    }
+
+    // Database reads see this instance's buffered status/priority changes without waiting for a flush
+    private List<TaskResponseDto> withPending(List<TaskResponseDto> tasks, Predicate<TaskResponseDto> filter) {
+        return withPending(tasks, filter, null);
+    }
+
+    private List<TaskResponseDto> withPending(List<TaskResponseDto> tasks, Predicate<TaskResponseDto> filter, Sort sort) {
+        return writeBehind != null ? writeBehind.overlay(tasks, filter, sort != null ? ShardSort.comparator(sort) : null) : tasks;
+    }
+
+    private Long withPending(Long count, Predicate<TaskResponseDto> filter) {
+        return writeBehind != null ? writeBehind.overlay(count, filter) : count;
+    }
+
+    // Writes that bypass the buffer apply on top of its changes
+    private void flushWriteBehind() {
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+    }
+
+    private TaskResponseDto pendingTask(Long id) {
+        return writeBehind != null ? writeBehind.pendingTask(id) : null;
+    }
+
+    // Runs the query on each of the shards and converts the concatenated rows
+    private List<TaskResponseDto> query(List<String> targets, Supplier<List<TaskEntity>> query) {
+        return shards.concat(targets, query).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // As query, for a query sorted by sort; the per-shard results are merged in that order
+    private List<TaskResponseDto> querySorted(List<String> targets, Sort sort, Supplier<List<TaskEntity>> query) {
+        return shards.mergeSorted(targets, query, ShardSort.comparator(sort), 0).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // For orders the database cannot produce: one shard's rows, sorted here before the merge
+    private static Supplier<List<TaskEntity>> sortedInMemory(Sort sort, Supplier<List<TaskEntity>> query) {
+        Comparator<TaskEntity> order = ShardSort.comparator(sort);
+        return () -> {
+            List<TaskEntity> rows = new ArrayList<>(query.get());
+            rows.sort(order);
+            return rows;
+        };
+    }
+
+    private List<String> allShards() {
+        return shardRouter.shards();
+    }
+
+    private ShardTemplate.Located<TaskEntity> findTask(Long id) {
+        return shards.findFirst(shards.shardsForId(id), () -> taskRepository.findById(id))
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+    }
+
+    // A changed team or user can move the task to another shard. The update has committed
+    // by then; a failed move is retried in the background and the task stays readable by id
+    private void relocateIfNeeded(String shard, TaskEntity task) {
+        String owner = shardRouter.shardFor(task.getTeam(), task.getUserId());
+        if (!owner.equals(shard)) {
+            shardRebalancer.relocate(task.getId(), shard);
+        }
+    }
+
+    // A task given to another user or team leaves the previous one's list; delta syncs of
+    // that list learn of it from the tombstone
+    private void recordLeftLists(TaskResponseDto previous, TaskEntity task) {
+        Long leftUser = Objects.equals(previous.getUserId(), task.getUserId()) ? null : previous.getUserId();
+        String leftTeam = Objects.equals(previous.getTeam(), task.getTeam()) ? null : previous.getTeam();
+        if (leftUser != null || leftTeam != null) {
+            tombstones.record(task.getId(), leftUser, leftTeam, LocalDateTime.now());
+        }
     }
 
     private TaskEntity convertToEntity(TaskResponseDto dto) {
@@ -39,6 +248,7 @@ public class TaskServiceImpl implements TaskService {
         task.setUserId(dto.getUserId());
         task.setCreatedAt(dto.getCreatedAt());
         task.setUpdatedAt(dto.getUpdatedAt());
+        task.setCompletedAt(dto.getCompletedAt());
         task.setDueDate(dto.getDueDate());
         task.setDuration(dto.getDuration());
         return task;
@@ -59,86 +269,310 @@ public class TaskServiceImpl implements TaskService {
     }
 
     private TaskResponseDto convertToDto(TaskEntity task) {
-        TaskResponseDto dto = new TaskResponseDto();
-        dto.setId(task.getId());
-        dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
-        dto.setStatus(task.getStatus());
-        dto.setCategory(task.getCategory());
-        dto.setTeam(task.getTeam());
-        dto.setDuration(task.getDuration());
-        dto.setDueDate(task.getDueDate());
-        dto.setUserId(task.getUserId());
-        try {
-            dto.setPriority(task.getPriority());
-        } catch (Exception e) {
-            dto.setPriority(Priority.LOW);
+        return taskMapper.toDto(task);
+    }
+
+    // Update entity from DTO, returning the fields whose value actually changed
+    private List<String> updateEntityFromDto(TaskRequestDto dto, TaskEntity task) {
+        List<String> changed = new ArrayList<>();
+        if (dto.getTitle() != null) applyChange(TaskField.TITLE, task.getTitle(), dto.getTitle(), task::setTitle, changed);
+        if (dto.getDescription() != null) applyChange(TaskField.DESCRIPTION, task.getDescription(), dto.getDescription(), task::setDescription, changed);
+        if (dto.getStatus() != null) applyChange(TaskField.STATUS, task.getStatus(), dto.getStatus(), task::setStatus, changed);
+        if (dto.getCategory() != null) applyChange(TaskField.CATEGORY, task.getCategory(), dto.getCategory(), task::setCategory, changed);
+        if (dto.getPriority() != null) applyChange(TaskField.PRIORITY, task.getPriority(), dto.getPriority(), task::setPriority, changed);
+        if (dto.getUserId() != null) applyChange(TaskField.USER_ID, task.getUserId(), dto.getUserId(), task::setUserId, changed);
+        if (dto.getTeam() != null) applyChange(TaskField.TEAM, task.getTeam(), dto.getTeam(), task::setTeam, changed);
+        if (dto.getDuration() != null) applyChange(TaskField.DURATION, task.getDuration(), dto.getDuration(), task::setDuration, changed);
+        if (dto.getDueDate() != null) applyChange(TaskField.DUE_DATE, task.getDueDate(), dto.getDueDate(), task::setDueDate, changed);
+        return changed;
+    }
+
+    // completedAt marks the latest transition into a completed status
+    private void trackCompletion(TaskEntity task, String previousStatus) {
+        boolean completed = task.getStatus() != null && completedStatuses.contains(task.getStatus());
+        boolean wasCompleted = previousStatus != null && completedStatuses.contains(previousStatus);
+        if (completed && (!wasCompleted || task.getCompletedAt() == null)) {
+            task.setCompletedAt(LocalDateTime.now());
+        } else if (!completed) {
+            task.setCompletedAt(null);
         }
-        dto.setCreatedAt(task.getCreatedAt());
-        dto.setUpdatedAt(task.getUpdatedAt());
-        return dto;
     }
 
-    // Update entity from DTO
-    private void updateEntityFromDto(TaskRequestDto dto, TaskEntity task) {
-        if (dto.getTitle() != null) task.setTitle(dto.getTitle());
-        if (dto.getDescription() != null) task.setDescription(dto.getDescription());
-        if (dto.getStatus() != null) task.setStatus(dto.getStatus());
-        if (dto.getCategory() != null) task.setCategory(dto.getCategory());
-        if (dto.getPriority() != null) task.setPriority(dto.getPriority());
-        if (dto.getUserId() != null) task.setUserId(dto.getUserId());
-        if (dto.getTeam() != null) task.setTeam(dto.getTeam());
-        if (dto.getDuration() != null) task.setDuration(dto.getDuration());
-        if (dto.getDueDate() != null) task.setDueDate(dto.getDueDate());
+    private <T> void applyChange(TaskField field, T current, T updated, Consumer<T> setter, Collection<String> changed) {
+        if (!Objects.equals(current, updated)) {
+            setter.accept(updated);
+            changed.add(field.name());
+        }
     }
 
     @Override
     public TaskResponseDto createTask(TaskRequestDto taskDto) {
         TaskEntity task = convertToEntity(taskDto);
-        TaskEntity savedTask = taskRepository.save(task);
+        trackCompletion(task, null);
+        String shard = shardRouter.shardFor(task.getTeam(), task.getUserId());
+        TaskEntity savedTask = shards.execute(shard, () -> taskRepository.save(task));
+        readCoalescer.invalidateAll();
+        TaskResponseDto created = convertToDto(savedTask);
+        applyToReadModel(created);
         sendTaskNotification("TASK_CREATED", savedTask);
-        return convertToDto(savedTask);
+        notifyChangeListeners(new TaskChange(TaskEventType.TASK_CREATED, null, created));
+        return created;
+    }
+
+    @Override
+    public List<TaskResponseDto> createTasks(List<TaskRequestDto> taskDtos) {
+        Map<String, List<TaskEntity>> byShard = new LinkedHashMap<>();
+        for (TaskRequestDto taskDto : taskDtos) {
+            TaskEntity task = convertToEntity(taskDto);
+            trackCompletion(task, null);
+            byShard.computeIfAbsent(shardRouter.shardFor(task.getTeam(), task.getUserId()), shard -> new ArrayList<>()).add(task);
+        }
+        List<TaskEntity> savedTasks = new ArrayList<>(taskDtos.size());
+        byShard.forEach((shard, tasks) -> savedTasks.addAll(
+                shards.execute(shard, () -> transactionTemplate.execute(tx -> taskRepository.saveAll(tasks)))));
+        readCoalescer.invalidateAll();
+
+        List<TaskResponseDto> created = new ArrayList<>(savedTasks.size());
+        List<NotificationEvent> events = new ArrayList<>(savedTasks.size());
+        for (TaskEntity savedTask : savedTasks) {
+            TaskResponseDto dto = convertToDto(savedTask);
+            applyToReadModel(dto);
+            notifyChangeListeners(new TaskChange(TaskEventType.TASK_CREATED, null, dto));
+            events.add(taskNotification("TASK_CREATED", savedTask, null));
+            created.add(dto);
+        }
+        try {
+            taskEventPublisher.publishAll(events);
+        } catch (Exception e) {
+            log.warn("Failed to send {} task notifications", events.size(), e);
+        }
+        return created;
     }
 
     @Override
     public TaskResponseDto getTaskById(Long id) {
-        TaskEntity task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
-        return convertToDto(task);
+        TaskResponseDto pending = pendingTask(id);
+        if (pending != null) {
+            return pending;
+        }
+        return coalesce(queryKey("getTaskById", id), () -> convertToDto(findTask(id).value()));
     }
 
     @Override
     public List<TaskResponseDto> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return withPending(coalesce(queryKey("getAllTasks"), () -> query(allShards(), taskRepository::findAll)), task -> true);
     }
 
     @Override
     public TaskResponseDto updateTask(Long id, TaskRequestDto taskDto) {
-        TaskEntity task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        if (writeBehind != null && TaskWriteBehindBuffer.accepts(taskDto)) {
+            return bufferUpdate(id, taskDto);
+        }
+        // Written over the buffered state, which must reach the row first
+        flushWriteBehind();
+        ShardTemplate.Located<TaskEntity> found = findTask(id);
+        TaskEntity task = found.value();
+
+        // A shard the flush could not write to keeps its tasks buffered; this write carries them
+        TaskResponseDto buffered = pendingTask(id);
+        Set<String> changed = new LinkedHashSet<>();
+        if (buffered != null) {
+            applyChange(TaskField.STATUS, task.getStatus(), buffered.getStatus(), task::setStatus, changed);
+            applyChange(TaskField.PRIORITY, task.getPriority(), buffered.getPriority(), task::setPriority, changed);
+            task.setCompletedAt(buffered.getCompletedAt());
+        }
+        TaskResponseDto previous = convertToDto(task);
+        changed.addAll(updateEntityFromDto(taskDto, task));
+        List<String> changedFields = new ArrayList<>(changed);
+        trackCompletion(task, previous.getStatus());
+        TaskEntity updatedTask = shards.execute(found.shard(), () -> transactionTemplate.execute(tx -> {
+            TaskEntity saved = taskRepository.save(task);
+            recordLeftLists(previous, saved);
+            return saved;
+        }));
+        if (buffered != null) {
+            writeBehind.discard(id, buffered);
+        }
+        relocateIfNeeded(found.shard(), updatedTask);
+        readCoalescer.invalidateAll();
+        TaskResponseDto updated = convertToDto(updatedTask);
+        applyToReadModel(updated);
+        sendTaskNotification("TASK_UPDATED", updatedTask, changedFields);
+        notifyChangeListeners(new TaskChange(TaskEventType.TASK_UPDATED, previous, updated));
+
+        return updated;
+    }
 
-        updateEntityFromDto(taskDto, task);
-        TaskEntity updatedTask = taskRepository.save(task);
-        sendTaskNotification("TASK_UPDATED", updatedTask);
+    // A status/priority-only update: buffered, visible at once, written by the next flush
+    private TaskResponseDto bufferUpdate(Long id, TaskRequestDto taskDto) {
+        TaskWriteBehindBuffer.Change change = writeBehind.update(id, () -> {
+            ShardTemplate.Located<TaskEntity> found = findTask(id);
+            return new TaskWriteBehindBuffer.Loaded(found.shard(), convertToDto(found.value()));
+        }, previous -> {
+            TaskEntity task = convertToEntity(previous);
+            List<String> changedFields = updateEntityFromDto(taskDto, task);
+            if (changedFields.isEmpty()) {
+                return new TaskWriteBehindBuffer.Change(previous, previous, changedFields);
+            }
+            trackCompletion(task, previous.getStatus());
+            task.setUpdatedAt(LocalDateTime.now());
+            return new TaskWriteBehindBuffer.Change(previous, convertToDto(task), changedFields);
+        });
+        if (change.changedFields().isEmpty()) {
+            return change.current();
+        }
+        readCoalescer.invalidateAll();
+        applyToReadModel(change.current());
+        // The event is published once the flush has written the row
+        notifyChangeListeners(new TaskChange(TaskEventType.TASK_UPDATED, change.previous(), change.current()));
+        return change.current();
+    }
 
-        return convertToDto(updatedTask);
+    // One event per flushed task, carrying every field changed since the previous flush
+    private void publishFlushed(List<TaskWriteBehindBuffer.Flushed> flushed) {
+        for (TaskWriteBehindBuffer.Flushed task : flushed) {
+            sendTaskNotification("TASK_UPDATED", convertToEntity(task.task()), task.changedFields());
+        }
+    }
+
+    @Override
+    public StatusTransitionResultDto transitionStatus(String team, StatusTransitionRequestDto request) {
+        String target = request.getStatus();
+        if (target == null || target.isBlank()) {
+            throw new IllegalArgumentException("A target status is required");
+        }
+        flushWriteBehind();
+        Integer statusCode = dictionary.register(TaskDictionary.Kind.STATUS, target);
+        long updated = 0;
+        int chunks = 0;
+        for (String shard : shardRouter.shardsForTeam(team)) {
+            long afterId = 0;
+            List<TaskChange> chunk;
+            do {
+                long lastId = afterId;
+                chunk = shards.execute(shard, () -> transitionChunk(team, request, statusCode, lastId));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).current().getId();
+                updated += chunk.size();
+                chunks++;
+                readCoalescer.invalidateAll();
+                for (TaskChange change : chunk) {
+                    applyToReadModel(change.current());
+                    notifyChangeListeners(change);
+                }
+                sendBulkNotification(team, target, chunk);
+            } while (chunk.size() == transitionChunkSize);
+        }
+        return new StatusTransitionResultDto(team, target, updated, chunks);
+    }
+
+    // One transaction: lock the next matching rows, read their state, and move them in at most two UPDATEs
+    private List<TaskChange> transitionChunk(String team, StatusTransitionRequestDto request, Integer statusCode, long afterId) {
+        return transactionTemplate.execute(tx -> {
+            String target = request.getStatus();
+            StringBuilder filters = new StringBuilder();
+            List<Object> args = new ArrayList<>();
+            args.add(dictionary.code(TaskDictionary.Kind.TEAM, team));
+            args.add(statusCode);
+            if (request.getFromStatus() != null) {
+                filters.append(" AND status_id = ?");
+                args.add(dictionary.code(TaskDictionary.Kind.STATUS, request.getFromStatus()));
+            }
+            if (request.getCategory() != null) {
+                filters.append(" AND category_id = ?");
+                args.add(dictionary.code(TaskDictionary.Kind.CATEGORY, request.getCategory()));
+            }
+            if (request.getPriority() != null) {
+                filters.append(" AND priority_code = ?");
+                args.add(request.getPriority().getCode());
+            }
+            if (request.getUserId() != null) {
+                filters.append(" AND user_id = ?");
+                args.add(request.getUserId());
+            }
+            if (request.getDueBefore() != null) {
+                filters.append(" AND due_date < ?");
+                args.add(Timestamp.valueOf(request.getDueBefore()));
+            }
+            args.add(afterId);
+            args.add(transitionChunkSize);
+            List<Long> ids = jdbcTemplate.queryForList(String.format(TRANSITION_SELECT_SQL, filters), Long.class, args.toArray());
+            if (ids.isEmpty()) {
+                return List.<TaskChange>of();
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            boolean completing = completedStatuses.contains(target);
+            List<TaskEntity> tasks = new ArrayList<>(taskRepository.findAllById(ids));
+            tasks.sort(Comparator.comparing(TaskEntity::getId));
+            List<TaskChange> changes = new ArrayList<>(tasks.size());
+            List<Long> keepCompletion = new ArrayList<>();
+            List<Long> setCompletion = new ArrayList<>();
+            for (TaskEntity task : tasks) {
+                TaskResponseDto previous = convertToDto(task);
+                TaskResponseDto current = convertToDto(task);
+                current.setStatus(target);
+                current.setUpdatedAt(now);
+                // As trackCompletion: a completion already recorded survives a move between completed statuses
+                boolean wasCompleted = previous.getStatus() != null && completedStatuses.contains(previous.getStatus());
+                if (completing ? wasCompleted && previous.getCompletedAt() != null : previous.getCompletedAt() == null) {
+                    keepCompletion.add(task.getId());
+                } else {
+                    current.setCompletedAt(completing ? now : null);
+                    setCompletion.add(task.getId());
+                }
+                changes.add(new TaskChange(TaskEventType.TASK_UPDATED, previous, current));
+            }
+            Timestamp updatedAt = Timestamp.valueOf(now);
+            if (!keepCompletion.isEmpty()) {
+                List<Object> updateArgs = new ArrayList<>(List.of(statusCode, updatedAt));
+                updateArgs.addAll(keepCompletion);
+                jdbcTemplate.update(String.format(TRANSITION_SQL, placeholders(keepCompletion.size())), updateArgs.toArray());
+            }
+            if (!setCompletion.isEmpty()) {
+                List<Object> updateArgs = new ArrayList<>(List.of(statusCode, updatedAt));
+                updateArgs.add(completing ? updatedAt : null);
+                updateArgs.addAll(setCompletion);
+                jdbcTemplate.update(String.format(TRANSITION_COMPLETION_SQL, placeholders(setCompletion.size())), updateArgs.toArray());
+            }
+            return changes;
+        });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
     @Override
     public void deleteTask(Long id) {
-        TaskEntity task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        flushWriteBehind();
+        ShardTemplate.Located<TaskEntity> found = findTask(id);
+        TaskEntity task = found.value();
+        shards.run(found.shard(), () -> transactionTemplate.executeWithoutResult(tx -> {
+            taskRepository.delete(task);
+            tombstones.record(id, task.getUserId(), task.getTeam(), LocalDateTime.now());
+        }));
+        readCoalescer.invalidateAll();
+        // Only once the row is gone: the coalescer drops the task's pending created/updated event
         sendTaskNotification("TASK_DELETED", task);
-        taskRepository.delete(task);
+        TaskReadModel readModel = readModelProvider.getIfAvailable();
+        if (readModel != null) {
+            readModel.remove(id, LocalDateTime.now());
+        }
+        notifyChangeListeners(new TaskChange(TaskEventType.TASK_DELETED, convertToDto(task), null));
     }
 
     @Override
     public List<TaskResponseDto> getTasksByUserId(Long userId) {
-        return taskRepository.findByUserId(userId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.findByUserId(userId);
+        }
+        return withPending(coalesce(queryKey("getTasksByUserId", userId),
+                () -> query(shardRouter.shardsForUser(userId), () -> taskRepository.findByUserId(userId))),
+                task -> userId.equals(task.getUserId()));
     }
 
     @Override
@@ -147,116 +581,263 @@ public class TaskServiceImpl implements TaskService {
             category = category.substring(1, category.length() - 1);
         }
 
-        List<TaskEntity> tasks = taskRepository.findByCategory(category);
-        return tasks.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        String normalizedCategory = category;
+        return withPending(coalesce(queryKey("getTasksByCategory", normalizedCategory),
+                () -> query(allShards(), () -> taskRepository.findByCategory(normalizedCategory))),
+                task -> normalizedCategory.equals(task.getCategory()));
     }
 
     @Override
     public List<TaskResponseDto> getTasksByStatus(String status) {
-        return taskRepository.findByStatus(status).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return withPending(coalesce(queryKey("getTasksByStatus", status),
+                () -> query(allShards(), () -> taskRepository.findByStatus(status))),
+                task -> status.equals(task.getStatus()));
     }
 
     @Override
     public List<TaskResponseDto> getTasksByUserIdAndCategory(Long userId, String category) {
-        return taskRepository.findByUserIdAndCategory(userId, category).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return withPending(coalesce(queryKey("getTasksByUserIdAndCategory", userId, category),
+                () -> query(shardRouter.shardsForUser(userId), () -> taskRepository.findByUserIdAndCategory(userId, category))),
+                task -> userId.equals(task.getUserId()) && category.equals(task.getCategory()));
     }
 
     @Override
     public List<TaskResponseDto> getTasksByTeamAndStatus(String team, String status) {
-        System.out.println("Service called with - Team: '" + team + "', Status: '" + status + "'");
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.findByTeamAndStatus(team, status);
+        }
+        return withPending(coalesce(queryKey("getTasksByTeamAndStatus", team, status),
+                () -> query(shardRouter.shardsForTeam(team), () -> taskRepository.findByTeamAndStatus(team, status))),
+                task -> team.equals(task.getTeam()) && status.equals(task.getStatus()));
+    }
 
-        // First, let's see all tasks to debug
-        List<TaskEntity> allTasks = taskRepository.findAll();
-        System.out.println("Total tasks in database: " + allTasks.size());
+    @Override
+    public TaskResponseDto getTaskById(Long id, boolean includeArchived) {
+        if (!includeArchived) {
+            return getTaskById(id);
+        }
+        TaskResponseDto pending = pendingTask(id);
+        if (pending != null) {
+            return pending;
+        }
+        List<String> candidates = shards.shardsForId(id);
+        return shards.findFirst(candidates, () -> taskRepository.findById(id)).map(found -> convertToDto(found.value()))
+                .or(() -> shards.findFirst(candidates, () -> archivedTaskRepository.findById(id))
+                        .map(found -> taskMapper.toDto(found.value())))
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+    }
 
-        // Print some sample data for debugging
-        allTasks.stream().limit(3).forEach(task ->
-                System.out.println("Sample task - Team: '" + task.getTeam() + "', Status: '" + task.getStatus() + "'")
-        );
+    @Override
+    public List<TaskResponseDto> getTasksByUserId(Long userId, boolean includeArchived) {
+        List<TaskResponseDto> tasks = getTasksByUserId(userId);
+        return includeArchived ? withArchived(tasks, shardRouter.shardsForUser(userId), () -> archivedTaskRepository.findByUserId(userId)) : tasks;
+    }
 
-        // Try the original query
-        List<TaskEntity> filteredTasks = taskRepository.findByTeamAndStatus(team, status);
-        System.out.println("Filtered tasks found: " + filteredTasks.size());
+    @Override
+    public List<TaskResponseDto> getTasksByCategory(String category, boolean includeArchived) {
+        List<TaskResponseDto> tasks = getTasksByCategory(category);
+        if (!includeArchived) {
+            return tasks;
+        }
+        String normalizedCategory = category.startsWith("{") && category.endsWith("}")
+                ? category.substring(1, category.length() - 1) : category;
+        return withArchived(tasks, allShards(), () -> archivedTaskRepository.findByCategory(normalizedCategory));
+    }
 
-        return filteredTasks.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Override
+    public List<TaskResponseDto> getTasksByStatus(String status, boolean includeArchived) {
+        List<TaskResponseDto> tasks = getTasksByStatus(status);
+        return includeArchived ? withArchived(tasks, allShards(), () -> archivedTaskRepository.findByStatus(status)) : tasks;
+    }
+
+    @Override
+    public List<TaskResponseDto> getTasksByTeamAndStatus(String team, String status, boolean includeArchived) {
+        List<TaskResponseDto> tasks = getTasksByTeamAndStatus(team, status);
+        return includeArchived
+                ? withArchived(tasks, shardRouter.shardsForTeam(team),
+                        () -> archivedTaskRepository.findByTeamAndStatus(team, status))
+                : tasks;
+    }
+
+    @Override
+    public TaskMultiGetDto getTasksByIds(List<Long> ids, boolean includeArchived) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (ids.size() > maxMultiGetIds) {
+            throw new IllegalArgumentException("At most " + maxMultiGetIds + " ids can be requested at once");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+
+        // Buffered changes first, then the local projection, then the database
+        Map<Long, TaskResponseDto> found = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            TaskResponseDto pending = pendingTask(id);
+            if (pending != null) {
+                found.put(id, pending);
+            } else {
+                missing.add(id);
+            }
+        }
+        TaskReadModel readModel = readModel();
+        if (readModel != null && !missing.isEmpty()) {
+            Map<Long, TaskResponseDto> projected = readModel.findByIds(missing);
+            found.putAll(projected);
+            missing.removeAll(projected.keySet());
+        }
+        findByIds(missing, found, taskRepository::findAllById, TaskEntity::getId, this::convertToDto);
+        if (includeArchived) {
+            findByIds(missing, found, archivedTaskRepository::findAllById, ArchivedTaskEntity::getId, taskMapper::toDto);
+        }
+
+        List<TaskMultiGetDto.Result> results = new ArrayList<>(ids.size());
+        int foundCount = 0;
+        for (Long id : ids) {
+            TaskResponseDto task = found.get(id);
+            results.add(new TaskMultiGetDto.Result(id, task != null, task));
+            foundCount += task != null ? 1 : 0;
+        }
+        return new TaskMultiGetDto(results, foundCount);
+    }
+
+    // Looks the missing ids up with IN queries of at most multiGetChunkSize ids, first on the
+    // shard each id was created on, then on the other shards for ids a rebalance has moved;
+    // found ids are moved from missing to found
+    private <E> void findByIds(Set<Long> missing, Map<Long, TaskResponseDto> found,
+                               Function<List<Long>, List<E>> query, Function<E, Long> idOf,
+                               Function<E, TaskResponseDto> toDto) {
+        List<String> allShards = allShards();
+        for (int pass = 0; pass < 2 && !missing.isEmpty(); pass++) {
+            Map<String, List<Long>> byShard = new LinkedHashMap<>();
+            for (Long id : missing) {
+                List<String> candidates = shards.shardsForId(id);
+                List<String> targets = pass == 0 ? candidates.subList(0, 1)
+                        : allShards.stream().filter(shard -> !shard.equals(candidates.get(0))).toList();
+                targets.forEach(shard -> byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(id));
+            }
+            if (byShard.isEmpty()) {
+                return;
+            }
+            List<String> targets = new ArrayList<>(byShard.keySet());
+            List<List<E>> parts = shards.scatter(targets, shard -> {
+                List<Long> shardIds = byShard.get(shard);
+                List<E> rows = new ArrayList<>(shardIds.size());
+                for (int from = 0; from < shardIds.size(); from += multiGetChunkSize) {
+                    rows.addAll(query.apply(shardIds.subList(from, Math.min(from + multiGetChunkSize, shardIds.size()))));
+                }
+                return rows;
+            });
+            for (List<E> part : parts) {
+                for (E row : part) {
+                    Long id = idOf.apply(row);
+                    if (missing.remove(id)) {
+                        found.put(id, toDto.apply(row));
+                    }
+                }
+            }
+        }
+    }
+
+    // Hot results first, then archived ones; an id caught mid-move appears only once
+    private List<TaskResponseDto> withArchived(List<TaskResponseDto> hot, List<String> targets,
+                                               Supplier<List<ArchivedTaskEntity>> archived) {
+        List<ArchivedTaskEntity> archivedTasks = shards.concat(targets, archived);
+        if (archivedTasks.isEmpty()) {
+            return hot;
+        }
+        Set<Long> hotIds = hot.stream().map(TaskResponseDto::getId).collect(Collectors.toSet());
+        List<TaskResponseDto> merged = new ArrayList<>(hot.size() + archivedTasks.size());
+        merged.addAll(hot);
+        for (ArchivedTaskEntity task : archivedTasks) {
+            if (!hotIds.contains(task.getId())) {
+                merged.add(taskMapper.toDto(task));
+            }
+        }
+        return merged;
     }
 
     @Override
     public List<TaskResponseDto> getAllTasksSortedByCreatedDateDesc() {
-        return taskRepository.findAllByOrderByCreatedAtDesc().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+        return withPending(coalesce(queryKey("getAllTasksSortedByCreatedDateDesc"),
+                () -> querySorted(allShards(), sort, () -> taskRepository.findAllByOrderByCreatedAtDesc())),
+                task -> true, sort);
     }
 
     @Override
     public List<TaskResponseDto> getAllTasksSortedByCreatedDateAsc() {
-        return taskRepository.findAllByOrderByCreatedAtAsc().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by("createdAt");
+        return withPending(coalesce(queryKey("getAllTasksSortedByCreatedDateAsc"),
+                () -> querySorted(allShards(), sort, () -> taskRepository.findAllByOrderByCreatedAtAsc())),
+                task -> true, sort);
     }
 
     @Override
     public List<TaskResponseDto> getAllTasksSortedByPriorityDesc() {
-        return taskRepository.findAllByOrderByPriorityDesc().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by(Sort.Direction.DESC, "priority");
+        return withPending(coalesce(queryKey("getAllTasksSortedByPriorityDesc"),
+                () -> querySorted(allShards(), sort, () -> taskRepository.findAllByOrderByPriorityDesc())),
+                task -> true, sort);
     }
 
     @Override
     public List<TaskResponseDto> getAllTasksSortedByPriorityAsc() {
-        return taskRepository.findAllByOrderByPriorityAsc().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by("priority");
+        return withPending(coalesce(queryKey("getAllTasksSortedByPriorityAsc"),
+                () -> querySorted(allShards(), sort, () -> taskRepository.findAllByOrderByPriorityAsc())),
+                task -> true, sort);
     }
 
     @Override
     public List<TaskResponseDto> getAllTasksSortedByTitleAsc() {
-        return taskRepository.findAllByOrderByTitleAsc().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by("title");
+        return withPending(coalesce(queryKey("getAllTasksSortedByTitleAsc"),
+                () -> querySorted(allShards(), sort, () -> taskRepository.findAllByOrderByTitleAsc())),
+                task -> true, sort);
     }
 
     @Override
     public List<TaskResponseDto> getAllTasksSortedByStatusAsc() {
-        return taskRepository.findAllByOrderByStatusAsc().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by("status");
+        return withPending(coalesce(queryKey("getAllTasksSortedByStatusAsc"),
+                () -> querySorted(allShards(), sort, sortedInMemory(sort, taskRepository::findAll))),
+                task -> true, sort);
     }
 
     @Override
     public List<TaskResponseDto> getTasksByUserIdSortedByPriority(Long userId) {
-        return taskRepository.findByUserIdOrderByPriorityDesc(userId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by(Sort.Direction.DESC, "priority");
+        return withPending(coalesce(queryKey("getTasksByUserIdSortedByPriority", userId),
+                () -> querySorted(shardRouter.shardsForUser(userId), sort, () -> taskRepository.findByUserIdOrderByPriorityDesc(userId))),
+                task -> userId.equals(task.getUserId()), sort);
     }
 
     @Override
     public List<TaskResponseDto> getTasksByUserIdSortedByCreatedDate(Long userId) {
-        return taskRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+        return withPending(coalesce(queryKey("getTasksByUserIdSortedByCreatedDate", userId),
+                () -> querySorted(shardRouter.shardsForUser(userId), sort, () -> taskRepository.findByUserIdOrderByCreatedAtDesc(userId))),
+                task -> userId.equals(task.getUserId()), sort);
     }
 
     @Override
     public List<TaskResponseDto> getTasksByCategorySortedByPriority(String category) {
-        return taskRepository.findByCategoryOrderByPriorityDesc(category).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by(Sort.Direction.DESC, "priority");
+        return withPending(coalesce(queryKey("getTasksByCategorySortedByPriority", category),
+                () -> querySorted(allShards(), sort, () -> taskRepository.findByCategoryOrderByPriorityDesc(category))),
+                task -> category.equals(task.getCategory()), sort);
     }
 
     @Override
     public List<TaskResponseDto> getTasksByStatusSortedByCreatedDate(String status) {
-        return taskRepository.findByStatusOrderByCreatedAtAsc(status).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Sort sort = Sort.by("createdAt");
+        return withPending(coalesce(queryKey("getTasksByStatusSortedByCreatedDate", status),
+                () -> querySorted(allShards(), sort, () -> taskRepository.findByStatusOrderByCreatedAtAsc(status))),
+                task -> status.equals(task.getStatus()), sort);
     }
 
     @Override
@@ -264,73 +845,196 @@ public class TaskServiceImpl implements TaskService {
         Sort.Direction sortDirection = direction.equalsIgnoreCase("asc") ?
                 Sort.Direction.ASC : Sort.Direction.DESC;
         Sort sort = Sort.by(sortDirection, sortBy);
+        Supplier<List<TaskEntity>> query = CODED.contains(sortBy)
+                ? sortedInMemory(sort, taskRepository::findAll)
+                : () -> taskRepository.findAll(sort);
 
-        return taskRepository.findAll(sort).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return withPending(coalesce(queryKey("getAllTasksSorted", sortBy, sortDirection),
+                () -> querySorted(allShards(), sort, query)), task -> true, sort);
     }
 
     @Override
     public Long getTaskCountByStatus(String status) {
-        return taskRepository.countByStatus(status);
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.countByStatus(status);
+        }
+        return withPending(coalesce(queryKey("getTaskCountByStatus", status),
+                () -> shards.sum(allShards(), () -> taskRepository.countByStatus(status))),
+                task -> status.equals(task.getStatus()));
     }
 
 
     @Override
     public Long getTaskCountByTeam(String team) {
-
-        return taskRepository.countByTeam(team);
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.countByTeam(team);
+        }
+        return withPending(coalesce(queryKey("getTaskCountByTeam", team),
+                () -> shards.sum(shardRouter.shardsForTeam(team), () -> taskRepository.countByTeam(team))),
+                task -> team.equals(task.getTeam()));
     }
 
 
 
     @Override
     public Long getTotalTaskCount() {
-        return taskRepository.count();
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.count();
+        }
+        return withPending(coalesce(queryKey("getTotalTaskCount"),
+                () -> shards.sum(allShards(), taskRepository::count)), task -> true);
     }
 
 
     @Override
     public Long getTaskCountByTeamAndStatus(String team, String status) {
-        return taskRepository.countByTeamAndStatus(team, status);
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.countByTeamAndStatus(team, status);
+        }
+        return withPending(coalesce(queryKey("getTaskCountByTeamAndStatus", team, status),
+                () -> shards.sum(shardRouter.shardsForTeam(team), () -> taskRepository.countByTeamAndStatus(team, status))),
+                task -> team.equals(task.getTeam()) && status.equals(task.getStatus()));
     }
 
 
     @Override
     public Long getTaskCountByTeamAndPriority(String team, Priority priority) {
-        return taskRepository.countByTeamAndPriority(team, priority);
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.countByTeamAndPriority(team, priority);
+        }
+        return withPending(coalesce(queryKey("getTaskCountByTeamAndPriority", team, priority),
+                () -> shards.sum(shardRouter.shardsForTeam(team), () -> taskRepository.countByTeamAndPriority(team, priority))),
+                task -> team.equals(task.getTeam()) && priority == task.getPriority());
     }
 
     @Override
     public List<TaskResponseDto> getTasksByTeamAndPriority(String team, Priority priority) {
-        return taskRepository.findByTeamAndPriority(team, priority).stream()
-                .map(this::convertToDto)
+        TaskReadModel readModel = readModel();
+        if (readModel != null) {
+            return readModel.findByTeamAndPriority(team, priority);
+        }
+        return withPending(coalesce(queryKey("getTasksByTeamAndPriority", team, priority),
+                () -> query(shardRouter.shardsForTeam(team), () -> taskRepository.findByTeamAndPriority(team, priority))),
+                task -> team.equals(task.getTeam()) && priority == task.getPriority());
+    }
+
+    @Override
+    public List<TaskResponseDto> getTasksByUserIdDueBetween(Long userId, LocalDate from, LocalDate to) {
+        checkDueRange(from, to);
+        return withPending(coalesce(queryKey("getTasksByUserIdDueBetween", userId, from, to),
+                () -> querySorted(shardRouter.shardsForUser(userId), DUE_DATE_ORDER,
+                        () -> taskRepository.findByUserIdDueBetween(userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()))),
+                task -> userId.equals(task.getUserId()) && dueBetween(task, from, to), DUE_DATE_ORDER);
+    }
+
+    @Override
+    public List<TaskResponseDto> getTasksByTeamDueBetween(String team, LocalDate from, LocalDate to) {
+        checkDueRange(from, to);
+        return withPending(coalesce(queryKey("getTasksByTeamDueBetween", team, from, to),
+                () -> querySorted(shardRouter.shardsForTeam(team), DUE_DATE_ORDER,
+                        () -> taskRepository.findByTeamDueBetween(team, from.atStartOfDay(), to.plusDays(1).atStartOfDay()))),
+                task -> team.equals(task.getTeam()) && dueBetween(task, from, to), DUE_DATE_ORDER);
+    }
+
+    private static boolean dueBetween(TaskResponseDto task, LocalDate from, LocalDate to) {
+        return task.getDueDate() != null && !task.getDueDate().isBefore(from.atStartOfDay())
+                && task.getDueDate().isBefore(to.plusDays(1).atStartOfDay());
+    }
+
+    private void checkDueRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A date range with from <= to is required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDueRangeDays) {
+            throw new IllegalArgumentException("Date range may span at most " + maxDueRangeDays + " days");
+        }
+    }
+
+    @Override
+    public List<TaskResponseDto> getNextTasks(Long userId, int limit) {
+        NextTaskIndex index = nextTaskIndex.getIfAvailable();
+        if (index != null) {
+            return index.next(userId, limit);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return getTasksByUserId(userId).stream()
+                .filter(task -> task.getStatus() == null || !completedStatuses.contains(task.getStatus()))
+                .sorted(NextTaskIndex.ORDER)
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 
+    // Make this instance's own writes visible without waiting for the event round trip
+    private void applyToReadModel(TaskResponseDto task) {
+        TaskReadModel readModel = readModelProvider.getIfAvailable();
+        if (readModel != null) {
+            readModel.upsert(task);
+        }
+    }
+
+    private void notifyChangeListeners(TaskChange change) {
+        changeListeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onTaskChanged(change);
+            } catch (Exception e) {
+                log.warn("Task change listener {} failed for task {}", listener.getClass().getSimpleName(), change.taskId(), e);
+            }
+        });
+    }
+
     private void sendTaskNotification(String eventType, TaskEntity task) {
+        sendTaskNotification(eventType, task, null);
+    }
+
+    // One event for a chunk of a bulk transition, listing its tasks instead of one event each
+    private void sendBulkNotification(String team, String status, List<TaskChange> changes) {
         try {
             NotificationEvent event = new NotificationEvent(
-                eventType,
-                task.getUserId(),
-                getUserEmail(task.getUserId()),
-                getNotificationTitle(eventType),
-                getNotificationMessage(eventType, task)
+                TaskEventType.TASK_BULK_UPDATED.name(),
+                null,
+                null,
+                "Tasks Updated",
+                changes.size() + " tasks of team '" + team + "' have been moved to " + status + "."
             );
-            
-            event.setTaskId(task.getId());
-            event.setTaskTitle(task.getTitle());
-            
-            kafkaTemplate.send("task-events", event);
+            event.setChangedFields(List.of(TaskField.STATUS.name()));
+            event.setTaskIds(changes.stream().map(change -> change.current().getId()).collect(Collectors.toList()));
+            event.setTasks(changes.stream().map(TaskChange::current).collect(Collectors.toList()));
+
+            taskEventPublisher.publish(event);
+        } catch (Exception e) {
+            log.warn("Failed to send bulk task notification for {} tasks of team {}", changes.size(), team, e);
+        }
+    }
+
+    private void sendTaskNotification(String eventType, TaskEntity task, List<String> changedFields) {
+        try {
+            taskEventPublisher.publish(taskNotification(eventType, task, changedFields));
         } catch (Exception e) {
             System.err.println("Failed to send task notification: " + e.getMessage());
         }
     }
-    
-    private String getUserEmail(Long userId) {
-        // TODO: Implement proper user email retrieval
-        // For now, return a placeholder email
-        return "user" + userId + "@example.com";
+
+    private NotificationEvent taskNotification(String eventType, TaskEntity task, List<String> changedFields) {
+        NotificationEvent event = new NotificationEvent(
+            eventType,
+            task.getUserId(),
+            null, // resolved by the publisher, batched with other events
+            getNotificationTitle(eventType),
+            getNotificationMessage(eventType, task)
+        );
+
+        event.setTaskId(task.getId());
+        event.setTaskTitle(task.getTitle());
+        event.setChangedFields(changedFields);
+        event.setTask(convertToDto(task));
+        return event;
     }
     
     private String getNotificationTitle(String eventType) {
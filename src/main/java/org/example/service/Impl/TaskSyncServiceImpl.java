@@ -0,0 +1,149 @@
+package org.example.service.Impl;
+
+import org.example.converter.TaskMapper;
+import org.example.dto.TaskResponseDto;
+import org.example.dto.TaskSyncDto;
+import org.example.entity.TaskEntity;
+import org.example.repository.TaskRepository;
+import org.example.service.TaskSyncService;
+import org.example.sharding.ShardRouter;
+import org.example.sharding.ShardTemplate;
+import org.example.sync.SyncProperties;
+import org.example.sync.SyncToken;
+import org.example.sync.TaskTombstones;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for the user and team lists. A token is a position in the (updated_at, id)
+ * order of a list's changes; a poll reads the tasks updated after it and the tombstones of
+ * tasks that left the list after it, both range scans on indexes led by the list's key, so
+ * its cost follows the number of changes rather than the size of the list.
+ * <p>
+ * The next token stops {@code settle-window} short of now, so a poll sends the last few
+ * seconds of changes again rather than miss a write that commits after a later-stamped
+ * one; clients apply changes idempotently. A token older than {@code tombstone-retention}
+ * may have missed purged tombstones and gets the whole list instead.
+ * <p>
+ * The window also covers buffered write-behind changes: they are stamped when buffered and
+ * reach the rows within {@code flush-interval}, which must stay below {@code settle-window}.
+ */
+@Service
+@EnableConfigurationProperties(SyncProperties.class)
+public class TaskSyncServiceImpl implements TaskSyncService {
+
+    // A task update (task set) or a removal from the list (task null)
+    private record Change(LocalDateTime at, long taskId, TaskResponseDto task) {
+    }
+
+    private static final Comparator<Change> ORDER = Comparator
+            .comparing(Change::at)
+            .thenComparingLong(Change::taskId);
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstones tombstones;
+    private final TaskMapper taskMapper;
+    private final ShardTemplate shards;
+    private final ShardRouter shardRouter;
+    private final SyncProperties properties;
+
+    @Autowired
+    public TaskSyncServiceImpl(TaskRepository taskRepository, TaskTombstones tombstones, TaskMapper taskMapper,
+                               ShardTemplate shards, SyncProperties properties) {
+        this.taskRepository = taskRepository;
+        this.tombstones = tombstones;
+        this.taskMapper = taskMapper;
+        this.shards = shards;
+        this.shardRouter = shards.getRouter();
+        this.properties = properties;
+    }
+
+    @Override
+    public TaskSyncDto getUserChanges(Long userId, String since) {
+        return changes(shardRouter.shardsForUser(userId), since,
+                () -> taskRepository.findByUserId(userId),
+                (after, limit) -> taskRepository.findByUserIdChangedAfter(userId, after.after(), after.afterId(), Limit.of(limit)),
+                (after, limit) -> tombstones.findByUserIdAfter(userId, after, limit),
+                task -> true);
+    }
+
+    @Override
+    public TaskSyncDto getTeamChanges(String team, String status, String since) {
+        // Tasks of the team that changed to another status leave a status list without a tombstone
+        return changes(shardRouter.shardsForTeam(team), since,
+                () -> status != null ? taskRepository.findByTeamAndStatus(team, status) : taskRepository.findByTeam(team),
+                (after, limit) -> taskRepository.findByTeamChangedAfter(team, after.after(), after.afterId(), Limit.of(limit)),
+                (after, limit) -> tombstones.findByTeamAfter(team, after, limit),
+                task -> status == null || status.equals(task.getStatus()));
+    }
+
+    private TaskSyncDto changes(List<String> targets, String since,
+                                Supplier<List<TaskEntity>> fullQuery,
+                                BiFunction<SyncToken, Integer, List<TaskEntity>> changedQuery,
+                                BiFunction<SyncToken, Integer, List<TaskTombstones.Tombstone>> removedQuery,
+                                Predicate<TaskResponseDto> inList) {
+        SyncToken after = since != null && !since.isBlank() ? SyncToken.decode(since) : null;
+        LocalDateTime now = LocalDateTime.now();
+        SyncToken settled = new SyncToken(now.minus(properties.getSettleWindow()), 0);
+
+        if (after == null || after.after().isBefore(now.minus(properties.getTombstoneRetention()))) {
+            List<TaskResponseDto> tasks = shards.concat(targets, fullQuery).stream()
+                    .map(taskMapper::toDto)
+                    .filter(inList)
+                    .collect(Collectors.toList());
+            return new TaskSyncDto(settled.encode(), true, false, tasks, List.of());
+        }
+
+        // Each shard returns its first limit + 1 changes, enough to find the overall first limit + 1
+        int limit = Math.max(1, properties.getMaxChanges());
+        List<Change> merged = new ArrayList<>();
+        shards.scatter(targets, shard -> {
+            List<Change> part = new ArrayList<>();
+            for (TaskEntity task : changedQuery.apply(after, limit + 1)) {
+                part.add(new Change(task.getUpdatedAt(), task.getId(), taskMapper.toDto(task)));
+            }
+            for (TaskTombstones.Tombstone tombstone : removedQuery.apply(after, limit + 1)) {
+                part.add(new Change(tombstone.removedAt(), tombstone.taskId(), null));
+            }
+            return part;
+        }).forEach(merged::addAll);
+        merged.sort(ORDER);
+        boolean hasMore = merged.size() > limit;
+        if (hasMore) {
+            merged = merged.subList(0, limit);
+        }
+
+        // Only a task's last change in the page counts (e.g. moved away and back)
+        Map<Long, Change> latest = new LinkedHashMap<>();
+        for (Change change : merged) {
+            latest.remove(change.taskId());
+            latest.put(change.taskId(), change);
+        }
+        List<TaskResponseDto> tasks = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Change change : latest.values()) {
+            if (change.task() != null && inList.test(change.task())) {
+                tasks.add(change.task());
+            } else {
+                removed.add(change.taskId());
+            }
+        }
+
+        Change last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+        SyncToken next = hasMore ? new SyncToken(last.at(), last.taskId()) : settled;
+        return new TaskSyncDto(next.encode(), false, hasMore, tasks, removed);
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.service.Impl;
+
+import org.example.dto.UserWorkloadDto;
+import org.example.dto.WorkloadBucketDto;
+import org.example.model.WorkloadRow;
+import org.example.repository.TaskRepository;
+import org.example.service.WorkloadService;
+import org.example.sharding.ShardRouter;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Computes workload buckets from the database-side per-user, per-day aggregate, streamed in
+ * user and day order. Rows are bucketed as they arrive and only the current user's rows are
+ * held, never tasks, so the memory needed is independent of the number of tasks. With
+ * several shards each shard aggregates its own tasks and the streams are merged lazily,
+ * adding up a user's rows for the same day. Buffered write-behind changes are counted once
+ * flushed, at most {@code flush-interval} later.
+ */
+@Service
+public class WorkloadServiceImpl implements WorkloadService {
+
+    private static final Comparator<WorkloadRow> BY_USER_AND_DAY = Comparator
+            .comparing(WorkloadRow::userId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(WorkloadRow::day);
+
+    private final TaskRepository taskRepository;
+    private final ShardTemplate shards;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnly;
+    private final List<String> completedStatuses;
+    private final long maxRangeDays;
+
+    @Autowired
+    public WorkloadServiceImpl(TaskRepository taskRepository,
+                               ShardTemplate shards,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${task-service.workload.completed-statuses:DONE,COMPLETED}") List<String> completedStatuses,
+                               @Value("${task-service.workload.max-range-days:366}") long maxRangeDays) {
+        this.taskRepository = taskRepository;
+        this.shards = shards;
+        this.shardRouter = shards.getRouter();
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.completedStatuses = completedStatuses;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    @Override
+    public List<UserWorkloadDto> getWorkload(String team, LocalDate from, LocalDate to, boolean includeCompleted) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A date range with from <= to is required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range may span at most " + maxRangeDays + " days");
+        }
+
+        List<String> targets = team != null ? shardRouter.shardsForTeam(team) : shardRouter.shards();
+        WorkloadCollector collector = new WorkloadCollector();
+        shards.<WorkloadRow>forEachSorted(targets, sink -> readOnly.executeWithoutResult(tx -> {
+            try (Stream<WorkloadRow> rows = taskRepository.streamWorkload(
+                    team, from.atStartOfDay(), to.plusDays(1).atStartOfDay(), includeCompleted, completedStatuses)) {
+                rows.forEach(sink);
+            }
+        }), BY_USER_AND_DAY, collector);
+        return collector.finish();
+    }
+
+    // Groups the merged rows user by user, bucketing each user as soon as the next one starts
+    private final class WorkloadCollector implements Consumer<WorkloadRow> {
+
+        private final List<UserWorkloadDto> workloads = new ArrayList<>();
+        private List<WorkloadRow> rows = new ArrayList<>();
+
+        @Override
+        public void accept(WorkloadRow row) {
+            if (!rows.isEmpty() && !Objects.equals(rows.get(0).userId(), row.userId())) {
+                finishUser();
+            }
+            WorkloadRow last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            if (last != null && last.day().equals(row.day())) {
+                // The same user and day from another shard (tasks of the user's other teams)
+                rows.set(rows.size() - 1, new WorkloadRow(row.userId(), row.day(),
+                        orZero(last.minutes()) + orZero(row.minutes()), orZero(last.taskCount()) + orZero(row.taskCount())));
+            } else {
+                rows.add(row);
+            }
+        }
+
+        List<UserWorkloadDto> finish() {
+            if (!rows.isEmpty()) {
+                finishUser();
+            }
+            return workloads;
+        }
+
+        private void finishUser() {
+            workloads.add(bucket(rows));
+            rows = new ArrayList<>();
+        }
+    }
+
+    // Rows arrive in day order, so weeks can be closed as soon as the day moves past them
+    private UserWorkloadDto bucket(List<WorkloadRow> rows) {
+        List<WorkloadBucketDto> days = new ArrayList<>(rows.size());
+        List<WorkloadBucketDto> weeks = new ArrayList<>();
+        WorkloadBucketDto week = null;
+        long totalMinutes = 0;
+        long taskCount = 0;
+
+        for (WorkloadRow row : rows) {
+            long minutes = row.minutes() != null ? row.minutes() : 0;
+            long count = row.taskCount() != null ? row.taskCount() : 0;
+            days.add(new WorkloadBucketDto(row.day(), minutes, toHours(minutes), count));
+
+            LocalDate weekStart = row.day().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            if (week == null || !week.getStart().equals(weekStart)) {
+                week = new WorkloadBucketDto(weekStart, 0, 0, 0);
+                weeks.add(week);
+            }
+            week.setMinutes(week.getMinutes() + minutes);
+            week.setTaskCount(week.getTaskCount() + count);
+            totalMinutes += minutes;
+            taskCount += count;
+        }
+        weeks.forEach(w -> w.setHours(toHours(w.getMinutes())));
+
+        UserWorkloadDto workload = new UserWorkloadDto();
+        workload.setUserId(rows.get(0).userId());
+        workload.setTotalMinutes(totalMinutes);
+        workload.setTotalHours(toHours(totalMinutes));
+        workload.setTaskCount(taskCount);
+        workload.setDays(days);
+        workload.setWeeks(weeks);
+        return workload;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static double toHours(long minutes) {
+        return Math.round(minutes / 60.0 * 100) / 100.0;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.service;
+
+import org.example.dto.TaskResponseDto;
+import org.example.model.TaskEventType;
+
+/**
+ * A committed change to one task, as seen by {@link TaskChangeListener}s.
+ *
+ * @param type     kind of change
+ * @param previous state before the change; null for creations
+ * @param current  state after the change; null for deletions
+ */
+public record TaskChange(TaskEventType type, TaskResponseDto previous, TaskResponseDto current) {
+
+    public Long taskId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+}
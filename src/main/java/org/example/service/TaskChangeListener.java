@@ -0,0 +1,12 @@
+package org.example.service;
+
+/**
+ * Callback for in-process components that derive state from tasks (schedulers, rollups).
+ * Listeners are invoked synchronously on the writing thread, after the change has been
+ * saved and at the same points where the task notification event is published; they
+ * should hand off anything slow.
+ */
+public interface TaskChangeListener {
+
+    void onTaskChanged(TaskChange change);
+}
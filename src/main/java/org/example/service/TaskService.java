@@ -1,21 +1,30 @@
 package org.example.service;
 
 import org.example.dto.Priority;
+import org.example.dto.StatusTransitionRequestDto;
+import org.example.dto.StatusTransitionResultDto;
 import org.example.dto.Task;
 import org.example.dto.TaskRequestDto;
+import org.example.dto.TaskMultiGetDto;
 import org.example.dto.TaskResponseDto;
 import org.example.entity.TaskEntity;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TaskService {
     // Basic CRUD operations
     TaskResponseDto createTask(TaskRequestDto taskDto);
+    // Creates a batch of tasks with one transaction per shard; used by the bulk import
+    List<TaskResponseDto> createTasks(List<TaskRequestDto> taskDtos);
     TaskResponseDto getTaskById(Long id);
     List<TaskResponseDto> getAllTasks();
     TaskResponseDto updateTask(Long id, TaskRequestDto taskDto);
     void deleteTask(Long id);
 
+    // Moves a team's matching tasks to one status in chunked set-based updates
+    StatusTransitionResultDto transitionStatus(String team, StatusTransitionRequestDto request);
+
     // Additional operations
     List<TaskResponseDto> getTasksByUserId(Long userId);
     List<TaskResponseDto> getTasksByCategory(String category);
@@ -24,6 +33,16 @@ public interface TaskService {
     List<TaskResponseDto> getTasksByTeamAndStatus(String team, String status);
     Long getTaskCountByTeamAndStatus(String team, String status);
 
+    // Same lookups, optionally also searching archived tasks (hot results first)
+    TaskResponseDto getTaskById(Long id, boolean includeArchived);
+    List<TaskResponseDto> getTasksByUserId(Long userId, boolean includeArchived);
+    List<TaskResponseDto> getTasksByCategory(String category, boolean includeArchived);
+    List<TaskResponseDto> getTasksByStatus(String status, boolean includeArchived);
+    List<TaskResponseDto> getTasksByTeamAndStatus(String team, String status, boolean includeArchived);
+
+    // Many tasks by id at once, in request order, with a not-found marker for missing ids
+    TaskMultiGetDto getTasksByIds(List<Long> ids, boolean includeArchived);
+
     List<TaskResponseDto> getAllTasksSortedByCreatedDateDesc();
     List<TaskResponseDto> getAllTasksSortedByCreatedDateAsc();
     List<TaskResponseDto> getAllTasksSortedByPriorityDesc();
@@ -45,4 +64,11 @@ public interface TaskService {
     Long getTaskCountByTeamAndPriority(String team, Priority priority);
     List<TaskResponseDto> getTasksByTeamAndPriority(String team, Priority priority);
 
+    // Tasks due on the days from..to (inclusive), by due date
+    List<TaskResponseDto> getTasksByUserIdDueBetween(Long userId, LocalDate from, LocalDate to);
+    List<TaskResponseDto> getTasksByTeamDueBetween(String team, LocalDate from, LocalDate to);
+
+    // A user's open tasks, highest priority then earliest due date first
+    List<TaskResponseDto> getNextTasks(Long userId, int limit);
+
 }
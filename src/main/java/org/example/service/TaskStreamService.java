@@ -0,0 +1,14 @@
+package org.example.service;
+
+import org.example.dto.Priority;
+import org.example.dto.TaskResponseDto;
+import reactor.core.publisher.Flux;
+
+public interface TaskStreamService {
+    Flux<TaskResponseDto> streamAllTasks();
+    Flux<TaskResponseDto> streamTasksByUserId(Long userId);
+    Flux<TaskResponseDto> streamTasksByCategory(String category);
+    Flux<TaskResponseDto> streamTasksByStatus(String status);
+    Flux<TaskResponseDto> streamTasksByTeamAndStatus(String team, String status);
+    Flux<TaskResponseDto> streamTasksByTeamAndPriority(String team, Priority priority);
+}
@@ -0,0 +1,18 @@
+package org.example.service;
+
+import org.example.dto.TaskSyncDto;
+
+public interface TaskSyncService {
+    /**
+     * Changes to the user's tasks since {@code since}; the whole list when it is null or too old.
+     *
+     * @throws IllegalArgumentException if {@code since} is not a token from this API
+     */
+    TaskSyncDto getUserChanges(Long userId, String since);
+
+    /**
+     * As {@link #getUserChanges}, for a team's tasks, or those of the team in {@code status}
+     * when it is not null.
+     */
+    TaskSyncDto getTeamChanges(String team, String status, String since);
+}
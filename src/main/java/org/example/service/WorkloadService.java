@@ -0,0 +1,16 @@
+package org.example.service;
+
+import org.example.dto.UserWorkloadDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WorkloadService {
+    /**
+     * Committed minutes per user per day and per week, for tasks due in [from, to].
+     *
+     * @param team             only this team's tasks; all teams when null
+     * @param includeCompleted whether tasks in a completed status still count
+     */
+    List<UserWorkloadDto> getWorkload(String team, LocalDate from, LocalDate to, boolean includeCompleted);
+}
@@ -0,0 +1,50 @@
+package org.example.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring with virtual nodes.
+ * <p>
+ * Each node is hashed onto the ring {@code virtualNodes * weight} times and a key belongs to
+ * the first node point at or after its own hash. Adding or removing a node only moves the
+ * keys between it and its ring neighbours, roughly {@code 1/N} of the total.
+ */
+final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    ConsistentHashRing(Map<String, Integer> weights, int virtualNodes) {
+        weights.forEach((node, weight) -> {
+            for (int i = 0; i < virtualNodes * weight; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        });
+        if (ring.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard with a positive weight");
+        }
+    }
+
+    String nodeFor(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 fmix64 avalanche so that
+    // similar keys ("team-1", "team-2") land far apart
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.sharding;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Places tasks on a consistent-hash ring of the configured shards, keyed by team or by
+ * user. Queries scoped by the shard key go to one shard; the rest go to all of them.
+ */
+public class ConsistentHashShardRouter implements ShardRouter {
+
+    private final ShardingProperties.ShardKey key;
+    private final List<String> shards;
+    private final ConsistentHashRing ring;
+
+    public ConsistentHashShardRouter(ShardingProperties properties) {
+        this.key = properties.getKey();
+        this.shards = properties.getShards().stream().map(ShardingProperties.Shard::getName).toList();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        properties.getShards().forEach(shard -> weights.put(shard.getName(), Math.max(0, shard.getWeight())));
+        this.ring = new ConsistentHashRing(weights, Math.max(1, properties.getVirtualNodes()));
+    }
+
+    @Override
+    public List<String> shards() {
+        return shards;
+    }
+
+    @Override
+    public String shardFor(String team, Long userId) {
+        return key == ShardingProperties.ShardKey.TEAM
+                ? ring.nodeFor("team:" + (team != null ? team : ""))
+                : ring.nodeFor("user:" + userId);
+    }
+
+    @Override
+    public List<String> shardsForTeam(String team) {
+        return key == ShardingProperties.ShardKey.TEAM ? List.of(shardFor(team, null)) : shards;
+    }
+
+    @Override
+    public List<String> shardsForUser(Long userId) {
+        return key == ShardingProperties.ShardKey.USER ? List.of(shardFor(null, userId)) : shards;
+    }
+}
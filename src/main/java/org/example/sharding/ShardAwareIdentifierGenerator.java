@@ -0,0 +1,42 @@
+package org.example.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.mapping.Column;
+
+import java.lang.reflect.Member;
+
+/**
+ * Identity column when unsharded; ids from {@link ShardIdGenerator} when sharding is on.
+ */
+public class ShardAwareIdentifierGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    public ShardAwareIdentifierGenerator(ShardAwareId config, Member member, CustomIdGeneratorCreationContext context) {
+        // Hibernate only marks the column as identity for its own identity generator; keep the
+        // schema (AUTO_INCREMENT) the same as with @GeneratedValue(strategy = IDENTITY)
+        context.getProperty().getValue().getSelectables().forEach(selectable -> {
+            if (selectable instanceof Column column) {
+                column.setIdentity(true);
+            }
+        });
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return true;
+    }
+
+    @Override
+    public boolean generatedOnExecution(Object owner, SharedSessionContractImplementor session) {
+        return ShardIdGenerator.current() == null;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return ShardIdGenerator.current().nextId();
+    }
+}
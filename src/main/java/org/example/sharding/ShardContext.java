@@ -0,0 +1,34 @@
+package org.example.sharding;
+
+/**
+ * The shard the current thread's database work is routed to; read by
+ * {@link ShardRoutingDataSource} whenever a connection is taken.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return the current shard, or null outside any shard scope (the primary shard)
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static String enter(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Allocates task ids that name their shard.
+ * <p>
+ * A shard with id {@code k} owns ids {@code [k << 44, (k + 1) << 44)}; 512 shard ids fit below
+ * 2^53, so ids stay exact as JSON numbers in JavaScript clients. Shard 0 owns the ids an
+ * unsharded database has already issued. Each shard keeps a {@code task_id_blocks} row with its
+ * next free id, and instances reserve {@code id-block-size} ids at a time from it under a row
+ * lock, so replicas never hand out the same id.
+ * <p>
+ * The range only records where a task was created: after a team or user change, or a
+ * rebalance, the task lives elsewhere, so {@link #candidateShards} lists the creating shard
+ * first and then the rest.
+ */
+@Slf4j
+public class ShardIdGenerator {
+
+    public static final int RANGE_BITS = 44;
+    public static final int MAX_SHARD_ID = (1 << (53 - RANGE_BITS)) - 1;
+
+    private static final String CREATE_SQL =
+            "CREATE TABLE IF NOT EXISTS task_id_blocks (shard_id INT NOT NULL PRIMARY KEY, next_value BIGINT NOT NULL)";
+    private static final String SEED_SQL =
+            "INSERT INTO task_id_blocks (shard_id, next_value) " +
+            "SELECT ?, GREATEST(COALESCE((SELECT MAX(id) FROM tasks WHERE id >= ? AND id < ?), ?), " +
+            "COALESCE((SELECT MAX(id) FROM tasks_archive WHERE id >= ? AND id < ?), ?)) + 1 " +
+            "ON DUPLICATE KEY UPDATE shard_id = shard_id";
+
+    // Set while sharding is enabled; read by the Hibernate id generator, which is not a Spring bean
+    private static volatile ShardIdGenerator current;
+
+    private final Function<String, DataSource> dataSources;
+    private final Map<String, Integer> shardIds;
+    private final Map<Integer, String> shardNames = new HashMap<>();
+    private final String primaryShard;
+    private final int blockSize;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public ShardIdGenerator(Function<String, DataSource> dataSources, Map<String, Integer> shardIds,
+                            String primaryShard, int blockSize) {
+        this.dataSources = dataSources;
+        this.shardIds = shardIds;
+        this.primaryShard = primaryShard;
+        this.blockSize = Math.max(1, blockSize);
+        shardIds.forEach((name, id) -> {
+            if (id < 0 || id > MAX_SHARD_ID) {
+                throw new IllegalArgumentException("Shard id of " + name + " must be 0.." + MAX_SHARD_ID);
+            }
+            if (shardNames.put(id, name) != null) {
+                throw new IllegalArgumentException("Shard id " + id + " is used by more than one shard");
+            }
+        });
+    }
+
+    static ShardIdGenerator current() {
+        return current;
+    }
+
+    void register() {
+        current = this;
+    }
+
+    void unregister() {
+        if (current == this) {
+            current = null;
+        }
+    }
+
+    /**
+     * @return a new id on the shard in {@link ShardContext} (the primary outside a shard scope)
+     */
+    public long nextId() {
+        String shard = ShardContext.current() != null ? ShardContext.current() : primaryShard;
+        Block block = blocks.computeIfAbsent(shard, Block::new);
+        synchronized (block) {
+            if (block.next >= block.end) {
+                reserve(block);
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * @return the shard the id was issued on, or null if that shard is no longer configured
+     */
+    public String creatingShard(long id) {
+        return shardNames.get((int) (id >>> RANGE_BITS));
+    }
+
+    /**
+     * @return the shards to look for the task in, most likely first
+     */
+    public List<String> candidateShards(long id, List<String> shards) {
+        String creating = creatingShard(id);
+        if (creating == null || !shards.contains(creating)) {
+            return shards;
+        }
+        List<String> ordered = new ArrayList<>(shards.size());
+        ordered.add(creating);
+        shards.stream().filter(shard -> !shard.equals(creating)).forEach(ordered::add);
+        return ordered;
+    }
+
+    private void reserve(Block block) {
+        int shardId = shardIds.get(block.shard);
+        long rangeStart = (long) shardId << RANGE_BITS;
+        long rangeEnd = (long) (shardId + 1) << RANGE_BITS;
+        try (Connection connection = dataSources.apply(block.shard).getConnection()) {
+            if (!block.seeded) {
+                seed(connection, shardId, rangeStart, rangeEnd);
+                block.seeded = true;
+            }
+            connection.setAutoCommit(false);
+            try {
+                long next;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT next_value FROM task_id_blocks WHERE shard_id = ? FOR UPDATE")) {
+                    select.setInt(1, shardId);
+                    try (ResultSet rs = select.executeQuery()) {
+                        rs.next();
+                        next = rs.getLong(1);
+                    }
+                }
+                long end = next + blockSize;
+                if (end > rangeEnd) {
+                    throw new IllegalStateException("Id range of shard " + block.shard + " is exhausted");
+                }
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE task_id_blocks SET next_value = ? WHERE shard_id = ?")) {
+                    update.setLong(1, end);
+                    update.setInt(2, shardId);
+                    update.executeUpdate();
+                }
+                connection.commit();
+                block.next = next;
+                block.end = end;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to reserve task ids on shard " + block.shard, e);
+        }
+    }
+
+    // Starts the shard's counter after the highest id already in its range
+    private void seed(Connection connection, int shardId, long rangeStart, long rangeEnd) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_SQL);
+        }
+        try (PreparedStatement seed = connection.prepareStatement(SEED_SQL)) {
+            long floor = Math.max(rangeStart, 1) - 1;
+            seed.setInt(1, shardId);
+            seed.setLong(2, rangeStart);
+            seed.setLong(3, rangeEnd);
+            seed.setLong(4, floor);
+            seed.setLong(5, rangeStart);
+            seed.setLong(6, rangeEnd);
+            seed.setLong(7, floor);
+            seed.executeUpdate();
+        }
+        log.info("Task id allocation ready on shard {} (range starts at {})", shardNames.get(shardId), rangeStart);
+    }
+
+    private static final class Block {
+        private final String shard;
+        private long next;
+        private long end;
+        private boolean seeded;
+
+        private Block(String shard) {
+            this.shard = shard;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package org.example.sharding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dictionary.TaskDictionary;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves tasks to the shard the router currently assigns them to: after a shard is added,
+ * re-weighted or drained, and for a single task whose team or user changed.
+ * <p>
+ * A rebalance walks every shard's {@code tasks} and {@code tasks_archive} in id order and, for
+ * each batch, upserts the misplaced rows on their owning shard, then deletes them from the
+ * source only if their {@code updated_at} is still the copied one. A row edited in between
+ * stays on the source and is picked up again by the next pass, so the job runs passes until
+ * one moves nothing. Copies replace any row already on the target and deletes are
+ * conditional, so an interrupted run can simply be restarted. Until a row has moved, queries
+ * scoped to its new shard do not see it, and for a moment a row can be on both shards;
+ * lookups by id find it either way.
+ * <p>
+ * A single task is copied again until its conditional delete succeeds, so an edit that lands
+ * mid-move (from a write-behind flush or a bulk transition, which never relocate) leaves no
+ * stale copy on the target. One that fails to move is retried in the background, up to
+ * {@code RELOCATE_ATTEMPTS} times with doubling delays, towards whatever shard owns it then.
+ */
+@Slf4j
+@Component
+public class ShardRebalancer implements DisposableBean {
+
+    private static final String TASK_COLUMNS =
+            "id, title, description, due_date, duration, " +
+            "created_at, updated_at, completed_at, user_id, priority_code, status_id, category_id, team_id";
+    private static final Table TASKS = new Table("tasks", TASK_COLUMNS);
+    private static final Table ARCHIVE = new Table("tasks_archive", TASK_COLUMNS + ", archived_at");
+    // Positions in TASK_COLUMNS
+    private static final int ID = 0;
+    private static final int UPDATED_AT = 6;
+    private static final int USER_ID = 8;
+    private static final int TEAM_ID = 12;
+    private static final int MAX_PASSES = 5;
+    private static final int RELOCATE_ATTEMPTS = 5;
+    private static final long RELOCATE_RETRY_MILLIS = 1_000;
+
+    private final ShardTemplate shardTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardingProperties properties;
+    private final TaskDictionary dictionary;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService relocateRetries;
+    private final Counter relocateFailures;
+
+    private volatile Status status = Status.idle();
+
+    public ShardRebalancer(ShardTemplate shardTemplate, JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate, ShardingProperties properties,
+                           TaskDictionary dictionary, MeterRegistry meterRegistry) {
+        this.shardTemplate = shardTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.dictionary = dictionary;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "task-shard-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.relocateRetries = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-shard-relocate");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.relocateFailures = Counter.builder("task.shard.relocate.failed").register(meterRegistry);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Starts a rebalance in the background.
+     *
+     * @param dryRun only count the misplaced rows
+     * @return false if one is already running
+     */
+    public synchronized boolean start(boolean dryRun) {
+        if (status.running()) {
+            return false;
+        }
+        status = new Status(true, dryRun, 0, 0, 0, Map.of(), null);
+        executor.execute(() -> run(dryRun));
+        return true;
+    }
+
+    /**
+     * Moves one task (and any archived copy) from {@code from} to the shard that owns it,
+     * right away. If the move fails it is retried in the background; the task stays readable
+     * by id on {@code from} meanwhile.
+     */
+    public void relocate(long id, String from) {
+        try {
+            relocateNow(id, from);
+        } catch (RuntimeException e) {
+            retryRelocate(id, from, 1, e);
+        }
+    }
+
+    private void relocateNow(long id, String from) {
+        ShardRouter router = shardTemplate.getRouter();
+        for (Table table : List.of(TASKS, ARCHIVE)) {
+            // A row edited between its copy and the conditional delete stays on the source:
+            // copy it again, so no stale copy is left behind for cross-shard queries to find
+            Object[] copy = null;
+            String copiedTo = null;
+            for (int attempt = 1; ; attempt++) {
+                List<Object[]> rows = shardTemplate.execute(from, () -> jdbcTemplate.query(
+                        "SELECT " + table.columns() + " FROM " + table.name() + " WHERE id = ?",
+                        (rs, i) -> readRow(rs), id));
+                // Gone: deleted, or moved by a rebalance
+                if (rows.isEmpty()) {
+                    break;
+                }
+                Object[] row = rows.get(0);
+                String to = owner(router, row);
+                if (copy != null && !copiedTo.equals(to)) {
+                    deleteUnchanged(table, copiedTo, Collections.singletonList(copy));
+                    copy = null;
+                }
+                // Edited back to this shard
+                if (from.equals(to)) {
+                    break;
+                }
+                if (attempt > MAX_PASSES) {
+                    if (copy != null) {
+                        deleteUnchanged(table, copiedTo, Collections.singletonList(copy));
+                    }
+                    throw new IllegalStateException("Task " + id + " kept changing while it was moved off shard " + from);
+                }
+                if (move(table, from, to, rows) > 0) {
+                    break;
+                }
+                copy = row;
+                copiedTo = to;
+            }
+        }
+    }
+
+    private void retryRelocate(long id, String from, int attempt, RuntimeException failure) {
+        relocateFailures.increment();
+        if (attempt >= RELOCATE_ATTEMPTS) {
+            log.error("Moving task {} off shard {} failed {} times; it stays there until the next rebalance",
+                    id, from, attempt, failure);
+            return;
+        }
+        long delay = RELOCATE_RETRY_MILLIS << (attempt - 1);
+        log.warn("Moving task {} off shard {} failed, retrying in {} ms", id, from, delay, failure);
+        try {
+            relocateRetries.schedule(() -> {
+                try {
+                    relocateNow(id, from);
+                } catch (RuntimeException e) {
+                    retryRelocate(id, from, attempt + 1, e);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next rebalance moves it
+        }
+    }
+
+    private void run(boolean dryRun) {
+        long scanned = 0;
+        long moved = 0;
+        int passes = 0;
+        Map<String, Long> misplaced = new LinkedHashMap<>();
+        try {
+            long movedInPass;
+            do {
+                movedInPass = 0;
+                misplaced.clear();
+                for (String source : shardTemplate.getRouter().shards()) {
+                    for (Table table : List.of(TASKS, ARCHIVE)) {
+                        long[] counts = rebalanceTable(source, table, dryRun, misplaced);
+                        scanned += counts[0];
+                        movedInPass += counts[1];
+                        status = new Status(true, dryRun, passes + 1, scanned, moved + movedInPass,
+                                Map.copyOf(misplaced), null);
+                    }
+                }
+                moved += movedInPass;
+                passes++;
+            } while (!dryRun && movedInPass > 0 && passes < MAX_PASSES);
+            status = new Status(false, dryRun, passes, scanned, moved, Map.copyOf(misplaced), null);
+            log.info("Shard rebalance {}: scanned {} rows, moved {} in {} passes",
+                    dryRun ? "dry run" : "done", scanned, moved, passes);
+        } catch (Exception e) {
+            log.error("Shard rebalance failed: {}", e.getMessage());
+            status = new Status(false, dryRun, passes, scanned, moved, Map.copyOf(misplaced), e.getMessage());
+        }
+    }
+
+    // Returns {rows scanned, rows moved}
+    private long[] rebalanceTable(String source, Table table, boolean dryRun, Map<String, Long> misplaced)
+            throws InterruptedException {
+        ShardRouter router = shardTemplate.getRouter();
+        String pageSql = "SELECT " + table.columns() + " FROM " + table.name() + " WHERE id > ? ORDER BY id LIMIT ?";
+        int batchSize = Math.max(1, properties.getRebalanceBatchSize());
+        long scanned = 0;
+        long moved = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            long lastId = afterId;
+            page = shardTemplate.execute(source, () -> jdbcTemplate.query(pageSql,
+                    (rs, i) -> readRow(rs), lastId, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            scanned += page.size();
+            afterId = ((Number) page.get(page.size() - 1)[ID]).longValue();
+
+            Map<String, List<Object[]>> byOwner = page.stream()
+                    .filter(row -> !source.equals(owner(router, row)))
+                    .collect(Collectors.groupingBy(row -> owner(router, row), LinkedHashMap::new, Collectors.toList()));
+            for (Map.Entry<String, List<Object[]>> entry : byOwner.entrySet()) {
+                misplaced.merge(source + "->" + entry.getKey(), (long) entry.getValue().size(), Long::sum);
+                if (!dryRun) {
+                    moved += move(table, source, entry.getKey(), entry.getValue());
+                }
+            }
+            if (!byOwner.isEmpty() && !dryRun) {
+                Thread.sleep(properties.getRebalancePause().toMillis());
+            }
+        } while (page.size() == batchSize);
+        return new long[]{scanned, moved};
+    }
+
+    // Replaces the rows on the target, then deletes the ones still unchanged on the source.
+    // Delete and insert in one transaction rather than a dialect-specific upsert, so the same
+    // statements run on MySQL and on the embedded databases of a local shard setup
+    private int move(Table table, String from, String to, List<Object[]> rows) {
+        String insert = "INSERT INTO " + table.name() + " (" + table.columns() + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.columns().split(", ").length, "?")) + ")";
+        List<Object[]> ids = rows.stream().map(row -> new Object[]{row[ID]}).collect(Collectors.toList());
+        shardTemplate.run(to, () -> transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.batchUpdate("DELETE FROM " + table.name() + " WHERE id = ?", ids);
+            jdbcTemplate.batchUpdate(insert, rows);
+        }));
+
+        return deleteUnchanged(table, from, rows);
+    }
+
+    // Deletes the rows from the shard where their updated_at is still the one read
+    private int deleteUnchanged(Table table, String shard, List<Object[]> rows) {
+        List<Object[]> unchanged = new ArrayList<>();
+        List<Object[]> neverUpdated = new ArrayList<>();
+        for (Object[] row : rows) {
+            if (row[UPDATED_AT] == null) {
+                neverUpdated.add(new Object[]{row[ID]});
+            } else {
+                unchanged.add(new Object[]{row[ID], row[UPDATED_AT]});
+            }
+        }
+        return shardTemplate.execute(shard, () -> transactionTemplate.execute(tx -> {
+            int deleted = 0;
+            for (int count : jdbcTemplate.batchUpdate(
+                    "DELETE FROM " + table.name() + " WHERE id = ? AND updated_at = ?", unchanged)) {
+                deleted += Math.max(count, 0);
+            }
+            for (int count : jdbcTemplate.batchUpdate(
+                    "DELETE FROM " + table.name() + " WHERE id = ? AND updated_at IS NULL", neverUpdated)) {
+                deleted += Math.max(count, 0);
+            }
+            return deleted;
+        }));
+    }
+
+    // Teams route by name; the row holds the team's dictionary code
+    private String owner(ShardRouter router, Object[] row) {
+        Object userId = row[USER_ID];
+        Object teamId = row[TEAM_ID];
+        String team = teamId != null ? dictionary.name(TaskDictionary.Kind.TEAM, ((Number) teamId).intValue()) : null;
+        return router.shardFor(team, userId != null ? ((Number) userId).longValue() : null);
+    }
+
+    private static Object[] readRow(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Object[] row = new Object[meta.getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+            Object value = rs.getObject(i + 1);
+            // Bind timestamps back as timestamps whatever type the driver surfaced
+            row[i] = value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime) : value;
+        }
+        return row;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        relocateRetries.shutdownNow();
+    }
+
+    private record Table(String name, String columns) {
+    }
+
+    /**
+     * @param misplaced rows found on the wrong shard in the last pass, keyed "source->target"
+     * @param error     why the run stopped early, if it did
+     */
+    public record Status(boolean running, boolean dryRun, int passes, long scanned, long moved,
+                         Map<String, Long> misplaced, String error) {
+        static Status idle() {
+            return new Status(false, false, 0, 0, 0, Map.of(), null);
+        }
+    }
+}
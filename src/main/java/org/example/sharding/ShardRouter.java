@@ -0,0 +1,41 @@
+package org.example.sharding;
+
+import java.util.List;
+
+/**
+ * Decides which shard owns a task and which shards a query has to visit.
+ */
+public interface ShardRouter {
+
+    /**
+     * @return every shard that may hold tasks, the primary first
+     */
+    List<String> shards();
+
+    /**
+     * The shard that also holds the unsharded tables (rollups, locks, idempotency keys);
+     * connections taken outside any shard scope go here.
+     */
+    default String primaryShard() {
+        return shards().get(0);
+    }
+
+    /**
+     * @return the shard a task with this team and user belongs on
+     */
+    String shardFor(String team, Long userId);
+
+    /**
+     * @return the shards that can hold tasks of this team
+     */
+    List<String> shardsForTeam(String team);
+
+    /**
+     * @return the shards that can hold tasks of this user
+     */
+    List<String> shardsForUser(Long userId);
+
+    default boolean isSharded() {
+        return shards().size() > 1;
+    }
+}
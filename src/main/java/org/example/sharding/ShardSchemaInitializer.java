@@ -0,0 +1,60 @@
+package org.example.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Creates the mapped tables on shards that do not have them yet.
+ * <p>
+ * {@code spring.jpa.hibernate.ddl-auto} and {@code schema.sql} only reach the primary shard,
+ * because schema tooling runs outside any shard scope. An empty shard added to the
+ * configuration gets the current schema here before the application takes traffic; a shard
+ * that already has a {@code tasks} table is left alone and migrated like the primary.
+ */
+@Slf4j
+public class ShardSchemaInitializer {
+
+    private final ShardTemplate shardTemplate;
+    private final ShardRoutingDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ShardSchemaInitializer(ShardTemplate shardTemplate, ShardRoutingDataSource dataSource,
+                                  EntityManagerFactory entityManagerFactory) {
+        this.shardTemplate = shardTemplate;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void initialize() {
+        ShardRouter router = shardTemplate.getRouter();
+        for (String shard : router.shards()) {
+            if (shard.equals(router.primaryShard()) || hasTasksTable(shard)) {
+                continue;
+            }
+            log.info("Creating the task schema on shard {}", shard);
+            // Hibernate takes its DDL connection from the routing data source, so it lands on this shard
+            shardTemplate.run(shard, () -> entityManagerFactory.unwrap(SessionFactory.class)
+                    .getSchemaManager().exportMappedObjects(false));
+        }
+    }
+
+    private boolean hasTasksTable(String shard) {
+        try (Connection connection = dataSource.shard(shard).getConnection()) {
+            for (String name : new String[]{"tasks", "TASKS"}) {
+                try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, name, null)) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect shard " + shard + ": " + e.getMessage(), e);
+        }
+    }
+}
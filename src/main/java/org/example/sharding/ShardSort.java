@@ -0,0 +1,73 @@
+package org.example.sharding;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Sort;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * In-memory equivalents of {@link Sort} orders, used to merge rows that each shard already
+ * returned in database order.
+ * <p>
+ * They follow MySQL's defaults: strings compare case-insensitively (as under the default
+ * {@code _ci} collations), enums by declaration order (as stored by their numeric codes,
+ * e.g. {@link org.example.dto.Priority}), and nulls come first ascending and
+ * last descending.
+ */
+public final class ShardSort {
+
+    private ShardSort() {
+    }
+
+    public static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(
+                    new SortKey<T>(order.getProperty()),
+                    Comparator.nullsFirst(ShardSort::compareKeys));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    // Reads a property through its getter, looked up once for the class of the merged rows
+    private static final class SortKey<T> implements Function<T, Comparable<?>> {
+
+        private final String property;
+        private volatile Method getter;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        @Override
+        public Comparable<?> apply(T row) {
+            Method method = getter;
+            if (method == null || !method.getDeclaringClass().isInstance(row)) {
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(row.getClass(), property);
+                if (descriptor == null || descriptor.getReadMethod() == null) {
+                    throw new IllegalArgumentException("No sortable property " + property + " on " + row.getClass().getSimpleName());
+                }
+                method = descriptor.getReadMethod();
+                getter = method;
+            }
+            try {
+                return (Comparable<?>) method.invoke(row);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot read " + property + " of " + row.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Comparable a, Comparable b) {
+        if (a instanceof String x && b instanceof String y) {
+            return String.CASE_INSENSITIVE_ORDER.compare(x, y);
+        }
+        return a.compareTo(b);
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.sharding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs database work on one shard or across several.
+ * <p>
+ * {@link #execute} scopes a call to a single shard. The scatter-gather methods run the same
+ * query on each shard in parallel and combine the results: concatenated, summed, or merged
+ * by a k-way merge that keeps the order each shard returned. A single-shard call runs
+ * inline on the caller's thread, so an unsharded deployment pays nothing for any of this.
+ * A cross-shard query fails as a whole if any shard fails or misses the scatter timeout;
+ * it never returns a partial result. {@link #forEachSorted} merges streamed rows instead,
+ * holding only a small buffer per shard.
+ */
+public class ShardTemplate {
+
+    // Rows a shard's stream may run ahead of the merge in forEachSorted
+    private static final int STREAM_BUFFER = 256;
+    private static final Object END_OF_STREAM = new Object();
+
+    private final ShardRouter router;
+    private final ShardIdGenerator idGenerator;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public ShardTemplate(ShardRouter router, ShardIdGenerator idGenerator, int threads, Duration timeout) {
+        this.router = router;
+        this.idGenerator = idGenerator;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = router.isSharded()
+                ? Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+                    Thread thread = new Thread(r, "task-shard-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public ShardRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * @return the shards that may hold the task with this id, most likely first
+     */
+    public List<String> shardsForId(long id) {
+        return idGenerator != null ? idGenerator.candidateShards(id, router.shards()) : router.shards();
+    }
+
+    public <T> T execute(String shard, Supplier<T> action) {
+        String previous = ShardContext.enter(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    public void run(String shard, Runnable action) {
+        execute(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code action} on every shard, in parallel when there are several.
+     *
+     * @return one result per shard, in the order of {@code shards}
+     */
+    public <T> List<T> scatter(Collection<String> shards, Function<String, T> action) {
+        if (shards.size() == 1 || executor == null) {
+            List<T> results = new ArrayList<>(shards.size());
+            for (String shard : shards) {
+                results.add(execute(shard, () -> action.apply(shard)));
+            }
+            return results;
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (String shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> execute(shard, () -> action.apply(shard)), executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted during a cross-shard query", e);
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Cross-shard query timed out after " + timeoutMillis + " ms", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    public <T> List<T> concat(Collection<String> shards, Supplier<List<T>> query) {
+        List<List<T>> parts = scatter(shards, shard -> query.get());
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        List<T> all = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(all::addAll);
+        return all;
+    }
+
+    public long sum(Collection<String> shards, Supplier<Long> count) {
+        return scatter(shards, shard -> count.get()).stream()
+                .mapToLong(value -> value != null ? value : 0L)
+                .sum();
+    }
+
+    /**
+     * Runs a query that returns rows sorted by {@code order} on every shard and merges the
+     * results into one sorted list.
+     *
+     * @param limit keep only the first {@code limit} rows; 0 for all (each shard query should
+     *              already be limited to the same number)
+     */
+    public <T> List<T> mergeSorted(Collection<String> shards, Supplier<List<T>> query,
+                                   Comparator<? super T> order, int limit) {
+        List<List<T>> parts = scatter(shards, shard -> query.get());
+        if (parts.size() == 1) {
+            List<T> only = parts.get(0);
+            return limit > 0 && only.size() > limit ? only.subList(0, limit) : only;
+        }
+        int total = parts.stream().mapToInt(List::size).sum();
+        int size = limit > 0 ? Math.min(limit, total) : total;
+        List<T> merged = new ArrayList<>(size);
+
+        // Heap of cursors (part index, position), ordered by each cursor's current row
+        PriorityQueue<int[]> heap = new PriorityQueue<>(parts.size(),
+                (a, b) -> order.compare(parts.get(a[0]).get(a[1]), parts.get(b[0]).get(b[1])));
+        for (int i = 0; i < parts.size(); i++) {
+            if (!parts.get(i).isEmpty()) {
+                heap.add(new int[]{i, 0});
+            }
+        }
+        while (merged.size() < size) {
+            int[] cursor = heap.poll();
+            List<T> part = parts.get(cursor[0]);
+            merged.add(part.get(cursor[1]));
+            if (++cursor[1] < part.size()) {
+                heap.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Like {@link #mergeSorted}, for a query that streams its rows, sorted by {@code order}, to
+     * the sink it is given. The merged rows are handed to {@code action} one at a time, on the
+     * caller's thread, as the shards produce them. With several shards each stream runs on a
+     * shard thread and may run up to a small buffer ahead; a shard that produces no row within
+     * the scatter timeout fails the whole call, and so does a failure in {@code action}, which
+     * stops the remaining streams.
+     */
+    public <T> void forEachSorted(Collection<String> shards, Consumer<Consumer<T>> query,
+                                  Comparator<? super T> order, Consumer<? super T> action) {
+        if (shards.size() == 1 || executor == null) {
+            for (String shard : shards) {
+                run(shard, () -> query.accept(action::accept));
+            }
+            return;
+        }
+        List<BlockingQueue<Object>> queues = new ArrayList<>(shards.size());
+        List<Future<?>> streams = new ArrayList<>(shards.size());
+        try {
+            for (String shard : shards) {
+                BlockingQueue<Object> queue = new ArrayBlockingQueue<>(STREAM_BUFFER);
+                queues.add(queue);
+                streams.add(executor.submit(() -> stream(shard, query, queue)));
+            }
+            // Heap of (shard index, current row), ordered by the row
+            PriorityQueue<Head<T>> heap = new PriorityQueue<>(queues.size(), (a, b) -> order.compare(a.row(), b.row()));
+            for (int i = 0; i < queues.size(); i++) {
+                advance(heap, i, queues.get(i));
+            }
+            while (!heap.isEmpty()) {
+                Head<T> head = heap.poll();
+                action.accept(head.row());
+                advance(heap, head.part(), queues.get(head.part()));
+            }
+        } finally {
+            streams.forEach(stream -> stream.cancel(true));
+        }
+    }
+
+    private record Head<T>(int part, T row) {
+    }
+
+    private record StreamFailure(RuntimeException error) {
+    }
+
+    private <T> void stream(String shard, Consumer<Consumer<T>> query, BlockingQueue<Object> queue) {
+        try {
+            run(shard, () -> query.accept(row -> put(queue, row)));
+            put(queue, END_OF_STREAM);
+        } catch (RuntimeException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                queue.clear();
+                queue.offer(new StreamFailure(e));
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            // The merge was abandoned
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cross-shard stream cancelled", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void advance(PriorityQueue<Head<T>> heap, int part, BlockingQueue<Object> queue) {
+        Object next;
+        try {
+            next = queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during a cross-shard query", e);
+        }
+        if (next == null) {
+            throw new IllegalStateException("Cross-shard query timed out after " + timeoutMillis + " ms");
+        }
+        if (next instanceof StreamFailure failure) {
+            throw failure.error();
+        }
+        if (next != END_OF_STREAM) {
+            heap.add(new Head<>(part, (T) next));
+        }
+    }
+
+    /**
+     * Tries the shards in order and returns the first hit.
+     */
+    public <T> Optional<Located<T>> findFirst(Collection<String> shards, Supplier<Optional<T>> lookup) {
+        for (String shard : shards) {
+            Optional<T> found = execute(shard, lookup);
+            if (found.isPresent()) {
+                return Optional.of(new Located<>(shard, found.get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A value together with the shard it was read from.
+     */
+    public record Located<T>(String shard, T value) {
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "task-service.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public ShardRouter singleShardRouter() {
+        return new SingleShardRouter();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ShardTemplate shardTemplate(ShardRouter router, ObjectProvider<ShardIdGenerator> idGenerator,
+                                       ShardingProperties properties) {
+        return new ShardTemplate(router, idGenerator.getIfAvailable(), properties.getScatterThreads(),
+                properties.getScatterTimeout());
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "task-service.sharding", name = "enabled", havingValue = "true")
+    static class Sharded {
+
+        @Bean
+        public ShardRouter consistentHashShardRouter(ShardingProperties properties) {
+            validate(properties);
+            return new ConsistentHashShardRouter(properties);
+        }
+
+        // Replaces the spring.datasource pool; JPA, JdbcTemplate and the transaction manager all go through it
+        @Bean
+        @Primary
+        public ShardRoutingDataSource dataSource(ShardingProperties properties, ShardRouter router) {
+            Map<String, DataSource> shards = new LinkedHashMap<>();
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .driverClassName(shard.getDriverClassName())
+                        .build();
+                dataSource.setPoolName("shard-" + shard.getName());
+                dataSource.setMaximumPoolSize(shard.getMaxPoolSize());
+                shards.put(shard.getName(), dataSource);
+            }
+            return new ShardRoutingDataSource(shards, router.primaryShard());
+        }
+
+        @Bean(initMethod = "register", destroyMethod = "unregister")
+        public ShardIdGenerator shardIdGenerator(ShardingProperties properties, ShardRoutingDataSource dataSource,
+                                                 ShardRouter router) {
+            Map<String, Integer> ids = new LinkedHashMap<>();
+            properties.getShards().forEach(shard -> ids.put(shard.getName(), shard.getId()));
+            return new ShardIdGenerator(dataSource::shard, ids, router.primaryShard(), properties.getIdBlockSize());
+        }
+
+        @Bean(initMethod = "initialize")
+        public ShardSchemaInitializer shardSchemaInitializer(ShardTemplate shardTemplate, ShardRoutingDataSource dataSource,
+                                                             EntityManagerFactory entityManagerFactory) {
+            return new ShardSchemaInitializer(shardTemplate, dataSource, entityManagerFactory);
+        }
+
+        private static void validate(ShardingProperties properties) {
+            if (properties.getShards().isEmpty()) {
+                throw new IllegalStateException("task-service.sharding.enabled needs at least one shard");
+            }
+            Set<String> names = new HashSet<>();
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+                if (shard.getName() == null || !names.add(shard.getName())) {
+                    throw new IllegalStateException("Every shard needs a unique name");
+                }
+            }
+        }
+    }
+}
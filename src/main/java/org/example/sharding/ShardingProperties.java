@@ -0,0 +1,51 @@
+package org.example.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.sharding")
+public class ShardingProperties {
+
+    // Off: one datasource from spring.datasource.*, and every shard operation runs inline on it
+    private boolean enabled = false;
+
+    // What a task is placed by; queries scoped by the other field go to every shard
+    private ShardKey key = ShardKey.TEAM;
+    // Ring points per unit of shard weight; more points spread keys more evenly
+    private int virtualNodes = 128;
+    private List<Shard> shards = new ArrayList<>();
+
+    // Cross-shard queries run on this pool and fail as a whole if a shard misses the timeout
+    private int scatterThreads = 16;
+    private Duration scatterTimeout = Duration.ofSeconds(10);
+
+    // Ids reserved from a shard's task_id_blocks row per round trip
+    private int idBlockSize = 1000;
+
+    private int rebalanceBatchSize = 500;
+    private Duration rebalancePause = Duration.ofMillis(200);
+
+    @Data
+    public static class Shard {
+        private String name;
+        // Selects the shard's id range (id >> 44); fixed for the life of the shard, never reused
+        private int id;
+        // Share of the ring; 0 keeps the shard readable but places nothing on it (drain before removal)
+        private int weight = 1;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maxPoolSize = 10;
+    }
+
+    public enum ShardKey {
+        TEAM,
+        USER
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.sharding;
+
+import java.util.List;
+
+/**
+ * Router for an unsharded deployment: everything lives on the one datasource.
+ */
+public class SingleShardRouter implements ShardRouter {
+
+    public static final String DEFAULT_SHARD = "default";
+
+    private static final List<String> SHARDS = List.of(DEFAULT_SHARD);
+
+    @Override
+    public List<String> shards() {
+        return SHARDS;
+    }
+
+    @Override
+    public String shardFor(String team, Long userId) {
+        return DEFAULT_SHARD;
+    }
+
+    @Override
+    public List<String> shardsForTeam(String team) {
+        return SHARDS;
+    }
+
+    @Override
+    public List<String> shardsForUser(Long userId) {
+        return SHARDS;
+    }
+}
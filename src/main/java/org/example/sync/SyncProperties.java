@@ -0,0 +1,23 @@
+package org.example.sync;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.sync")
+public class SyncProperties {
+
+    // Changes this recent are sent again by the next poll, so a write whose transaction
+    // commits after a later-stamped one (or on a replica with a slightly different clock,
+    // or still in a write-behind buffer) is not skipped
+    private Duration settleWindow = Duration.ofSeconds(5);
+    // How long removals are remembered; older tokens get a full resync
+    private Duration tombstoneRetention = Duration.ofDays(7);
+    // Changes per response; the rest follow on the next call (has_more)
+    private int maxChanges = 1000;
+
+    private Duration purgeInterval = Duration.ofHours(1);
+    private int purgeBatchSize = 1000;
+}
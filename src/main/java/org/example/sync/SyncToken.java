@@ -0,0 +1,47 @@
+package org.example.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in the (updated_at, id) order of a list's changes, handed to clients as an opaque
+ * string. Timestamps are kept to the microsecond, the precision of the columns.
+ *
+ * @param after   changes at or before this time (and id) have been delivered
+ * @param afterId tie-breaker among changes made in the same microsecond
+ */
+public record SyncToken(LocalDateTime after, long afterId) {
+
+    private static final String VERSION = "v1";
+
+    public SyncToken {
+        after = after.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), after);
+        String raw = VERSION + ":" + micros + ":" + afterId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not issued by {@link #encode}
+     */
+    public static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unsupported sync token");
+            }
+            long micros = Long.parseLong(parts[1]);
+            LocalDateTime after = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+            return new SyncToken(after, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.sync;
+
+import org.example.dictionary.TaskDictionary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads and writes {@code task_tombstones} on the shard in the current
+ * {@link org.example.sharding.ShardContext}. Writers call {@link #record} inside the
+ * transaction that removes the task from the list, so a removal and its tombstone commit
+ * together.
+ */
+@Component
+public class TaskTombstones {
+
+    /**
+     * A task removed from a list at {@code removedAt}.
+     */
+    public record Tombstone(long taskId, LocalDateTime removedAt) {
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO task_tombstones (task_id, user_id, team, removed_at) VALUES (?, ?, ?, ?)";
+    private static final String REMOVED_SQL = "SELECT id, user_id, team_id FROM tasks WHERE id IN (%s)";
+    private static final String SELECT_SQL =
+            "SELECT task_id, removed_at FROM task_tombstones WHERE %s = ? " +
+            "AND (removed_at > ? OR (removed_at = ? AND task_id > ?)) ORDER BY removed_at, task_id LIMIT ?";
+    private static final String SELECT_EXPIRED_SQL =
+            "SELECT seq FROM task_tombstones WHERE removed_at < ? ORDER BY removed_at LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM task_tombstones WHERE seq IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskDictionary dictionary;
+
+    public TaskTombstones(JdbcTemplate jdbcTemplate, TaskDictionary dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+    }
+
+    public void record(Long taskId, Long userId, String team, LocalDateTime removedAt) {
+        jdbcTemplate.update(INSERT_SQL, taskId, userId, team, Timestamp.valueOf(removedAt));
+    }
+
+    /**
+     * Records the removal of tasks that are still in {@code tasks}, about to be deleted.
+     */
+    public void recordAll(List<Long> taskIds, LocalDateTime removedAt) {
+        Timestamp at = Timestamp.valueOf(removedAt);
+        // Tombstones name the team, as sync requests do; tasks hold its dictionary code
+        List<Object[]> rows = jdbcTemplate.query(String.format(REMOVED_SQL, placeholders(taskIds.size())),
+                (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getObject("user_id"),
+                        dictionary.name(TaskDictionary.Kind.TEAM, rs.getObject("team_id", Integer.class)), at},
+                taskIds.toArray());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * @return the user's tombstones after {@code after}, in (removed_at, task_id) order
+     */
+    public List<Tombstone> findByUserIdAfter(Long userId, SyncToken after, int limit) {
+        return find("user_id", userId, after, limit);
+    }
+
+    public List<Tombstone> findByTeamAfter(String team, SyncToken after, int limit) {
+        return find("team", team, after, limit);
+    }
+
+    private List<Tombstone> find(String column, Object value, SyncToken after, int limit) {
+        Timestamp at = Timestamp.valueOf(after.after());
+        return jdbcTemplate.query(String.format(SELECT_SQL, column),
+                (rs, rowNum) -> new Tombstone(rs.getLong("task_id"), rs.getTimestamp("removed_at").toLocalDateTime()),
+                value, at, at, after.afterId(), limit);
+    }
+
+    /**
+     * Deletes up to {@code batchSize} tombstones older than {@code before}.
+     *
+     * @return how many were deleted
+     */
+    public int purge(LocalDateTime before, int batchSize) {
+        List<Long> seqs = jdbcTemplate.queryForList(SELECT_EXPIRED_SQL, Long.class, Timestamp.valueOf(before), batchSize);
+        if (seqs.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(String.format(DELETE_SQL, placeholders(seqs.size())), seqs.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
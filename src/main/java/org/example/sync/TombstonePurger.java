@@ -0,0 +1,73 @@
+package org.example.sync;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes tombstones older than {@code tombstone-retention} from every shard, in batches of
+ * {@code purge-batch-size} so no single delete holds many row locks. Tokens that old get a
+ * full resync, so nothing reads these tombstones any more.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+public class TombstonePurger implements DisposableBean {
+
+    private final TaskTombstones tombstones;
+    private final ShardTemplate shards;
+    private final SyncProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final Counter purgedCounter;
+
+    public TombstonePurger(TaskTombstones tombstones, ShardTemplate shards, SyncProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.tombstones = tombstones;
+        this.shards = shards;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-tombstone-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.purgedCounter = Counter.builder("task.sync.tombstones.purged").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getPurgeInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::purgeSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void purgeSafely() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTombstoneRetention());
+        int batchSize = Math.max(1, properties.getPurgeBatchSize());
+        for (String shard : shards.getRouter().shards()) {
+            try {
+                int purged;
+                do {
+                    purged = shards.execute(shard, () -> tombstones.purge(cutoff, batchSize));
+                    purgedCounter.increment(purged);
+                } while (purged == batchSize);
+            } catch (Exception e) {
+                log.error("Tombstone purge failed on shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
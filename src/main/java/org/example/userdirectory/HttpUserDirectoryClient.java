@@ -0,0 +1,50 @@
+package org.example.userdirectory;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls the user service's batch lookup endpoint: {@code POST {base-url}/api/users/batch}
+ * with a JSON array of ids, answered by a JSON array of users.
+ */
+public class HttpUserDirectoryClient implements UserDirectoryClient {
+
+    private final RestClient restClient;
+
+    public HttpUserDirectoryClient(String baseUrl, Duration connectTimeout, Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public Map<Long, UserInfo> findUsers(Collection<Long> ids) {
+        List<UserInfo> users = restClient.post()
+                .uri("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ids)
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<UserInfo>>() {
+                });
+
+        Map<Long, UserInfo> result = new HashMap<>();
+        if (users != null) {
+            for (UserInfo user : users) {
+                result.put(user.id(), user);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.userdirectory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the user service, used when no user service URL is
+ * configured and in tests. With {@code synthesizeMissing} it answers unknown ids with a
+ * placeholder address, matching the service's behaviour before the directory existed.
+ */
+public class InMemoryUserDirectoryClient implements UserDirectoryClient {
+
+    private final Map<Long, UserInfo> users = new ConcurrentHashMap<>();
+    private final boolean synthesizeMissing;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public InMemoryUserDirectoryClient(boolean synthesizeMissing) {
+        this.synthesizeMissing = synthesizeMissing;
+    }
+
+    public void put(UserInfo user) {
+        users.put(user.id(), user);
+    }
+
+    public int getCallCount() {
+        return calls.get();
+    }
+
+    @Override
+    public Map<Long, UserInfo> findUsers(Collection<Long> ids) {
+        calls.incrementAndGet();
+        Map<Long, UserInfo> result = new HashMap<>();
+        for (Long id : ids) {
+            UserInfo user = users.get(id);
+            if (user == null && synthesizeMissing) {
+                user = new UserInfo(id, "user" + id + "@example.com");
+            }
+            if (user != null) {
+                result.put(id, user);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,215 @@
+package org.example.userdirectory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cached, batched front of a {@link UserDirectoryClient}.
+ * <p>
+ * Ids are served from a TTL cache; all misses of one {@link #resolveAll} call go to the
+ * client together, split only at {@code maxBatchSize}. Ids the user service does not know
+ * are cached as absent for the shorter negative TTL. Each batch call is bounded by
+ * {@code callTimeout} and guarded by a {@link CircuitBreaker}: when the call fails or the
+ * breaker is open, expired cache entries are still served and the remaining ids are simply
+ * missing from the result, so callers publish their events without an email (degraded)
+ * instead of blocking the write path.
+ * <p>
+ * At most {@code maxConcurrentCalls} calls run at once. A call that times out is cancelled,
+ * but a client that ignores the interrupt keeps its thread until it returns; once all of
+ * them are taken, further batches count as failed calls rather than starting more threads.
+ */
+@Slf4j
+public class UserDirectory {
+
+    private final UserDirectoryClient client;
+    private final UserDirectoryProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService callExecutor;
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter calls;
+    private final Counter degraded;
+
+    public UserDirectory(UserDirectoryClient client, UserDirectoryProperties properties, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.properties = properties;
+        this.circuitBreaker = new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration());
+        int maxCalls = Math.max(1, properties.getMaxConcurrentCalls());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxCalls, maxCalls, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "user-directory-call");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        this.callExecutor = executor;
+
+        this.hits = Counter.builder("task.userdirectory.lookups").tag("outcome", "hit").register(meterRegistry);
+        this.misses = Counter.builder("task.userdirectory.lookups").tag("outcome", "miss").register(meterRegistry);
+        this.degraded = Counter.builder("task.userdirectory.lookups").tag("outcome", "degraded").register(meterRegistry);
+        this.calls = Counter.builder("task.userdirectory.calls").register(meterRegistry);
+        Gauge.builder("task.userdirectory.cache.size", cache, Map::size).register(meterRegistry);
+        Gauge.builder("task.userdirectory.circuit.open", circuitBreaker,
+                        cb -> cb.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
+    }
+
+    public UserInfo resolve(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return resolveAll(List.of(userId)).get(userId);
+    }
+
+    /**
+     * Resolves the given ids with at most one remote call per {@code maxBatchSize} cache
+     * misses. Ids that are unknown or could not be looked up are absent from the result.
+     */
+    public Map<Long, UserInfo> resolveAll(Collection<Long> userIds) {
+        Map<Long, UserInfo> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+
+        for (Long id : userIds) {
+            if (id == null || result.containsKey(id)) {
+                continue;
+            }
+            Entry entry = cache.get(id);
+            if (entry != null && !entry.isExpired(now)) {
+                hits.increment();
+                if (entry.user != null) {
+                    result.put(id, entry.user);
+                }
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+
+        List<Long> ids = new ArrayList<>(missing);
+        int batchSize = Math.max(1, properties.getMaxBatchSize());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            Map<Long, UserInfo> found = fetch(batch);
+            if (found != null) {
+                store(batch, found);
+                result.putAll(found);
+            } else {
+                serveStale(batch, result);
+            }
+        }
+        return result;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public void invalidate(Long userId) {
+        cache.remove(userId);
+    }
+
+    public void shutdown() {
+        callExecutor.shutdownNow();
+    }
+
+    // Null means the call was not made or failed
+    private Map<Long, UserInfo> fetch(List<Long> batch) {
+        if (!circuitBreaker.tryAcquire()) {
+            return null;
+        }
+        calls.increment();
+        List<Long> request = List.copyOf(batch);
+        Future<Map<Long, UserInfo>> call;
+        try {
+            call = callExecutor.submit(() -> client.findUsers(request));
+        } catch (RejectedExecutionException e) {
+            // Every call thread is still held by an earlier call the client has not given up
+            circuitBreaker.onFailure();
+            log.warn("User directory lookup of {} ids skipped: {} calls still running",
+                    request.size(), properties.getMaxConcurrentCalls());
+            return null;
+        }
+        try {
+            Map<Long, UserInfo> found = call.get(properties.getCallTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return found != null ? found : Map.of();
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            circuitBreaker.onAbandoned();
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            circuitBreaker.onFailure();
+            log.warn("User directory lookup of {} ids timed out", request.size());
+            return null;
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            log.warn("User directory lookup of {} ids failed: {}", request.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(List<Long> batch, Map<Long, UserInfo> found) {
+        if (cache.size() + batch.size() > properties.getMaxEntries()) {
+            evictExpired();
+        }
+        if (cache.size() + batch.size() > properties.getMaxEntries()) {
+            // Still full of live entries: start over rather than track recency on every hit
+            cache.clear();
+        }
+        long now = System.nanoTime();
+        long ttl = properties.getTtl().toNanos();
+        long negativeTtl = properties.getNegativeTtl().toNanos();
+        for (Long id : batch) {
+            UserInfo user = found.get(id);
+            cache.put(id, new Entry(user, now + (user != null ? ttl : negativeTtl)));
+        }
+    }
+
+    private void serveStale(List<Long> batch, Map<Long, UserInfo> result) {
+        for (Long id : batch) {
+            Entry entry = cache.get(id);
+            if (entry != null && entry.user != null) {
+                result.put(id, entry.user);
+            } else {
+                degraded.increment();
+            }
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        cache.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private record Entry(UserInfo user, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
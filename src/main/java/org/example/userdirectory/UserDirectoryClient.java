@@ -0,0 +1,15 @@
+package org.example.userdirectory;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Remote lookup of users by id.
+ */
+public interface UserDirectoryClient {
+
+    /**
+     * Resolves all ids in a single round trip. Unknown ids are absent from the result.
+     */
+    Map<Long, UserInfo> findUsers(Collection<Long> ids);
+}
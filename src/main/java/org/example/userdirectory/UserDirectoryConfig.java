@@ -0,0 +1,32 @@
+package org.example.userdirectory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(UserDirectoryProperties.class)
+public class UserDirectoryConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public UserDirectoryClient userDirectoryClient(UserDirectoryProperties properties) {
+        if (properties.getBaseUrl() == null || properties.getBaseUrl().isBlank()) {
+            log.info("No user service configured; using placeholder user emails");
+            return new InMemoryUserDirectoryClient(true);
+        }
+        return new HttpUserDirectoryClient(
+                properties.getBaseUrl(), properties.getConnectTimeout(), properties.getReadTimeout());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public UserDirectory userDirectory(UserDirectoryClient client,
+                                       UserDirectoryProperties properties,
+                                       MeterRegistry meterRegistry) {
+        return new UserDirectory(client, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.userdirectory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.user-directory")
+public class UserDirectoryProperties {
+
+    // Empty = use the in-process stand-in instead of the user service
+    private String baseUrl = "";
+    private Duration connectTimeout = Duration.ofMillis(500);
+    private Duration readTimeout = Duration.ofSeconds(1);
+    // Upper bound for one batch call, including connection setup and retries inside the client
+    private Duration callTimeout = Duration.ofSeconds(2);
+    private int maxBatchSize = 100;
+    // Batch calls in flight at once: one per event sender, plus calls stuck past callTimeout
+    private int maxConcurrentCalls = 8;
+
+    private Duration ttl = Duration.ofMinutes(10);
+    // How long an id the user service does not know is remembered as unknown
+    private Duration negativeTtl = Duration.ofMinutes(1);
+    private int maxEntries = 10_000;
+
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(30);
+}
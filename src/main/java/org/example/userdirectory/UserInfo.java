@@ -0,0 +1,4 @@
+package org.example.userdirectory;
+
+public record UserInfo(Long id, String email) {
+}
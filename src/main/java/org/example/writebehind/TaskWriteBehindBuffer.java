@@ -0,0 +1,433 @@
+package org.example.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dictionary.TaskDictionary;
+import org.example.dto.Priority;
+import org.example.dto.TaskRequestDto;
+import org.example.dto.TaskResponseDto;
+import org.example.sharding.ShardTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Absorbs status and priority changes in memory and writes them to {@code tasks} in batches.
+ * <p>
+ * A task that is updated several times between flushes is written once, with its latest
+ * state. Every change is appended to a local {@link WriteBehindJournal} before it becomes
+ * visible, so a crash loses nothing that was acknowledged: the next start replays the
+ * journal and flushes it. A flush runs every {@code flush-interval}, as soon as
+ * {@code max-pending} tasks are buffered, and on shutdown.
+ * <p>
+ * Each flush is one JDBC batch per shard. A row only takes the buffered state if it was not
+ * changed after the buffered update ({@code updated_at}), so a full update from this or
+ * another instance is never overwritten by an older buffered one.
+ * <p>
+ * Reads do not wait for a flush: {@link #overlay(List, Predicate, Comparator)} and
+ * {@link #overlay(long, Predicate)} apply the buffered states to what the database returned.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@EnableConfigurationProperties(WriteBehindProperties.class)
+@ConditionalOnProperty(prefix = "task-service.write-behind", name = "enabled", havingValue = "true")
+public class TaskWriteBehindBuffer implements DisposableBean {
+
+    static final String UPDATE_SQL =
+            "UPDATE tasks SET status_id = ?, priority_code = ?, completed_at = ?, updated_at = ? " +
+            "WHERE id = ? AND (updated_at IS NULL OR updated_at <= ?)";
+
+    private static final int STRIPES = 64;
+
+    /**
+     * A task's current state as read from its shard.
+     */
+    public record Loaded(String shard, TaskResponseDto task) {
+    }
+
+    /**
+     * The result of applying an update: the state before and after it, and the fields it changed.
+     */
+    public record Change(TaskResponseDto previous, TaskResponseDto current, List<String> changedFields) {
+    }
+
+    /**
+     * A task written by a flush, with every field changed since the previous flush.
+     */
+    public record Flushed(TaskResponseDto task, List<String> changedFields) {
+    }
+
+    // stored: the row's state the task will be written over, null if not known
+    private record Pending(String shard, TaskResponseDto task, List<String> changedFields, TaskResponseDto stored) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTemplate shards;
+    private final TaskDictionary dictionary;
+    private final WriteBehindProperties properties;
+    private final WriteBehindJournal journal;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+    // Appends hold the read side; a flush takes the write side to cut the journal at a consistent point
+    private final ReadWriteLock rotation = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final List<Consumer<List<Flushed>>> flushListeners = new ArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private final Counter flushedCounter;
+    private final Counter supersededCounter;
+
+    public TaskWriteBehindBuffer(JdbcTemplate jdbcTemplate, ShardTemplate shards, TaskDictionary dictionary,
+                                 ObjectMapper objectMapper, WriteBehindProperties properties,
+                                 MeterRegistry meterRegistry) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.dictionary = dictionary;
+        this.properties = properties;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.journal = new WriteBehindJournal(properties.getJournalDir(), properties.isFsync(), objectMapper);
+        recover();
+
+        this.flushedCounter = Counter.builder("task.writebehind.flushed")
+                .description("Buffered task updates written to the database")
+                .register(meterRegistry);
+        this.supersededCounter = Counter.builder("task.writebehind.superseded")
+                .description("Buffered task updates dropped because the row was changed or deleted after them")
+                .register(meterRegistry);
+        Gauge.builder("task.writebehind.pending", pending, Map::size).register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-write-behind-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Replays what a previous process buffered but never flushed into a fresh segment
+    private void recover() throws IOException {
+        List<WriteBehindJournal.Record> records = journal.recover();
+        for (WriteBehindJournal.Record record : records) {
+            Pending previous = pending.get(record.id());
+            List<String> changed = previous != null ? union(previous.changedFields(), record.changed()) : record.changed();
+            TaskResponseDto stored = previous != null ? previous.stored() : record.stored();
+            pending.put(record.id(), new Pending(record.shard(), record.task(), changed, stored));
+        }
+        journal.open();
+        pending.forEach((id, entry) -> journal.append(toRecord(id, entry)));
+        journal.discardRecovered();
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} buffered task updates from {}", pending.size(), properties.getJournalDir());
+        }
+    }
+
+    /**
+     * @return whether an update touches nothing but status and priority, the fields this buffer absorbs
+     */
+    public static boolean accepts(TaskRequestDto update) {
+        return (update.getStatus() != null || update.getPriority() != null)
+                && update.getTitle() == null && update.getDescription() == null && update.getCategory() == null
+                && update.getTeam() == null && update.getUserId() == null && update.getDueDate() == null
+                && update.getDuration() == null;
+    }
+
+    /**
+     * Applies an update to a task's buffered state, reading it with {@code loader} if nothing is
+     * buffered for it. {@code mutation} gets a state it must not modify. The change is journaled
+     * before it is visible to {@link #pendingTask(long)}; an update that changes nothing is not
+     * buffered.
+     */
+    public Change update(long id, Supplier<Loaded> loader, Function<TaskResponseDto, Change> mutation) {
+        Change change;
+        rotation.readLock().lock();
+        try {
+            synchronized (stripes[(int) Math.floorMod(id, (long) STRIPES)]) {
+                Pending current = pending.get(id);
+                String shard;
+                List<String> changedBefore;
+                TaskResponseDto stored;
+                if (current != null) {
+                    shard = current.shard();
+                    change = mutation.apply(current.task());
+                    changedBefore = current.changedFields();
+                    stored = current.stored();
+                } else {
+                    Loaded loaded = loader.get();
+                    shard = loaded.shard();
+                    change = mutation.apply(loaded.task());
+                    changedBefore = List.of();
+                    stored = loaded.task();
+                }
+                if (change.changedFields().isEmpty()) {
+                    return change;
+                }
+                Pending next = new Pending(shard, change.current(), union(changedBefore, change.changedFields()), stored);
+                journal.append(toRecord(id, next));
+                pending.put(id, next);
+            }
+        } finally {
+            rotation.readLock().unlock();
+        }
+        if (pending.size() >= properties.getMaxPending()) {
+            scheduler.execute(this::flush);
+        }
+        return change;
+    }
+
+    /**
+     * @return the buffered state of a task, or null if it has no unflushed changes
+     */
+    public TaskResponseDto pendingTask(long id) {
+        Pending entry = pending.get(id);
+        return entry != null ? entry.task() : null;
+    }
+
+    /**
+     * Applies this instance's buffered changes to tasks read from the database: a task with
+     * buffered changes is replaced by its buffered state, or left out if that no longer
+     * matches {@code filter}, and buffered tasks that match only now are added. With an
+     * {@code order}, the result is sorted again. {@code rows} is not modified.
+     */
+    public List<TaskResponseDto> overlay(List<TaskResponseDto> rows, Predicate<TaskResponseDto> filter,
+                                         Comparator<? super TaskResponseDto> order) {
+        if (pending.isEmpty()) {
+            return rows;
+        }
+        List<TaskResponseDto> result = new ArrayList<>(rows.size());
+        Set<Long> seen = new HashSet<>();
+        boolean changed = false;
+        for (TaskResponseDto row : rows) {
+            Pending entry = pending.get(row.getId());
+            if (entry == null) {
+                result.add(row);
+                continue;
+            }
+            seen.add(row.getId());
+            changed = true;
+            if (filter.test(entry.task())) {
+                result.add(entry.task());
+            }
+        }
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            if (!seen.contains(entry.getKey()) && filter.test(entry.getValue().task())) {
+                result.add(entry.getValue().task());
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return rows;
+        }
+        if (order != null) {
+            result.sort(order);
+        }
+        return result;
+    }
+
+    /**
+     * Corrects a count read from the database for this instance's buffered changes: a
+     * buffered task counts if its buffered state matches {@code filter}, not if the row it
+     * will be written over does. Tasks recovered from an older journal, whose row state is
+     * not known, are counted as the database has them until they are flushed.
+     */
+    public long overlay(long count, Predicate<TaskResponseDto> filter) {
+        for (Pending entry : pending.values()) {
+            if (entry.stored() != null) {
+                count += (filter.test(entry.task()) ? 1 : 0) - (filter.test(entry.stored()) ? 1 : 0);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drops a task's buffered state that was written by other means, unless it has changed
+     * since {@code task} was read from {@link #pendingTask(long)}. Should the process stop
+     * first, the journaled copy is superseded by the newer row when it is replayed.
+     */
+    public void discard(long id, TaskResponseDto task) {
+        synchronized (stripes[(int) Math.floorMod(id, (long) STRIPES)]) {
+            Pending entry = pending.get(id);
+            if (entry != null && entry.task() == task) {
+                pending.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Registers a callback for the tasks each flush writes.
+     */
+    public synchronized void onFlushed(Consumer<List<Flushed>> listener) {
+        flushListeners.add(listener);
+    }
+
+    /**
+     * Writes everything buffered so far. Called before writes that do not go through the
+     * buffer, so they are applied on top of its changes.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushPending();
+        } catch (Exception e) {
+            log.error("Failed to flush buffered task updates: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() throws IOException {
+        Map<Long, Pending> taken;
+        Path segment;
+        rotation.writeLock().lock();
+        try {
+            taken = new HashMap<>(pending);
+            segment = journal.rotate();
+        } finally {
+            rotation.writeLock().unlock();
+        }
+        if (taken.isEmpty()) {
+            journal.delete(segment);
+            return;
+        }
+
+        Map<String, Map<Long, Pending>> byShard = new LinkedHashMap<>();
+        taken.forEach((id, entry) -> byShard.computeIfAbsent(entry.shard(), shard -> new LinkedHashMap<>()).put(id, entry));
+        List<Flushed> flushed = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, Pending>> shard : byShard.entrySet()) {
+            try {
+                writeShard(shard.getKey(), shard.getValue(), flushed);
+            } catch (RuntimeException e) {
+                // Left buffered, and carried into the current segment below
+                log.error("Failed to write {} buffered task updates to shard {}: {}",
+                        shard.getValue().size(), shard.getKey(), e.getMessage());
+            }
+        }
+
+        // Whatever is still buffered as taken was not written; it must outlive the old segment
+        for (Map.Entry<Long, Pending> entry : taken.entrySet()) {
+            long id = entry.getKey();
+            synchronized (stripes[(int) Math.floorMod(id, (long) STRIPES)]) {
+                if (pending.get(id) == entry.getValue()) {
+                    journal.append(toRecord(id, entry.getValue()));
+                }
+            }
+        }
+        journal.delete(segment);
+
+        if (!flushed.isEmpty()) {
+            notifyFlushed(flushed);
+        }
+    }
+
+    private void writeShard(String shard, Map<Long, Pending> entries, List<Flushed> flushed) {
+        List<Long> ids = new ArrayList<>(entries.keySet());
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            TaskResponseDto task = entries.get(id).task();
+            Priority priority = task.getPriority() != null ? task.getPriority() : Priority.LOW;
+            Timestamp updatedAt = task.getUpdatedAt() != null ? Timestamp.valueOf(task.getUpdatedAt()) : null;
+            batch.add(new Object[]{dictionary.register(TaskDictionary.Kind.STATUS, task.getStatus()),
+                    priority.getCode(),
+                    task.getCompletedAt() != null ? Timestamp.valueOf(task.getCompletedAt()) : null,
+                    updatedAt, id, updatedAt});
+        }
+        int[] counts = shards.execute(shard, () -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Pending entry = entries.get(id);
+            // A newer update replaces the entry; it stays buffered for the next flush, over what this one wrote
+            TaskResponseDto written = counts[i] != 0 ? entry.task() : null;
+            synchronized (stripes[(int) Math.floorMod(id, (long) STRIPES)]) {
+                if (!pending.remove(id, entry)) {
+                    pending.computeIfPresent(id, (key, newer) ->
+                            new Pending(newer.shard(), newer.task(), newer.changedFields(), written));
+                }
+            }
+            if (counts[i] == 0) {
+                supersededCounter.increment();
+            } else {
+                flushedCounter.increment();
+                flushed.add(new Flushed(entry.task(), entry.changedFields()));
+            }
+        }
+    }
+
+    private synchronized void notifyFlushed(List<Flushed> flushed) {
+        for (Consumer<List<Flushed>> listener : flushListeners) {
+            try {
+                listener.accept(flushed);
+            } catch (Exception e) {
+                log.warn("Write-behind flush listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static WriteBehindJournal.Record toRecord(long id, Pending entry) {
+        return new WriteBehindJournal.Record(id, entry.shard(), entry.changedFields(), entry.task(), entry.stored());
+    }
+
+    private static List<String> union(List<String> first, List<String> second) {
+        Set<String> fields = new LinkedHashSet<>(first);
+        fields.addAll(second);
+        return List.copyOf(fields);
+    }
+
+    @Override
+    public void destroy() {
+        // Not interrupted: an interrupt closes the journal's channel mid-append
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(properties.getFlushInterval().toMillis() + 10_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            if (pending.isEmpty()) {
+                journal.closeAndDelete();
+            } else {
+                log.warn("{} buffered task updates could not be written; they are kept in {} for the next start",
+                        pending.size(), properties.getJournalDir());
+                journal.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
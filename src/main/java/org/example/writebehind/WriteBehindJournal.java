@@ -0,0 +1,158 @@
+package org.example.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.TaskResponseDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of buffered task changes, one JSON line per change, in numbered segment
+ * files. Each flush starts a new segment; the previous one is deleted once everything in it
+ * is either in the database or appended again to the current segment. Whatever segments
+ * exist at startup belong to a process that stopped before flushing and are replayed.
+ */
+@Slf4j
+class WriteBehindJournal implements Closeable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    /**
+     * One buffered change: the task's full state after it, the fields changed since the last
+     * flush, and the state of the row it will be written over (null in journals written
+     * before it was recorded).
+     */
+    record Record(long id, String shard, List<String> changed, TaskResponseDto task, TaskResponseDto stored) {
+    }
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+    private final List<Path> recovered = new ArrayList<>();
+    private long sequence;
+    private Path segment;
+    private FileChannel channel;
+
+    WriteBehindJournal(Path directory, boolean fsync, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the segments left by a previous process, oldest first. They are kept until
+     * {@link #discardRecovered()}, after the records have been appended to a new segment.
+     */
+    List<Record> recover() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> sequenceOf(file) >= 0)
+                    .sorted((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)))
+                    .forEach(recovered::add);
+        }
+        List<Record> records = new ArrayList<>();
+        for (Path file : recovered) {
+            sequence = Math.max(sequence, sequenceOf(file));
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        records.add(objectMapper.readValue(line, Record.class));
+                    } catch (IOException e) {
+                        // A line torn by a crash mid-append; its change was never acknowledged
+                        log.warn("Skipping unreadable write-behind journal entry in {}: {}", file, e.getMessage());
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    void discardRecovered() throws IOException {
+        for (Path file : recovered) {
+            Files.deleteIfExists(file);
+        }
+        recovered.clear();
+    }
+
+    synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        sequence++;
+        segment = directory.resolve(PREFIX + sequence + SUFFIX);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    synchronized void append(Record record) {
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(record);
+            ByteBuffer buffer = ByteBuffer.allocate(line.length + 1).put(line).put((byte) '\n').flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to the write-behind journal " + segment, e);
+        }
+    }
+
+    /**
+     * Starts a new segment for subsequent appends.
+     *
+     * @return the segment written so far
+     */
+    synchronized Path rotate() throws IOException {
+        Path previous = segment;
+        channel.close();
+        open();
+        return previous;
+    }
+
+    void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    // After a shutdown that flushed everything: nothing is left to replay
+    synchronized void closeAndDelete() throws IOException {
+        close();
+        if (segment != null) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
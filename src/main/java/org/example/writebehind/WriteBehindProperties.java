@@ -0,0 +1,24 @@
+package org.example.writebehind;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task-service.write-behind")
+public class WriteBehindProperties {
+
+    // Opt-in: status/priority-only updates are buffered and written in batches
+    private boolean enabled = false;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+    // Buffered tasks that trigger a flush before the interval is up
+    private int maxPending = 1000;
+
+    // Local directory for the write-ahead journal; must survive a process restart
+    private Path journalDir = Path.of("data/write-behind");
+    // fsync every journal append; without it a power loss can drop the last buffered changes
+    private boolean fsync = true;
+}
@@ -52,4 +52,119 @@ ALTER TABLE tasks ADD COLUMN due_date TIMESTAMP;
 ALTER TABLE tasks ADD COLUMN duration INTEGER;
 
 -- Ensure user_id is not nullable
-ALTER TABLE tasks ALTER COLUMN user_id SET NOT NULL;
\ No newline at end of file
+ALTER TABLE tasks ALTER COLUMN user_id SET NOT NULL;
+
+-- Range scans for the deadline scheduler (InnoDB appends the primary key, giving (due_date, id))
+CREATE INDEX idx_tasks_due_date ON tasks (due_date);
+
+-- Archive scans (completed_at predates the archiver; fill it in for tasks already finished)
+UPDATE tasks SET completed_at = updated_at WHERE status IN ('DONE', 'COMPLETED') AND completed_at IS NULL;
+CREATE INDEX idx_tasks_completed_at ON tasks (completed_at);
+
+-- Numeric priority (LOW 0, MEDIUM 1, HIGH 2) so ORDER BY priority sorts by urgency. Newer
+-- instances write only priority_code and older ones only priority; while both run, these
+-- triggers fill in whichever one a write left out (tasks_archive, created by the service,
+-- gets the same pair). The service then fills priority_code for existing rows online.
+ALTER TABLE tasks ADD COLUMN priority_code TINYINT;
+CREATE INDEX idx_tasks_priority_code ON tasks (priority_code);
+
+DELIMITER //
+CREATE TRIGGER tasks_priority_insert BEFORE INSERT ON tasks FOR EACH ROW
+BEGIN
+    IF NEW.priority_code IS NULL THEN
+        SET NEW.priority_code = CASE UPPER(TRIM(NEW.priority))
+            WHEN 'HIGH' THEN 2 WHEN '2' THEN 2 WHEN 'MEDIUM' THEN 1 WHEN '1' THEN 1 ELSE 0 END;
+    ELSE
+        SET NEW.priority = ELT(NEW.priority_code + 1, 'LOW', 'MEDIUM', 'HIGH');
+    END IF;
+END//
+CREATE TRIGGER tasks_priority_update BEFORE UPDATE ON tasks FOR EACH ROW
+BEGIN
+    IF NOT (NEW.priority_code <=> OLD.priority_code) THEN
+        SET NEW.priority = ELT(NEW.priority_code + 1, 'LOW', 'MEDIUM', 'HIGH');
+    ELSEIF NOT (NEW.priority <=> OLD.priority) THEN
+        SET NEW.priority_code = CASE UPPER(TRIM(NEW.priority))
+            WHEN 'HIGH' THEN 2 WHEN '2' THEN 2 WHEN 'MEDIUM' THEN 1 WHEN '1' THEN 1 ELSE 0 END;
+    END IF;
+END//
+DELIMITER ;
+
+-- After the backfill has logged "priority_code backfill complete" (readiness is UP again),
+-- every row has a code: make it required. Once no older instance is left, drop the triggers
+-- and the priority column.
+ALTER TABLE tasks MODIFY priority_code TINYINT NOT NULL;
+ALTER TABLE tasks_archive MODIFY priority_code TINYINT NOT NULL;
+
+-- Dictionary-encoded status, category and team: small-integer codes into task_statuses,
+-- task_categories and task_teams. The service assigns codes on the primary database and
+-- copies every entry, with the same id, to each shard; these copies (created here so the
+-- triggers below can use them) are what the triggers translate with. Filters, counts and the
+-- indexes are on the codes. While older instances still read and write only the names, the
+-- triggers fill in the side a write left out; the service fills the codes of existing rows
+-- online and reports not ready until that is done.
+ALTER TABLE tasks ADD COLUMN status_id INT;
+ALTER TABLE tasks ADD COLUMN category_id INT;
+ALTER TABLE tasks ADD COLUMN team_id INT;
+CREATE INDEX idx_tasks_status_id ON tasks (status_id);
+CREATE INDEX idx_tasks_category_id ON tasks (category_id);
+CREATE INDEX idx_tasks_team_id_status_id ON tasks (team_id, status_id);
+CREATE INDEX idx_tasks_team_id_priority_code ON tasks (team_id, priority_code);
+
+CREATE TABLE IF NOT EXISTS task_statuses (id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL, CONSTRAINT uk_task_statuses_name UNIQUE (name));
+CREATE TABLE IF NOT EXISTS task_categories (id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL, CONSTRAINT uk_task_categories_name UNIQUE (name));
+CREATE TABLE IF NOT EXISTS task_teams (id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL, CONSTRAINT uk_task_teams_name UNIQUE (name));
+
+-- A name the dictionary does not know yet leaves its code NULL until the backfill's next run.
+-- tasks_archive, created by the service, gets the same pair.
+DELIMITER //
+CREATE TRIGGER tasks_dictionary_insert BEFORE INSERT ON tasks FOR EACH ROW
+BEGIN
+    IF NEW.status_id IS NULL THEN
+        SET NEW.status_id = (SELECT id FROM task_statuses WHERE name = NEW.status COLLATE utf8mb4_bin);
+    ELSE
+        SET NEW.status = (SELECT name FROM task_statuses WHERE id = NEW.status_id);
+    END IF;
+    IF NEW.category_id IS NULL THEN
+        SET NEW.category_id = (SELECT id FROM task_categories WHERE name = NEW.category COLLATE utf8mb4_bin);
+    ELSE
+        SET NEW.category = (SELECT name FROM task_categories WHERE id = NEW.category_id);
+    END IF;
+    IF NEW.team_id IS NULL THEN
+        SET NEW.team_id = (SELECT id FROM task_teams WHERE name = NEW.team COLLATE utf8mb4_bin);
+    ELSE
+        SET NEW.team = (SELECT name FROM task_teams WHERE id = NEW.team_id);
+    END IF;
+END//
+CREATE TRIGGER tasks_dictionary_update BEFORE UPDATE ON tasks FOR EACH ROW
+BEGIN
+    IF NOT (NEW.status_id <=> OLD.status_id) THEN
+        SET NEW.status = (SELECT name FROM task_statuses WHERE id = NEW.status_id);
+    ELSEIF NOT (NEW.status <=> OLD.status) THEN
+        SET NEW.status_id = (SELECT id FROM task_statuses WHERE name = NEW.status COLLATE utf8mb4_bin);
+    END IF;
+    IF NOT (NEW.category_id <=> OLD.category_id) THEN
+        SET NEW.category = (SELECT name FROM task_categories WHERE id = NEW.category_id);
+    ELSEIF NOT (NEW.category <=> OLD.category) THEN
+        SET NEW.category_id = (SELECT id FROM task_categories WHERE name = NEW.category COLLATE utf8mb4_bin);
+    END IF;
+    IF NOT (NEW.team_id <=> OLD.team_id) THEN
+        SET NEW.team = (SELECT name FROM task_teams WHERE id = NEW.team_id);
+    ELSEIF NOT (NEW.team <=> OLD.team) THEN
+        SET NEW.team_id = (SELECT id FROM task_teams WHERE name = NEW.team COLLATE utf8mb4_bin);
+    END IF;
+END//
+DELIMITER ;
+
+-- Once no older instance is left: drop the triggers, then the status, category and team
+-- columns and their indexes, and set task-service.dictionary-migration.enabled=false.
+
+-- Due-date ranges and month calendars scoped to a user or a team
+CREATE INDEX idx_tasks_user_id_due_date ON tasks (user_id, due_date);
+CREATE INDEX idx_tasks_team_id_due_date ON tasks (team_id, due_date);
+
+-- Delta sync: a list's changes in (updated_at, id) order (InnoDB appends the primary key)
+CREATE INDEX idx_tasks_user_id_updated_at ON tasks (user_id, updated_at);
+CREATE INDEX idx_tasks_team_id_updated_at ON tasks (team_id, updated_at);